@@ -0,0 +1,84 @@
+/*
+ * Copyright (C) 2015-2017 akha, a.k.a. Alexander Kharitonov
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package akha.yakhont.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The synthetic data model (something like typical REST responses) used by the benchmarks.
+ *
+ * @author akha
+ */
+public class BenchmarkData {
+
+    /** The item of the synthetic data. */
+    @SuppressWarnings("unused")
+    public static class Item {
+
+        private long            id;
+        private String          title;
+        private String          description;
+        private double          price;
+        private boolean         available;
+        private List<String>    tags;
+        private Owner           owner;
+    }
+
+    /** The nested object of the synthetic data (stored in cache as a JSON string). */
+    @SuppressWarnings("unused")
+    public static class Owner {
+
+        private long            id;
+        private String          name;
+    }
+
+    private BenchmarkData() {
+    }
+
+    /**
+     * Creates the array of synthetic items.
+     *
+     * @param size
+     *        The number of items
+     *
+     * @return  The items
+     */
+    public static Item[] createItems(final int size) {
+        final Item[] items = new Item[size];
+        for (int i = 0; i < size; i++) {
+            final Item item = new Item();
+
+            item.id             = i;
+            item.title          = "title " + i;
+            item.description    = "the description of the item number " + i + ", not too short and not too long";
+            item.price          = i * 1.25;
+            item.available      = i % 2 == 0;
+
+            item.tags           = new ArrayList<>();
+            for (int j = 0; j < 3; j++)
+                item.tags.add("tag" + (i + j) % 10);
+
+            item.owner          = new Owner();
+            item.owner.id       = i % 7;
+            item.owner.name     = "owner " + i % 7;
+
+            items[i] = item;
+        }
+        return items;
+    }
+}
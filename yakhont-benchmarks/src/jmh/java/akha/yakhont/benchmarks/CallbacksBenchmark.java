@@ -0,0 +1,86 @@
+/*
+ * Copyright (C) 2015-2017 akha, a.k.a. Alexander Kharitonov
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package akha.yakhont.benchmarks;
+
+import akha.yakhont.callback.BaseCallbacks;
+import akha.yakhont.callback.annotation.Callbacks;
+import akha.yakhont.callback.annotation.CallbacksInherited;
+import akha.yakhont.callback.annotation.StopCallbacks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for the {@link BaseCallbacks#proceed(Object, Class) BaseCallbacks.proceed()}
+ * (which is called for every lifecycle event of every Activity / Fragment).
+ *
+ * @author akha
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class CallbacksBenchmark {
+
+    private final Object                mAnnotated          = new Annotated();
+    private final Object                mInherited          = new Inherited();
+    private final Object                mStopped            = new Stopped();
+    private final Object                mNotAnnotated       = new Object();
+
+    public static class BenchmarkCallbacks extends BaseCallbacks<Object> {
+    }
+
+    @Callbacks(BenchmarkCallbacks.class)
+    public static class Annotated {
+    }
+
+    @CallbacksInherited(BenchmarkCallbacks.class)
+    public static class InheritedBase {
+    }
+
+    public static class Inherited extends InheritedBase {
+    }
+
+    @StopCallbacks(BenchmarkCallbacks.class)
+    public static class Stopped extends InheritedBase {
+    }
+
+    @Benchmark
+    public boolean proceedAnnotated() {
+        return BaseCallbacks.proceed(mAnnotated, BenchmarkCallbacks.class);
+    }
+
+    @Benchmark
+    public boolean proceedInherited() {
+        return BaseCallbacks.proceed(mInherited, BenchmarkCallbacks.class);
+    }
+
+    @Benchmark
+    public boolean proceedStopped() {
+        return BaseCallbacks.proceed(mStopped, BenchmarkCallbacks.class);
+    }
+
+    @Benchmark
+    public boolean proceedNotAnnotated() {
+        return BaseCallbacks.proceed(mNotAnnotated, BenchmarkCallbacks.class);
+    }
+}
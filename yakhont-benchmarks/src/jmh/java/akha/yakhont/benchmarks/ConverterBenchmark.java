@@ -0,0 +1,165 @@
+/*
+ * Copyright (C) 2015-2017 akha, a.k.a. Alexander Kharitonov
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package akha.yakhont.benchmarks;
+
+import akha.yakhont.benchmarks.BenchmarkData.Item;
+import akha.yakhont.loader.BaseConverter;
+
+import android.content.ContentValues;
+import android.database.Cursor;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParser;
+import com.google.gson.stream.JsonWriter;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for the {@link BaseConverter}, with and without locks (the default converter serializes
+ * all Gson calls on the global lock). Only the workloads of the same kind are compared:
+ * <ul>
+ *   <li>{@code toContentValues*} - the data objects to {@code ContentValues} (i.e. the network response
+ *   to be cached), and {@code toJsonReference} - the plain Gson serialization of the same objects;</li>
+ *   <li>{@code toCursor*} - the JSON text to {@code Cursor} (i.e. the raw response to be shown without caching),
+ *   and {@code parseReference} - the plain Gson parsing of the same text.</li>
+ * </ul>
+ *
+ * @author akha
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ConverterBenchmark {
+
+    @Param({"10", "100", "1000"})
+    private int                         mSize;
+
+    private final Gson                  mGson                   = new Gson();
+
+    private Item[]                      mItems;
+    private String                      mJson;
+
+    private BaseConverter<Item[]>       mConverter;
+    private NoLockConverter<Item[]>     mNoLockConverter;
+
+    /** The converter which does the same as the default one but without locking. */
+    public static class NoLockConverter<D> extends BaseConverter<D> {
+
+        @Override
+        protected JsonElement getJsonElement(final D src) {
+            if (mType == null) setType(src.getClass());
+            return getGson().toJsonTree(src, getType());
+        }
+
+        @Override
+        public Cursor getCursor(final Reader reader) {
+            // JsonParser is not thread-safe, so no sharing
+            return getCursor(new JsonParser().parse(reader));
+        }
+    }
+
+    @Setup
+    public void setup() {
+        mItems              = BenchmarkData.createItems(mSize);
+
+        mConverter          = new BaseConverter<>();
+        mConverter.setType(Item[].class);
+
+        mNoLockConverter    = new NoLockConverter<>();
+        mNoLockConverter.setType(Item[].class);
+
+        mJson               = mGson.toJson(mItems);
+    }
+
+    @Benchmark
+    public ContentValues[] toContentValuesLocked() {
+        return mConverter.get(mItems);
+    }
+
+    @Benchmark
+    public ContentValues[] toContentValuesNoLock() {
+        return mNoLockConverter.get(mItems);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public ContentValues[] toContentValuesLockedContended() {
+        return mConverter.get(mItems);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public ContentValues[] toContentValuesNoLockContended() {
+        return mNoLockConverter.get(mItems);
+    }
+
+    @Benchmark
+    public Cursor toCursorLocked() {
+        return mConverter.getCursor(new StringReader(mJson));
+    }
+
+    @Benchmark
+    public Cursor toCursorNoLock() {
+        return mNoLockConverter.getCursor(new StringReader(mJson));
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Cursor toCursorLockedContended() {
+        return mConverter.getCursor(new StringReader(mJson));
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Cursor toCursorNoLockContended() {
+        return mNoLockConverter.getCursor(new StringReader(mJson));
+    }
+
+    /** The reference for {@code toContentValues*}: Gson serialization only, no tree and no {@code ContentValues}. */
+    @Benchmark
+    public String toJsonReference() throws IOException {
+        final StringWriter writer = new StringWriter(mJson.length());
+        final JsonWriter jsonWriter = new JsonWriter(writer);
+        jsonWriter.setSerializeNulls(true);
+
+        mGson.toJson(mItems, Item[].class, jsonWriter);
+        jsonWriter.flush();
+
+        return writer.toString();
+    }
+
+    /** The reference for {@code toCursor*}: Gson parsing only, no {@code Cursor}. */
+    @Benchmark
+    public JsonElement parseReference() {
+        return new JsonParser().parse(new StringReader(mJson));
+    }
+}
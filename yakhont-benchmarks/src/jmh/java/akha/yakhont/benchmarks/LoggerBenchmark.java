@@ -0,0 +1,73 @@
+/*
+ * Copyright (C) 2015-2017 akha, a.k.a. Alexander Kharitonov
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package akha.yakhont.benchmarks;
+
+import akha.yakhont.CoreLogger;
+import akha.yakhont.CoreLogger.Level;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for the cost of the disabled {@link CoreLogger} levels (i.e. the release mode),
+ * for the different styles of the logging calls (please refer to {@code DeferredLoggerBenchmark}
+ * for the deferred ones).
+ *
+ * @author akha
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class LoggerBenchmark {
+
+    private final Object                mValue              = new int[] {42};
+    private       int                   mCounter;
+
+    @Setup
+    public void setup() {
+        // release mode: only errors are logged
+        CoreLogger.setFullInfo(false);
+    }
+
+    @Benchmark
+    public void literal() {
+        CoreLogger.log(Level.DEBUG, "the message");
+    }
+
+    @Benchmark
+    public void concatenation() {
+        CoreLogger.log(Level.DEBUG, "the message " + mCounter++ + ", " + mValue);
+    }
+
+    @Benchmark
+    public void format() {
+        CoreLogger.log(Level.DEBUG, String.format(CoreLogger.getLocale(), "the message %d, %s", mCounter++, mValue));
+    }
+
+    @Benchmark
+    public void guarded() {
+        if (CoreLogger.isFullInfo())
+            CoreLogger.log(Level.DEBUG, "the message " + mCounter++ + ", " + mValue);
+    }
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright (C) 2015-2017 akha, a.k.a. Alexander Kharitonov
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package akha.yakhont.benchmarks;
+
+import akha.yakhont.CoreReflection;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for the {@link CoreReflection#findMethod CoreReflection.findMethod()}: the repeated lookups,
+ * the repeated "not found" lookups and the plain Java Reflection API as a reference.
+ *
+ * @author akha
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ReflectionBenchmark {
+
+    private final Child                 mObject             = new Child();
+
+    @SuppressWarnings("unused")
+    public static class Base {
+        private void onEvent(final String event, final int code) {
+        }
+    }
+
+    // the method is declared in the superclass, so the hierarchy is walked on every uncached lookup
+    public static class Child extends Base {
+    }
+
+    @Benchmark
+    public Method findMethod() {
+        return CoreReflection.findMethod(mObject, "onEvent", String.class, int.class);
+    }
+
+    @Benchmark
+    public Method findMethodNotFound() {
+        return CoreReflection.findMethod(mObject, "onUnknownEvent", String.class, int.class);
+    }
+
+    @Benchmark
+    public Method javaReflectionBaseline() throws NoSuchMethodException {
+        return Base.class.getDeclaredMethod("onEvent", String.class, int.class);
+    }
+}
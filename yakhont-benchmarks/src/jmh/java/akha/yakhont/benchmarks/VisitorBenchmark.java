@@ -0,0 +1,93 @@
+/*
+ * Copyright (C) 2015-2017 akha, a.k.a. Alexander Kharitonov
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package akha.yakhont.benchmarks;
+
+import akha.yakhont.benchmarks.BenchmarkData.Item;
+import akha.yakhont.loader.BaseConverter;
+
+import android.content.ContentValues;
+import android.database.Cursor;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for the {@link BaseConverter} visitors ({@code ContentValuesVisitor} and {@code CursorVisitor})
+ * on the already parsed JSON, and for the cursor decoding (cursor to data, i.e. loading from cache).
+ *
+ * @author akha
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class VisitorBenchmark {
+
+    @Param({"10", "100", "1000"})
+    private int                         mSize;
+
+    private JsonElement                 mJsonElement;
+    private Cursor                      mCursor;
+
+    private VisitorConverter<Item[]>    mConverter;
+
+    /** Exposes the visitors of the {@link BaseConverter}. */
+    public static class VisitorConverter<D> extends BaseConverter<D> {
+
+        private ContentValues[] visitContentValues(final JsonElement jsonElement) {
+            return getContentValues(jsonElement);
+        }
+
+        private Cursor visitCursor(final JsonElement jsonElement) {
+            return getCursor(jsonElement);
+        }
+    }
+
+    @Setup
+    public void setup() {
+        mConverter      = new VisitorConverter<>();
+        mConverter.setType(Item[].class);
+
+        mJsonElement    = new Gson().toJsonTree(BenchmarkData.createItems(mSize), Item[].class);
+        mCursor         = mConverter.visitCursor(mJsonElement);
+    }
+
+    @Benchmark
+    public ContentValues[] contentValuesVisitor() {
+        return mConverter.visitContentValues(mJsonElement);
+    }
+
+    @Benchmark
+    public Cursor cursorVisitor() {
+        return mConverter.visitCursor(mJsonElement);
+    }
+
+    @Benchmark
+    public Item[] cursorDecode() {
+        return mConverter.get(mCursor);
+    }
+}
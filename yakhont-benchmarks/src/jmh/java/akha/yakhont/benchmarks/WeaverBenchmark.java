@@ -0,0 +1,145 @@
+/*
+ * Copyright (C) 2015-2017 akha, a.k.a. Alexander Kharitonov
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package akha.yakhont.benchmarks;
+
+import akha.yakhont.weaver.Weaver;
+
+import javassist.CannotCompileException;
+import javassist.ClassPool;
+import javassist.CtClass;
+import javassist.CtMethod;
+import javassist.CtNewMethod;
+import javassist.NotFoundException;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.net.URISyntaxException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for the {@link Weaver} throughput on the directory with synthetic compiled classes
+ * (half of them extend the class to weave, the rest are just scanned).
+ * <p>
+ * Every invocation weaves the freshly generated classes in the new package: the {@code Weaver} uses
+ * the default (i.e. shared) {@code ClassPool} which keeps already woven (frozen) classes.
+ *
+ * @author akha
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class WeaverBenchmark {
+
+    private static final String         BASE_PACKAGE        = "akha.yakhont.benchmarks.synthetic";
+    private static final String         BASE_CLASS          = BASE_PACKAGE + ".SyntheticBase";
+
+    @Param({"50", "500"})
+    private int                         mClasses;
+
+    private File                        mRootDir;
+    private File                        mConfigFile;
+    private String                      mClassPath;
+    private String                      mApplicationId;
+    private int                         mRun;
+
+    /** Called from the woven code. */
+    @SuppressWarnings({"unused", "WeakerAccess"})
+    public static void onEvent(final Object object) {
+    }
+
+    @Setup(Level.Trial)
+    public void setupTrial() throws IOException, CannotCompileException, URISyntaxException {
+        mRootDir = File.createTempFile("yakhont-weaver", "");
+        if (!mRootDir.delete() || !mRootDir.mkdirs()) throw new IOException("can not create " + mRootDir);
+
+        final ClassPool pool = new ClassPool(true);
+        final CtClass base = pool.makeClass(BASE_CLASS);
+        base.addMethod(CtNewMethod.make("public void onEvent() { }", base));
+        base.addMethod(CtNewMethod.make("public void onOtherEvent(int code) { }", base));
+        base.writeFile(mRootDir.getPath());
+
+        // the woven code calls onEvent(), so this class should be visible to the weaver's javassist compiler
+        // (the default ClassPool doesn't see the application classes on Java 9+)
+        mClassPath = mRootDir.getPath() + File.pathSeparator +
+                new File(WeaverBenchmark.class.getProtectionDomain().getCodeSource().getLocation().toURI()).getPath();
+
+        mConfigFile = new File(mRootDir, "weaver.config");
+        try (PrintWriter writer = new PrintWriter(mConfigFile, "UTF-8")) {
+            writer.println(BASE_CLASS + ".onEvent      after  '" + WeaverBenchmark.class.getName() + ".onEvent($0);'");
+            writer.println(BASE_CLASS + ".onOtherEvent before '" + WeaverBenchmark.class.getName() + ".onEvent($0);'");
+        }
+    }
+
+    @Setup(Level.Invocation)
+    public void setupInvocation() throws IOException, CannotCompileException, NotFoundException {
+        mApplicationId = BASE_PACKAGE + ".run" + mRun++;
+
+        final ClassPool pool = new ClassPool(true);
+        pool.appendClassPath(mRootDir.getPath());
+
+        final CtClass base = pool.get(BASE_CLASS);
+        for (int i = 0; i < mClasses; i++) {
+            final CtClass cls = pool.makeClass(mApplicationId + ".Synthetic" + i);
+            if (i % 2 == 0) {
+                cls.setSuperclass(base);
+                if (i % 4 == 0) {
+                    final CtMethod method = CtNewMethod.make("public void onEvent() { super.onEvent(); }", cls);
+                    cls.addMethod(method);
+                }
+            }
+            cls.addMethod(CtNewMethod.make("public int compute(int value) { return value * " + i + "; }", cls));
+            cls.writeFile(mRootDir.getPath());
+        }
+    }
+
+    @Benchmark
+    public void weave() throws IOException, CannotCompileException, NotFoundException {
+        new Weaver().run(false, mApplicationId, mRootDir.getPath(), mClassPath, mRootDir.getPath(),
+                new String[] {mConfigFile.getPath()}, false);
+    }
+
+    @TearDown(Level.Invocation)
+    public void tearDownInvocation() {
+        delete(new File(mRootDir, mApplicationId.replace('.', File.separatorChar)));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDownTrial() {
+        delete(mRootDir);
+    }
+
+    private static void delete(final File file) {
+        final File[] files = file.listFiles();
+        if (files != null)
+            for (final File child: files)
+                delete(child);
+        //noinspection ResultOfMethodCallIgnored
+        file.delete();
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright (C) 2015-2017 akha, a.k.a. Alexander Kharitonov
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package android.content;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The JVM-friendly stand-in for the Android {@code ContentValues} (benchmarks only).
+ */
+public final class ContentValues {
+
+    private final Map<String, Object>       mValues;
+
+    public ContentValues() {
+        mValues = new HashMap<>(8);
+    }
+
+    public ContentValues(int size) {
+        mValues = new HashMap<>(size, 1.0f);
+    }
+
+    public ContentValues(ContentValues from) {
+        mValues = new HashMap<>(from.mValues);
+    }
+
+    public void put(String key, String value) {
+        mValues.put(key, value);
+    }
+
+    public void put(String key, Integer value) {
+        mValues.put(key, value);
+    }
+
+    public void put(String key, Long value) {
+        mValues.put(key, value);
+    }
+
+    public void put(String key, Boolean value) {
+        mValues.put(key, value);
+    }
+
+    public void put(String key, byte[] value) {
+        mValues.put(key, value);
+    }
+
+    public void putNull(String key) {
+        mValues.put(key, null);
+    }
+
+    public void putAll(ContentValues other) {
+        mValues.putAll(other.mValues);
+    }
+
+    public Object get(String key) {
+        return mValues.get(key);
+    }
+
+    public String getAsString(String key) {
+        Object value = mValues.get(key);
+        return value != null ? value.toString(): null;
+    }
+
+    public boolean containsKey(String key) {
+        return mValues.containsKey(key);
+    }
+
+    public void remove(String key) {
+        mValues.remove(key);
+    }
+
+    public void clear() {
+        mValues.clear();
+    }
+
+    public int size() {
+        return mValues.size();
+    }
+
+    public Set<String> keySet() {
+        return mValues.keySet();
+    }
+
+    public Set<Map.Entry<String, Object>> valueSet() {
+        return mValues.entrySet();
+    }
+
+    @Override
+    public boolean equals(Object object) {
+        return object instanceof ContentValues && mValues.equals(((ContentValues) object).mValues);
+    }
+
+    @Override
+    public int hashCode() {
+        return mValues.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return mValues.toString();
+    }
+}
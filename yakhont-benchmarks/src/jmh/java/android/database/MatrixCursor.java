@@ -0,0 +1,196 @@
+/*
+ * Copyright (C) 2015-2017 akha, a.k.a. Alexander Kharitonov
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package android.database;
+
+import android.content.ContentResolver;
+import android.net.Uri;
+import android.os.Bundle;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The JVM-friendly stand-in for the Android {@code MatrixCursor} (benchmarks only).
+ */
+public class MatrixCursor implements Cursor {
+
+    private final String[]                  mColumnNames;
+    private final List<Object[]>            mRows;
+    private       int                       mPosition                   = -1;
+    private       boolean                   mClosed;
+
+    public MatrixCursor(String[] columnNames) {
+        this(columnNames, 16);
+    }
+
+    public MatrixCursor(String[] columnNames, int initialCapacity) {
+        mColumnNames = columnNames;
+        mRows        = new ArrayList<>(initialCapacity < 1 ? 1: initialCapacity);
+    }
+
+    public RowBuilder newRow() {
+        Object[] row = new Object[mColumnNames.length];
+        mRows.add(row);
+        return new RowBuilder(row);
+    }
+
+    public void addRow(Object[] columnValues) {
+        if (columnValues.length != mColumnNames.length)
+            throw new IllegalArgumentException("columnNames.length = " + mColumnNames.length +
+                    ", columnValues.length = " + columnValues.length);
+        mRows.add(Arrays.copyOf(columnValues, columnValues.length));
+    }
+
+    public class RowBuilder {
+
+        private final Object[]              mRow;
+        private       int                   mIndex;
+
+        private RowBuilder(Object[] row) {
+            mRow = row;
+        }
+
+        public RowBuilder add(Object columnValue) {
+            if (mIndex == mRow.length) throw new CursorIndexOutOfBoundsException("No more columns left.");
+            mRow[mIndex++] = columnValue;
+            return this;
+        }
+
+        public RowBuilder add(String columnName, Object value) {
+            for (int i = 0; i < mColumnNames.length; i++)
+                if (columnName.equals(mColumnNames[i])) mRow[i] = value;
+            return this;
+        }
+    }
+
+    private Object get(int column) {
+        if (column < 0 || column >= mColumnNames.length)
+            throw new CursorIndexOutOfBoundsException("Requested column: " + column + ", # of columns: " + mColumnNames.length);
+        if (mPosition < 0 || mPosition >= mRows.size())
+            throw new CursorIndexOutOfBoundsException(mPosition, mRows.size());
+        return mRows.get(mPosition)[column];
+    }
+
+    @Override public int      getCount()                        { return mRows.size();                          }
+    @Override public int      getPosition()                     { return mPosition;                             }
+    @Override public boolean  move(int offset)                  { return moveToPosition(mPosition + offset);    }
+    @Override public boolean  moveToFirst()                     { return moveToPosition(0);                     }
+    @Override public boolean  moveToLast()                      { return moveToPosition(mRows.size() - 1);      }
+    @Override public boolean  moveToNext()                      { return moveToPosition(mPosition + 1);         }
+    @Override public boolean  moveToPrevious()                  { return moveToPosition(mPosition - 1);         }
+    @Override public boolean  isFirst()                         { return mPosition == 0 && mRows.size() > 0;    }
+    @Override public boolean  isLast()                          { return mPosition == mRows.size() - 1 && mRows.size() > 0; }
+    @Override public boolean  isBeforeFirst()                   { return mRows.size() == 0 || mPosition == -1;  }
+    @Override public boolean  isAfterLast()                     { return mRows.size() == 0 || mPosition == mRows.size(); }
+
+    @Override
+    public boolean moveToPosition(int position) {
+        int count = mRows.size();
+        if (position >= count) {
+            mPosition = count;
+            return false;
+        }
+        if (position < 0) {
+            mPosition = -1;
+            return false;
+        }
+        mPosition = position;
+        return true;
+    }
+
+    @Override
+    public int getColumnIndex(String columnName) {
+        for (int i = 0; i < mColumnNames.length; i++)
+            if (mColumnNames[i].equalsIgnoreCase(columnName)) return i;
+        return -1;
+    }
+
+    @Override
+    public int getColumnIndexOrThrow(String columnName) {
+        int index = getColumnIndex(columnName);
+        if (index < 0) throw new IllegalArgumentException("column '" + columnName + "' does not exist");
+        return index;
+    }
+
+    @Override public String   getColumnName(int columnIndex)    { return mColumnNames[columnIndex];             }
+    @Override public String[] getColumnNames()                  { return mColumnNames;                          }
+    @Override public int      getColumnCount()                  { return mColumnNames.length;                   }
+
+    @Override
+    public byte[] getBlob(int column) {
+        return (byte[]) get(column);
+    }
+
+    @Override
+    public String getString(int column) {
+        Object value = get(column);
+        return value == null ? null: value.toString();
+    }
+
+    @Override
+    public void copyStringToBuffer(int column, CharArrayBuffer buffer) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override public short    getShort (int column)             { return (short) getLong(column);               }
+    @Override public int      getInt   (int column)             { return (int)   getLong(column);               }
+    @Override public float    getFloat (int column)             { return (float) getDouble(column);             }
+
+    @Override
+    public long getLong(int column) {
+        Object value = get(column);
+        if (value == null) return 0;
+        return value instanceof Number ? ((Number) value).longValue(): Long.parseLong(value.toString());
+    }
+
+    @Override
+    public double getDouble(int column) {
+        Object value = get(column);
+        if (value == null) return 0;
+        return value instanceof Number ? ((Number) value).doubleValue(): Double.parseDouble(value.toString());
+    }
+
+    @Override
+    public int getType(int column) {
+        Object value = get(column);
+        if (value == null)                                  return FIELD_TYPE_NULL;
+        if (value instanceof byte[])                        return FIELD_TYPE_BLOB;
+        if (value instanceof Float || value instanceof Double) return FIELD_TYPE_FLOAT;
+        if (value instanceof Number)                        return FIELD_TYPE_INTEGER;
+        return FIELD_TYPE_STRING;
+    }
+
+    @Override public boolean  isNull(int column)                { return get(column) == null;                   }
+
+    @Override public void     deactivate()                      {                                               }
+    @Override public boolean  requery()                         { return true;                                  }
+    @Override public void     close()                           { mClosed = true;                               }
+    @Override public boolean  isClosed()                        { return mClosed;                               }
+
+    @Override public void     registerContentObserver  (ContentObserver observer)  {                            }
+    @Override public void     unregisterContentObserver(ContentObserver observer)  {                            }
+    @Override public void     registerDataSetObserver  (DataSetObserver observer)  {                            }
+    @Override public void     unregisterDataSetObserver(DataSetObserver observer)  {                            }
+
+    @Override public void     setNotificationUri(ContentResolver resolver, Uri uri) {                           }
+    @Override public Uri      getNotificationUri()              { return null;                                  }
+    @Override public boolean  getWantsAllOnMoveCalls()          { return false;                                 }
+    @Override public void     setExtras(Bundle extras)          {                                               }
+    @Override public Bundle   getExtras()                       { return null;                                  }
+    @Override public Bundle   respond(Bundle extras)            { return null;                                  }
+}
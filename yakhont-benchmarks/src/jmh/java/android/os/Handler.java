@@ -0,0 +1,42 @@
+/*
+ * Copyright (C) 2015-2017 akha, a.k.a. Alexander Kharitonov
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package android.os;
+
+/**
+ * The JVM-friendly stand-in for the Android {@code Handler} (benchmarks only): runnables are executed immediately.
+ */
+public class Handler {
+
+    public Handler() {
+    }
+
+    public Handler(Looper looper) {
+    }
+
+    public final boolean post(Runnable runnable) {
+        runnable.run();
+        return true;
+    }
+
+    public final boolean postDelayed(Runnable runnable, long delayMillis) {
+        runnable.run();
+        return true;
+    }
+
+    public final void removeCallbacks(Runnable runnable) {
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright (C) 2015-2017 akha, a.k.a. Alexander Kharitonov
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package akha.yakhont.benchmarks;
+
+import akha.yakhont.CoreLogger;
+import akha.yakhont.CoreLogger.Level;
+import akha.yakhont.CoreLogger.MessageSupplier;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for the cost of the disabled {@link CoreLogger} levels (i.e. the release mode)
+ * for the deferred logging calls: the format ones, the {@link MessageSupplier} ones and the ones
+ * guarded by {@link CoreLogger#isLog}. Could be compared with the results of the {@link LoggerBenchmark}.
+ *
+ * @author akha
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class DeferredLoggerBenchmark {
+
+    private final Object                mValue              = new int[] {42};
+    private       int                   mCounter;
+
+    @Setup
+    public void setup() {
+        // release mode: only errors are logged
+        CoreLogger.setFullInfo(false);
+    }
+
+    @Benchmark
+    public void logFormat() {
+        CoreLogger.logFormat(Level.DEBUG, "the message %d, %s", mCounter++, mValue);
+    }
+
+    @Benchmark
+    public void supplier() {
+        CoreLogger.log(Level.DEBUG, new MessageSupplier() {
+            @Override
+            public String get() {
+                return "the message " + mCounter + ", " + mValue;
+            }
+        });
+    }
+
+    @Benchmark
+    public void guarded() {
+        if (CoreLogger.isLog(Level.DEBUG))
+            CoreLogger.log(Level.DEBUG, "the message " + mCounter++ + ", " + mValue);
+    }
+}
@@ -40,7 +40,11 @@ public class LocalJsonClient2 extends OkHttpClient {
     private final LocalJsonClientHelper mLocalJsonClientHelper;
 
     public LocalJsonClient2(Context context) {
-        mLocalJsonClientHelper = new LocalJsonClientHelper(context);
+        this(new LocalJsonClientHelper(context));
+    }
+
+    public LocalJsonClient2(LocalJsonClientHelper localJsonClientHelper) {
+        mLocalJsonClientHelper = localJsonClientHelper;
     }
 
     public LocalJsonClientHelper getLocalJsonClientHelper() {
@@ -82,7 +82,7 @@ public class LocalJsonClientHelper {
         private final String        mMessage;
         private final InputStream   mStream;
 
-        private Data(String mimeType, String message, InputStream stream) {
+        public Data(String mimeType, String message, InputStream stream) {
             mMimeType   = mimeType;
             mMessage    = message;
             mStream     = stream;
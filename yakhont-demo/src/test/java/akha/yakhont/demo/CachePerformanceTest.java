@@ -0,0 +1,439 @@
+/*
+ * Copyright (C) 2015-2017 akha, a.k.a. Alexander Kharitonov
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package akha.yakhont.demo;
+
+import akha.yakhont.BaseCacheProvider;
+import akha.yakhont.BaseCacheProvider.HttpValidators;
+import akha.yakhont.Core.UriResolver;
+import akha.yakhont.Core.Utils;
+import akha.yakhont.CoreLogger;
+import akha.yakhont.loader.BaseConverter;
+import akha.yakhont.loader.BaseResponse;
+import akha.yakhont.loader.BaseResponse.Source;
+import akha.yakhont.loader.LoaderMetrics;
+import akha.yakhont.loader.LoaderMetrics.MetricsListener;
+import akha.yakhont.loader.LoaderMetrics.Stage;
+import akha.yakhont.support.loader.CacheLoader;
+import akha.yakhont.demo.model.Beer;
+import akha.yakhont.demo.retrofit.LocalJsonClient2;
+import akha.yakhont.demo.retrofit.LocalJsonClientHelper;
+
+import android.app.Application;
+import android.content.ContentResolver;
+import android.content.ContentValues;
+import android.database.Cursor;
+import android.net.Uri;
+import android.support.annotation.NonNull;
+import android.support.v4.app.Fragment;
+
+import com.google.gson.reflect.TypeToken;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.ref.WeakReference;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+import org.robolectric.shadows.ShadowLooper;
+
+import retrofit2.Call;
+import retrofit2.Retrofit;
+import retrofit2.converter.gson.GsonConverterFactory;
+import retrofit2.http.GET;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+import static org.junit.Assume.assumeTrue;
+
+/**
+ * Drives the cache pipeline (network, conversion, DB write, cache read, cursor decoding) with
+ * the synthetic payloads of different sizes and compares the results against the baseline
+ * ({@link #BASELINE}); fails if some value is worse than the baseline one plus the tolerance,
+ * or if there's no baseline value at all. Without the baseline file the comparison is skipped
+ * (the baseline should be measured on the reference machine, see {@link #PROPERTY_OUTPUT}).
+ * <p>
+ * The stages are executed in the same order and with the same components as in the
+ * {@link CacheLoader}, but directly (i.e. without LoaderManager), to keep the timings free
+ * of the main thread scheduling; the {@link #loader1k} drives the real {@code CacheLoader}
+ * (its DB write executor, HTTP validators and metrics).
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = 23)
+public class CachePerformanceTest {
+
+    private static final String                 BASELINE                = "cache-performance-baseline.properties";
+
+    private static final String                 PROPERTY_TOLERANCE      = "yakhont.perf.tolerance";
+    private static final String                 PROPERTY_OUTPUT         = "yakhont.perf.baseline.output";
+
+    private static final double                 DEFAULT_TOLERANCE       = 0.5;
+    private static final double                 DB_SIZE_TOLERANCE       = 0.1;
+    private static final long                   TIME_SLACK_MS           = 50;
+
+    private static final String                 AUTHORITY               = "akha.yakhont.demo.provider";
+    private static final String                 TABLE                   = "beers";
+    private static final String                 DB_NAME                 = "cache.db";
+
+    private static final String                 BASE_URL                = "http://localhost/";
+    private static final String                 ETAG                    = "\"synthetic\"";
+
+    private static final int                    LOADER_ID               = 1;
+    private static final long                   LOADER_TIMEOUT_MS       = 30000;
+
+    // the best of RUNS is taken, to reduce the influence of the JIT and GC
+    private static final int                    RUNS                    = 3;
+
+    private static final String                 NETWORK                 = "network.ms";
+    private static final String                 CONVERSION              = "conversion.ms";
+    private static final String                 INSERT                  = "insert.ms";
+    private static final String                 QUERY                   = "query.ms";
+    private static final String                 DECODE                  = "decode.ms";
+    private static final String                 DB_SIZE                 = "db.size.bytes";
+    private static final String                 DB_WRITE                = "db.write.ms";
+
+    private static final Map<String, Long>      sResults                = new TreeMap<>();
+
+    private              Application            mApplication;
+    private              Uri                    mUri;
+    private              UriResolver            mUriResolver;
+
+    public interface SyntheticApi {
+
+        @GET("data")
+        Call<List<Beer>> data();
+    }
+
+    @Before
+    public void setUp() {
+        CoreLogger.setFullInfo(false);
+
+        mApplication    = RuntimeEnvironment.application;
+        mUri            = Uri.parse(String.format("content://%s/%s", AUTHORITY, TABLE));
+
+        Robolectric.buildContentProvider(BaseCacheProvider.class).create(AUTHORITY);
+
+        // without Core.init() there's no base URI, so the HTTP validators table needs the resolver too
+        mUriResolver    = Utils.getUriResolver();
+        Utils.setUriResolver(new UriResolver() {
+            @Override
+            public Uri getUri(@NonNull final String tableName) {
+                return Uri.parse(String.format("content://%s/%s", AUTHORITY, tableName));
+            }
+        });
+    }
+
+    @After
+    public void tearDown() {
+        Utils.setUriResolver(mUriResolver);
+    }
+
+    @Test
+    public void rows1k() throws IOException {
+        run(1000);
+    }
+
+    @Test
+    public void rows10k() throws IOException {
+        run(10000);
+    }
+
+    @Test
+    public void rows100k() throws IOException {
+        run(100000);
+    }
+
+    @Test
+    public void loader1k() throws IOException, InterruptedException {
+        final int                       rows        = 1000;
+        final SyntheticApi              api         = createApi(rows);
+        final BaseConverter<List<Beer>> converter   = createConverter();
+
+        final AtomicReference<LoaderMetrics> published = new AtomicReference<>();
+        final MetricsListener listener = new MetricsListener() {
+            @Override
+            public void onMetrics(final LoaderMetrics metrics) {
+                published.set(metrics);
+            }
+        };
+
+        // the interceptors keep the validators until the data are cached
+        final String url = BASE_URL + "data";
+        HttpValidators.onResponse(url, url, ETAG, null);
+
+        final CacheLoader<Object, Object, Throwable, List<Beer>> loader = new CacheLoader<Object, Object, Throwable, List<Beer>>(
+                mApplication, new WeakReference<Fragment>(null), converter, LOADER_ID, TABLE, null, null,
+                Utils.getUriResolver()) {
+            @Override
+            protected void makeRequest(@NonNull final Object callback) {
+                try {
+                    final List<Beer> data = api.data().execute().body();
+                    HttpValidators.bind(url, TABLE);
+
+                    callbackHelper(true, new BaseResponse<Object, Throwable, List<Beer>>(
+                            data, null, null, null, Source.NETWORK, null));
+                }
+                catch (IOException exception) {
+                    callbackHelper(false, new BaseResponse<Object, Throwable, List<Beer>>(
+                            null, null, null, exception, Source.NETWORK, null));
+                }
+            }
+        };
+        loader.setCallback(new Object());
+
+        LoaderMetrics.addListener(listener);
+        try {
+            loader.forceLoad();
+
+            // the metrics are published after both the delivery and the DB write (on the loader's executor)
+            final long deadline = System.currentTimeMillis() + LOADER_TIMEOUT_MS;
+            while (published.get() == null && System.currentTimeMillis() < deadline) {
+                ShadowLooper.runUiThreadTasks();
+                Thread.sleep(10);
+            }
+        }
+        finally {
+            LoaderMetrics.removeListener(listener);
+        }
+
+        final LoaderMetrics metrics = published.get();
+        assertNotNull("metrics were not published", metrics);
+        assertSame(Source.NETWORK, metrics.getSource());
+        assertEquals(rows, metrics.getRows());
+        assertNotEquals(LoaderMetrics.UNKNOWN, metrics.getDuration(Stage.DB_WRITE, TimeUnit.MILLISECONDS));
+
+        final Cursor cursor = mApplication.getContentResolver().query(mUri, null, null, null, null);
+        assertNotNull(cursor);
+        try {
+            assertEquals(rows, cursor.getCount());
+        }
+        finally {
+            cursor.close();
+        }
+
+        final String[] validators = HttpValidators.get(url);
+        assertNotNull("HTTP validators were not committed", validators);
+        assertEquals(ETAG, validators[0]);
+
+        final Map<String, Long> results = new TreeMap<>();
+        results.put(CONVERSION, metrics.getDuration(Stage.CONVERSION, TimeUnit.MILLISECONDS));
+        results.put(DB_WRITE,   metrics.getDuration(Stage.DB_WRITE,   TimeUnit.MILLISECONDS));
+
+        final String prefix = String.format(Locale.US, "loader.rows.%d.", rows);
+        for (final Map.Entry<String, Long> entry: results.entrySet())
+            sResults.put(prefix + entry.getKey(), entry.getValue());
+
+        check(prefix, results);
+    }
+
+    private SyntheticApi createApi(final int rows) {
+        return new Retrofit.Builder()
+                .baseUrl(BASE_URL)
+                .client(new LocalJsonClient2(new SyntheticJsonClientHelper(mApplication, rows)))
+                .addConverterFactory(GsonConverterFactory.create())
+                .build()
+                .create(SyntheticApi.class);
+    }
+
+    private static BaseConverter<List<Beer>> createConverter() {
+        final BaseConverter<List<Beer>> converter = new BaseConverter<>();
+        converter.setType(new TypeToken<List<Beer>>() {}.getType());
+        return converter;
+    }
+
+    private void run(final int rows) throws IOException {
+        final SyntheticApi              api         = createApi(rows);
+        final BaseConverter<List<Beer>> converter   = createConverter();
+
+        final ContentResolver contentResolver = mApplication.getContentResolver();
+
+        final Map<String, Long> results = new TreeMap<>();
+
+        for (int i = 0; i < RUNS; i++) {
+            long start = System.nanoTime();
+            final List<Beer> data = api.data().execute().body();
+            put(results, NETWORK, start);
+
+            assertNotNull(data);
+            assertEquals(rows, data.size());
+
+            start = System.nanoTime();
+            final ContentValues[] values = converter.get(data);
+            put(results, CONVERSION, start);
+
+            assertNotNull(values);
+
+            start = System.nanoTime();
+            contentResolver.delete(mUri, null, null);
+            contentResolver.bulkInsert(mUri, values);
+            put(results, INSERT, start);
+
+            start = System.nanoTime();
+            final Cursor cursor = contentResolver.query(mUri, null, null, null, null);
+            assertNotNull(cursor);
+            final int count = cursor.getCount();
+            put(results, QUERY, start);
+
+            assertEquals(rows, count);
+
+            start = System.nanoTime();
+            final List<Beer> decoded = converter.get(cursor);
+            put(results, DECODE, start);
+
+            cursor.close();
+
+            assertNotNull(decoded);
+            assertEquals(rows, decoded.size());
+        }
+
+        results.put(DB_SIZE, mApplication.getDatabasePath(DB_NAME).length());
+
+        final String prefix = String.format(Locale.US, "rows.%d.", rows);
+        for (final Map.Entry<String, Long> entry: results.entrySet())
+            sResults.put(prefix + entry.getKey(), entry.getValue());
+
+        check(prefix, results);
+    }
+
+    private static void put(final Map<String, Long> results, final String key, final long start) {
+        final long  duration = (System.nanoTime() - start) / 1000000;
+        final Long  previous = results.get(key);
+
+        if (previous == null || duration < previous) results.put(key, duration);
+    }
+
+    private void check(final String prefix, final Map<String, Long> results) throws IOException {
+        // generating the baseline: the measured values go to the file, nothing to compare with
+        if (System.getProperty(PROPERTY_OUTPUT) != null) return;
+
+        final InputStream inputStream = getClass().getClassLoader().getResourceAsStream(BASELINE);
+        assumeTrue(String.format("baseline '%s' not found; generate it on the reference machine with " +
+                "-P%s=<file> and copy the file to 'src/test/resources'", BASELINE, PROPERTY_OUTPUT),
+                inputStream != null);
+
+        final Properties baseline = new Properties();
+        try {
+            baseline.load(inputStream);
+        }
+        finally {
+            inputStream.close();
+        }
+
+        final double tolerance = Double.parseDouble(System.getProperty(PROPERTY_TOLERANCE,
+                String.valueOf(DEFAULT_TOLERANCE)));
+
+        final List<String> errors = new ArrayList<>();
+
+        for (final Map.Entry<String, Long> entry: results.entrySet()) {
+            final String key    = prefix + entry.getKey();
+            final long   value  = entry.getValue();
+
+            final String expected = baseline.getProperty(key);
+            if (expected == null) {
+                errors.add(String.format(Locale.US, "%s: %d (no baseline)", key, value));
+                continue;
+            }
+
+            final long limit = DB_SIZE.equals(entry.getKey()) ?
+                    Math.round(Long.parseLong(expected) * (1 + DB_SIZE_TOLERANCE)):
+                    Math.round(Long.parseLong(expected) * (1 + tolerance)) + TIME_SLACK_MS;
+
+            if (value > limit) errors.add(String.format(Locale.US, "%s: %d > %d (baseline %s)",
+                    key, value, limit, expected));
+        }
+
+        if (!errors.isEmpty()) fail("performance regression: " + errors + ", results: " + results);
+    }
+
+    @AfterClass
+    public static void writeBaseline() throws IOException {
+        final String fileName = System.getProperty(PROPERTY_OUTPUT);
+        if (fileName == null || sResults.isEmpty()) return;
+
+        final Properties properties = new Properties() {
+            @Override
+            public synchronized Enumeration<Object> keys() {        // sorted output
+                return Collections.enumeration(new TreeSet<>(super.keySet()));
+            }
+        };
+        for (final Map.Entry<String, Long> entry: sResults.entrySet())
+            properties.setProperty(entry.getKey(), String.valueOf(entry.getValue()));
+
+        final File file = new File(fileName);
+        final File dir  = file.getAbsoluteFile().getParentFile();
+        if (dir != null && !dir.exists() && !dir.mkdirs())
+            throw new IOException("can't create directory " + dir);
+
+        final OutputStream outputStream = new FileOutputStream(file);
+        try {
+            properties.store(outputStream, "cache pipeline performance baseline");
+        }
+        finally {
+            outputStream.close();
+        }
+    }
+
+    private static class SyntheticJsonClientHelper extends LocalJsonClientHelper {
+
+        private static final String     MIME_TYPE       = "application/json";
+
+        private final byte[]            mContent;
+
+        private SyntheticJsonClientHelper(final Application application, final int rows) {
+            super(application);
+
+            final StringBuilder builder = new StringBuilder(rows * 64).append('[');
+            for (int i = 0; i < rows; i++) {
+                if (i > 0) builder.append(',');
+                builder.append(String.format(Locale.US,
+                        "{\"title\":\"Beer %06d\",\"image\":\"http://localhost/images/beer_%06d.jpg\"}", i, i));
+            }
+            mContent = builder.append(']').toString().getBytes(Charset.forName("UTF-8"));
+        }
+
+        @Override
+        public Data execute(final String url, final String method) throws IOException {
+            return new Data(MIME_TYPE, String.format(Locale.US, "synthetic content, %d bytes",
+                    mContent.length), new ByteArrayInputStream(mContent));
+        }
+    }
+}
@@ -0,0 +1,175 @@
+/*
+ * Copyright (C) 2015-2017 akha, a.k.a. Alexander Kharitonov
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package akha.yakhont.demo;
+
+import akha.yakhont.CoreTrace;
+import akha.yakhont.CoreTrace.Recorder;
+import akha.yakhont.CoreTrace.Recorder.Event;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Records the nested {@link CoreTrace} sections and checks both the recorded events and
+ * the exported Chrome trace-event JSON.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = 23)
+public class CoreTraceTest {
+
+    private static final String                 OUTER                   = "outer";
+    // to check JSON escaping too
+    private static final String                 INNER                   = "inner \"quoted\" \\ \t";
+
+    @After
+    public void tearDown() {
+        CoreTrace.stopRecording();
+    }
+
+    @Test
+    public void nestedSections() throws IOException, InterruptedException {
+        final Recorder recorder = CoreTrace.startRecording();
+
+        CoreTrace.beginSection(OUTER);
+        try {
+            Thread.sleep(2);
+            CoreTrace.beginSection(INNER);
+            try {
+                Thread.sleep(2);
+            }
+            finally {
+                CoreTrace.endSection();
+            }
+            Thread.sleep(2);
+        }
+        finally {
+            CoreTrace.endSection();
+        }
+
+        assertEquals(recorder, CoreTrace.stopRecording());
+
+        final List<Event> events = recorder.getEvents();
+        assertEquals(2, events.size());
+
+        // the inner section completes first
+        final Event inner = events.get(0), outer = events.get(1);
+        assertEquals(INNER, inner.getName());
+        assertEquals(OUTER, outer.getName());
+        assertNested(outer.getStart(), outer.getDuration(), inner.getStart(), inner.getDuration());
+
+        final long threadId = Thread.currentThread().getId();
+        assertEquals(threadId, inner.getThreadId());
+        assertEquals(threadId, outer.getThreadId());
+
+        final StringWriter writer = new StringWriter();
+        recorder.export(writer);
+
+        final JsonObject root = new JsonParser().parse(writer.toString()).getAsJsonObject();
+        assertEquals("ms", root.get("displayTimeUnit").getAsString());
+
+        final List<JsonObject> metadata = new ArrayList<>(), complete = new ArrayList<>();
+        for (final JsonElement element: root.getAsJsonArray("traceEvents")) {
+            final JsonObject event = element.getAsJsonObject();
+            final String phase = event.get("ph").getAsString();
+
+            if ("M".equals(phase))
+                metadata.add(event);
+            else if ("X".equals(phase))
+                complete.add(event);
+            else
+                throw new AssertionError("unexpected phase " + phase);
+        }
+
+        assertEquals(1, metadata.size());
+        assertEquals("thread_name", metadata.get(0).get("name").getAsString());
+        assertEquals(threadId, metadata.get(0).get("tid").getAsLong());
+        assertEquals(Thread.currentThread().getName(),
+                metadata.get(0).getAsJsonObject("args").get("name").getAsString());
+
+        assertEquals(2, complete.size());
+        final JsonObject jsonInner = complete.get(0), jsonOuter = complete.get(1);
+
+        assertEvent(inner, jsonInner);
+        assertEvent(outer, jsonOuter);
+
+        assertNested(jsonOuter.get("ts").getAsLong(), jsonOuter.get("dur").getAsLong(),
+                     jsonInner.get("ts").getAsLong(), jsonInner.get("dur").getAsLong());
+    }
+
+    @Test
+    public void limitsAndUnbalancedSections() throws IOException {
+        // begun before the recording start - should be ignored
+        CoreTrace.beginSection(OUTER);
+
+        final Recorder recorder = CoreTrace.startRecording(1);
+        CoreTrace.endSection();
+
+        for (int i = 0; i < 3; i++) {
+            CoreTrace.beginSection(INNER);
+            CoreTrace.endSection();
+        }
+        CoreTrace.stopRecording();
+        assertNull(CoreTrace.getRecorder());
+
+        assertEquals(1, recorder.getEvents().size());
+        assertEquals(2, recorder.getDropped());
+        assertEquals(1, recorder.getEvents(INNER).size());
+        assertTrue(recorder.getEvents(OUTER).isEmpty());
+
+        final StringWriter writer = new StringWriter();
+        recorder.export(writer);
+
+        final JsonArray events = new JsonParser().parse(writer.toString()).getAsJsonObject()
+                .getAsJsonArray("traceEvents");
+        assertNotNull(events);
+        assertEquals(2, events.size());     // thread name plus one section
+    }
+
+    private static void assertEvent(final Event expected, final JsonObject actual) {
+        assertEquals(expected.getName(),      actual.get("name").getAsString());
+        assertEquals("yakhont",               actual.get("cat" ).getAsString());
+        assertEquals(expected.getThreadId(),  actual.get("tid" ).getAsLong());
+        assertEquals(expected.getStart(),     actual.get("ts"  ).getAsLong());
+        assertEquals(expected.getDuration(),  actual.get("dur" ).getAsLong());
+    }
+
+    private static void assertNested(final long outerStart, final long outerDuration,
+                                     final long innerStart, final long innerDuration) {
+        assertTrue(innerDuration >= 0);
+        assertTrue(outerDuration > innerDuration);
+        assertTrue(innerStart >= outerStart);
+        assertTrue(innerStart + innerDuration <= outerStart + outerDuration);
+    }
+}
@@ -0,0 +1,143 @@
+/*
+ * Copyright (C) 2015-2017 akha, a.k.a. Alexander Kharitonov
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package akha.yakhont.demo;
+
+import akha.yakhont.adapter.BaseCacheAdapter.BaseArrayAdapter;
+import akha.yakhont.adapter.ValuesCacheAdapterWrapper;
+import akha.yakhont.loader.BaseResponse;
+import akha.yakhont.loader.BaseResponse.Source;
+
+import android.app.Activity;
+import android.content.ContentValues;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+import org.robolectric.shadows.ShadowLooper;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Checks the incremental updates of the {@link ValuesCacheAdapterWrapper}: the merges while
+ * the previous diff is still pending, and the stale diffs (superseded by the newer data) being dropped.
+ * The diffs are calculated on the manually driven executor, to control the order of completion.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(constants = BuildConfig.class, sdk = 23)
+public class ValuesDiffTest {
+
+    private static final String                                 COLUMN          = "title";
+
+    private              ValuesCacheAdapterWrapper<Object, Throwable, Object>
+                                                                mWrapper;
+    private final        List<Runnable>                         mTasks          = new ArrayList<>();
+
+    @Before
+    public void setUp() {
+        final Activity activity = Robolectric.buildActivity(Activity.class).create().get();
+
+        mWrapper = new ValuesCacheAdapterWrapper<>(activity, android.R.layout.simple_list_item_1,
+                new String[] {COLUMN}, new int[] {android.R.id.text1});
+        mWrapper.setDiffKey(COLUMN);
+        mWrapper.setDiffExecutor(new Executor() {
+            @Override
+            public void execute(@SuppressWarnings("NullableProblems") final Runnable runnable) {
+                mTasks.add(runnable);
+            }
+        });
+
+        // the adapter is empty, so no diff - updated at once
+        update(false, "a", "b");
+        assertEquals(0, mTasks.size());
+        assertItems("a", "b");
+    }
+
+    @Test
+    public void mergeWhilePending() {
+        update(true, "c");
+        update(true, "d");
+        assertEquals(2, mTasks.size());
+
+        // not applied yet
+        assertItems("a", "b");
+
+        // the first diff is stale (doesn't include "d"), so only the second one should be applied
+        runTask(0);
+        assertItems("a", "b");
+
+        runTask(1);
+        assertItems("a", "b", "c", "d");
+    }
+
+    @Test
+    public void staleDiffDropped() {
+        update(false, "c");
+        update(false, "d", "e");
+        assertEquals(2, mTasks.size());
+
+        // the newer diff completes first
+        runTask(1);
+        assertItems("d", "e");
+
+        runTask(0);
+        assertItems("d", "e");
+    }
+
+    @Test
+    public void resetDropsPending() {
+        update(true, "c");
+        mWrapper.resetArray();
+        ShadowLooper.runUiThreadTasks();
+        assertItems();
+
+        runTask(0);
+        assertItems();
+    }
+
+    private void update(final boolean isMerge, final String... titles) {
+        final ContentValues[] values = new ContentValues[titles.length];
+        for (int i = 0; i < titles.length; i++) {
+            values[i] = new ContentValues();
+            values[i].put(COLUMN, titles[i]);
+        }
+
+        final BaseResponse<Object, Throwable, Object> response = new BaseResponse<>(Source.NETWORK);
+        response.setContentValues(values);
+
+        mWrapper.update(response, isMerge);
+    }
+
+    private void runTask(final int index) {
+        mTasks.get(index).run();
+        ShadowLooper.runUiThreadTasks();
+    }
+
+    private void assertItems(final String... titles) {
+        final BaseArrayAdapter<ContentValues> adapter = mWrapper.getAdapter().getArrayAdapter();
+
+        assertEquals(titles.length, adapter.getCount());
+        for (int i = 0; i < titles.length; i++)
+            assertEquals(titles[i], adapter.getItem(i).getAsString(COLUMN));
+    }
+}
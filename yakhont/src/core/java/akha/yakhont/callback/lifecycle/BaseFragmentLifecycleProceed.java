@@ -18,6 +18,7 @@ package akha.yakhont.callback.lifecycle;
 
 import akha.yakhont.Core.Utils;
 import akha.yakhont.CoreLogger;
+import akha.yakhont.CoreTrace;
 import akha.yakhont.callback.BaseCallbacks.BaseCacheCallbacks;
 import akha.yakhont.callback.BaseCallbacks.BaseLifecycleProceed;
 import akha.yakhont.debug.BaseFragment;
@@ -30,6 +31,7 @@ import android.support.annotation.NonNull;
 
 import java.util.Collection;
 import java.util.Collections;
+import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Set;
@@ -96,6 +98,14 @@ public abstract class BaseFragmentLifecycleProceed extends BaseLifecycleProceed
     private static final Map<BaseFragmentCallbacks, Set<FragmentLifecycle>>
                                                             sCallbacks                  = Utils.newMap();
 
+    private static volatile LifecycleCallbacks<FragmentLifecycle>
+                                                            sLifecycleCallbacks         = getLifecycleCallbacks();
+
+    private static LifecycleCallbacks<FragmentLifecycle> getLifecycleCallbacks() {
+        return new LifecycleCallbacks<>(sCallbacks, FragmentLifecycle.values(),
+                EnumSet.of(FragmentLifecycle.CREATED, FragmentLifecycle.DESTROYED));
+    }
+
     /**
      * Returns the collection of registered callbacks handlers.
      *
@@ -116,7 +126,9 @@ public abstract class BaseFragmentLifecycleProceed extends BaseLifecycleProceed
      */
     @SuppressWarnings({"UnusedReturnValue", "ConstantConditions", "SameReturnValue", "unused"})
     public static boolean register(@NonNull final BaseFragmentCallbacks callbacks) {
-        return register(sCallbacks, callbacks, FragmentLifecycle.class, CALLBACKS);
+        final boolean result = register(sCallbacks, callbacks, FragmentLifecycle.class, CALLBACKS);
+        sLifecycleCallbacks = getLifecycleCallbacks();
+        return result;
     }
 
     /**
@@ -129,7 +141,9 @@ public abstract class BaseFragmentLifecycleProceed extends BaseLifecycleProceed
      */
     @SuppressWarnings("unused")
     public static boolean unregister(@NonNull final Class<? extends BaseFragmentCallbacks> callbacksClass) {
-        return unregister(sCallbacks, callbacksClass);
+        final boolean result = unregister(sCallbacks, callbacksClass);
+        sLifecycleCallbacks = getLifecycleCallbacks();
+        return result;
     }
 
     /**
@@ -154,13 +168,31 @@ public abstract class BaseFragmentLifecycleProceed extends BaseLifecycleProceed
             default:            created = null;             break;
         }
 
-        for (final BaseFragmentCallbacks callbacks: sCallbacks.keySet())
-            apply(sCallbacks, callbacks, created, lifeCycle, fragment, new Runnable() {
-                @Override
-                public void run() {
+        // the snapshot is immutable and rebuilt on (un)registration - no locking, no allocations
+        final LifecycleCallbacks<FragmentLifecycle> lifecycleCallbacks = sLifecycleCallbacks;
+
+        final BaseCacheCallbacks[] callbacksArray = lifecycleCallbacks.getCallbacks  (lifeCycle);
+        final boolean[]            implemented    = lifecycleCallbacks.getImplemented(lifeCycle);
+
+        if (callbacksArray.length == 0) return;
+
+        CoreTrace.beginSection(CoreTrace.SECTION_LIFECYCLE);
+        try {
+            for (int i = 0; i < callbacksArray.length; i++) {
+                final BaseFragmentCallbacks callbacks = (BaseFragmentCallbacks) callbacksArray[i];
+                if (!proceed(callbacks, created, fragment, implemented[i])) continue;
+
+                try {
                     apply(callbacks, lifeCycle, fragment, state);
                 }
-            });
+                catch (Exception e) {
+                    CoreLogger.log("apply failed", e);
+                }
+            }
+        }
+        finally {
+            CoreTrace.endSection();
+        }
     }
 
     private static void apply(@NonNull final BaseFragmentCallbacks callbacks,
@@ -76,13 +76,17 @@ public class BaseActivity extends Activity {        // don't modify this line: i
         return Level.WARNING;
     }
 
+    private boolean isLog() {   // avoids building messages which are not going to be logged
+        return CoreLogger.isLog(getDebugLevel());
+    }
+
     /**
      * Please refer to the base method description.
      */
     @CallSuper
     @Override
     public void onActionModeFinished(ActionMode mode) {
-        CoreLogger.log(getDebugLevel(), getDebugMessage() + ", mode " + mode, false);
+        if (isLog()) CoreLogger.log(getDebugLevel(), getDebugMessage() + ", mode " + mode, false);
 
         super.onActionModeFinished(mode);
     }
@@ -93,7 +97,7 @@ public class BaseActivity extends Activity {        // don't modify this line: i
     @CallSuper
     @Override
     public void onActionModeStarted(ActionMode mode) {
-        CoreLogger.log(getDebugLevel(), getDebugMessage() + ", mode " + mode, false);
+        if (isLog()) CoreLogger.log(getDebugLevel(), getDebugMessage() + ", mode " + mode, false);
 
         super.onActionModeStarted(mode);
     }
@@ -104,7 +108,7 @@ public class BaseActivity extends Activity {        // don't modify this line: i
     @CallSuper
     @Override
     public void onActivityReenter(int resultCode, Intent data) {
-        CoreLogger.log(getDebugLevel(), getDebugMessage() + ", resultCode " + resultCode + ", data " + data, false);
+        if (isLog()) CoreLogger.log(getDebugLevel(), getDebugMessage() + ", resultCode " + resultCode + ", data " + data, false);
 
         super.onActivityReenter(resultCode, data);
     }
@@ -115,7 +119,7 @@ public class BaseActivity extends Activity {        // don't modify this line: i
     @CallSuper
     @Override
     public void onActivityResult(int requestCode, int resultCode, Intent data) {
-        CoreLogger.log(getDebugMessage() + ", requestCode " + requestCode +
+        if (CoreLogger.isLog(Level.DEBUG)) CoreLogger.log(getDebugMessage() + ", requestCode " + requestCode +
                 ", resultCode " + resultCode + " " + Utils.getActivityResultString(resultCode));
 
         super.onActivityResult(requestCode, resultCode, data);
@@ -127,7 +131,7 @@ public class BaseActivity extends Activity {        // don't modify this line: i
     @CallSuper
     @Override
     public void onAttachFragment(android.app.Fragment fragment) {
-        CoreLogger.log(getDebugLevel(), getDebugMessage() + ", fragment " + fragment, false);
+        if (isLog()) CoreLogger.log(getDebugLevel(), getDebugMessage() + ", fragment " + fragment, false);
 
         if (android.support.v4.app.FragmentActivity.class.isInstance(this))
             CoreLogger.logWarning("about to attach android.app.Fragment to FragmentActivity");
@@ -139,7 +143,7 @@ public class BaseActivity extends Activity {        // don't modify this line: i
     //YakhontPreprocessor:addToGenerated-FragmentActivity-@CallSuper
     //YakhontPreprocessor:addToGenerated-FragmentActivity-@Override
     //YakhontPreprocessor:addToGenerated-FragmentActivity-public void onAttachFragment(android.support.v4.app.Fragment fragment) {
-    //YakhontPreprocessor:addToGenerated-FragmentActivity-    CoreLogger.log(getDebugLevel(), getDebugMessage() + ", fragment " + fragment, false);
+    //YakhontPreprocessor:addToGenerated-FragmentActivity-    if (isLog()) CoreLogger.log(getDebugLevel(), getDebugMessage() + ", fragment " + fragment, false);
     //YakhontPreprocessor:addToGenerated-FragmentActivity-    super.onAttachFragment(fragment);
     //YakhontPreprocessor:addToGenerated-FragmentActivity-}
 
@@ -149,7 +153,7 @@ public class BaseActivity extends Activity {        // don't modify this line: i
     @CallSuper
     @Override
     public void onAttachedToWindow() {
-        CoreLogger.log(getDebugLevel(), getDebugMessage(), false);
+        if (isLog()) CoreLogger.log(getDebugLevel(), getDebugMessage(), false);
 
         super.onAttachedToWindow();
     }
@@ -159,7 +163,7 @@ public class BaseActivity extends Activity {        // don't modify this line: i
      */
     @Override
     public void onBackPressed() {
-        CoreLogger.log(getDebugLevel(), getDebugMessage(), false);
+        if (isLog()) CoreLogger.log(getDebugLevel(), getDebugMessage(), false);
 
         super.onBackPressed();
     }
@@ -169,7 +173,7 @@ public class BaseActivity extends Activity {        // don't modify this line: i
     //YakhontPreprocessor:addToGenerated-ExpandableListActivity-@Override
     //YakhontPreprocessor:addToGenerated-ExpandableListActivity-public boolean onChildClick(android.widget.ExpandableListView parent, View v,
     //YakhontPreprocessor:addToGenerated-ExpandableListActivity-                            int groupPosition, int childPosition, long id) {
-    //YakhontPreprocessor:addToGenerated-ExpandableListActivity-    CoreLogger.log(getDebugLevel(), getDebugMessage() + ", groupPosition " + groupPosition +
+    //YakhontPreprocessor:addToGenerated-ExpandableListActivity-    if (isLog()) CoreLogger.log(getDebugLevel(), getDebugMessage() + ", groupPosition " + groupPosition +
     //YakhontPreprocessor:addToGenerated-ExpandableListActivity-            ", childPosition " + childPosition + ", id " + id, false);
     //YakhontPreprocessor:addToGenerated-ExpandableListActivity-    return super.onChildClick(parent, v, groupPosition, childPosition, id);
     //YakhontPreprocessor:addToGenerated-ExpandableListActivity-}
@@ -180,7 +184,7 @@ public class BaseActivity extends Activity {        // don't modify this line: i
     @CallSuper
     @Override
     public void onConfigurationChanged(Configuration newConfig) {
-        CoreLogger.log(getDebugLevel(), getDebugMessage() + ", newConfig " + newConfig, false);
+        if (isLog()) CoreLogger.log(getDebugLevel(), getDebugMessage() + ", newConfig " + newConfig, false);
 
         super.onConfigurationChanged(newConfig);
     }
@@ -193,7 +197,7 @@ public class BaseActivity extends Activity {        // don't modify this line: i
     protected void onCreate(Bundle savedInstanceState) {
         BaseApplication.setStrictMode(getApplication(), getDebugMessage());
 
-        CoreLogger.log(getDebugLevel(), getDebugMessage() + ", savedInstanceState " + savedInstanceState, false);
+        if (isLog()) CoreLogger.log(getDebugLevel(), getDebugMessage() + ", savedInstanceState " + savedInstanceState, false);
 
         super.onCreate(savedInstanceState);
     }
@@ -205,7 +209,7 @@ public class BaseActivity extends Activity {        // don't modify this line: i
     @Override
     @SuppressWarnings("deprecation")
     protected Dialog onCreateDialog(int id) {
-        CoreLogger.log(getDebugLevel(), getDebugMessage() + ", id " + id, false);
+        if (isLog()) CoreLogger.log(getDebugLevel(), getDebugMessage() + ", id " + id, false);
 
         return super.onCreateDialog(id);
     }
@@ -217,7 +221,7 @@ public class BaseActivity extends Activity {        // don't modify this line: i
     @Override
     @SuppressWarnings("deprecation")
     protected Dialog onCreateDialog(int id, Bundle args) {
-        CoreLogger.log(getDebugLevel(), getDebugMessage() + ", id " + id + ", args " + args, false);
+        if (isLog()) CoreLogger.log(getDebugLevel(), getDebugMessage() + ", id " + id + ", args " + args, false);
 
         return super.onCreateDialog(id, args);
     }
@@ -228,7 +232,7 @@ public class BaseActivity extends Activity {        // don't modify this line: i
     @CallSuper
     @Override
     public View onCreateView(View parent, String name, Context context, AttributeSet attrs) {
-        CoreLogger.log(getDebugLevel(), getDebugMessage() + ", parent " + parent +
+        if (isLog()) CoreLogger.log(getDebugLevel(), getDebugMessage() + ", parent " + parent +
                 ", name " + name + ", attrs " + attrs, false);
 
         return super.onCreateView(parent, name, context, attrs);
@@ -240,7 +244,7 @@ public class BaseActivity extends Activity {        // don't modify this line: i
     @CallSuper
     @Override
     public View onCreateView(String name, Context context, AttributeSet attrs) {
-        CoreLogger.log(getDebugLevel(), getDebugMessage() +
+        if (isLog()) CoreLogger.log(getDebugLevel(), getDebugMessage() +
                 ", name " + name + ", attrs " + attrs, false);
 
         return super.onCreateView(name, context, attrs);
@@ -252,7 +256,7 @@ public class BaseActivity extends Activity {        // don't modify this line: i
     @CallSuper
     @Override
     protected void onDestroy() {
-        CoreLogger.log(getDebugLevel(), getDebugMessage(), false);
+        if (isLog()) CoreLogger.log(getDebugLevel(), getDebugMessage(), false);
 
         super.onDestroy();
     }
@@ -263,7 +267,7 @@ public class BaseActivity extends Activity {        // don't modify this line: i
     @CallSuper
     @Override
     public void onDetachedFromWindow() {
-        CoreLogger.log(getDebugLevel(), getDebugMessage(), false);
+        if (isLog()) CoreLogger.log(getDebugLevel(), getDebugMessage(), false);
 
         super.onDetachedFromWindow();
     }
@@ -272,7 +276,7 @@ public class BaseActivity extends Activity {        // don't modify this line: i
     //YakhontPreprocessor:addToGenerated-PreferenceActivity-@CallSuper
     //YakhontPreprocessor:addToGenerated-PreferenceActivity-@Override
     //YakhontPreprocessor:addToGenerated-PreferenceActivity-public void onHeaderClick(android.preference.PreferenceActivity.Header header, int position) {
-    //YakhontPreprocessor:addToGenerated-PreferenceActivity-    CoreLogger.log(getDebugLevel(), getDebugMessage() + ", position " + position, false);
+    //YakhontPreprocessor:addToGenerated-PreferenceActivity-    if (isLog()) CoreLogger.log(getDebugLevel(), getDebugMessage() + ", position " + position, false);
     //YakhontPreprocessor:addToGenerated-PreferenceActivity-    super.onHeaderClick(header, position);
     //YakhontPreprocessor:addToGenerated-PreferenceActivity-}
 
@@ -280,7 +284,7 @@ public class BaseActivity extends Activity {        // don't modify this line: i
     //YakhontPreprocessor:addToGenerated-ListActivity,LauncherActivity,PreferenceActivity-@CallSuper
     //YakhontPreprocessor:addToGenerated-ListActivity,LauncherActivity,PreferenceActivity-@Override
     //YakhontPreprocessor:addToGenerated-ListActivity,LauncherActivity,PreferenceActivity-protected void onListItemClick(android.widget.ListView l, View v, int position, long id) {
-    //YakhontPreprocessor:addToGenerated-ListActivity,LauncherActivity,PreferenceActivity-    CoreLogger.log(getDebugLevel(), getDebugMessage() +
+    //YakhontPreprocessor:addToGenerated-ListActivity,LauncherActivity,PreferenceActivity-    if (isLog()) CoreLogger.log(getDebugLevel(), getDebugMessage() +
     //YakhontPreprocessor:addToGenerated-ListActivity,LauncherActivity,PreferenceActivity-            ", position " + position + ", id " + id, false);
     //YakhontPreprocessor:addToGenerated-ListActivity,LauncherActivity,PreferenceActivity-    super.onListItemClick(l, v, position, id);
     //YakhontPreprocessor:addToGenerated-ListActivity,LauncherActivity,PreferenceActivity-}
@@ -302,7 +306,7 @@ public class BaseActivity extends Activity {        // don't modify this line: i
     @CallSuper
     @Override
     public boolean onNavigateUp() {
-        CoreLogger.log(getDebugLevel(), getDebugMessage(), false);
+        if (isLog()) CoreLogger.log(getDebugLevel(), getDebugMessage(), false);
 
         return super.onNavigateUp();
     }
@@ -313,7 +317,7 @@ public class BaseActivity extends Activity {        // don't modify this line: i
     @CallSuper
     @Override
     public boolean onNavigateUpFromChild(Activity child) {
-        CoreLogger.log(getDebugLevel(), getDebugMessage() + ", child " + child, false);
+        if (isLog()) CoreLogger.log(getDebugLevel(), getDebugMessage() + ", child " + child, false);
 
         return super.onNavigateUpFromChild(child);
     }
@@ -324,7 +328,7 @@ public class BaseActivity extends Activity {        // don't modify this line: i
     @CallSuper
     @Override
     protected void onNewIntent(Intent intent) {
-        CoreLogger.log(getDebugLevel(), getDebugMessage() + ", intent " + intent, false);
+        if (isLog()) CoreLogger.log(getDebugLevel(), getDebugMessage() + ", intent " + intent, false);
 
         super.onNewIntent(intent);
     }
@@ -335,7 +339,7 @@ public class BaseActivity extends Activity {        // don't modify this line: i
     @CallSuper
     @Override
     protected void onPause() {
-        CoreLogger.log(getDebugLevel(), getDebugMessage(), false);
+        if (isLog()) CoreLogger.log(getDebugLevel(), getDebugMessage(), false);
 
         super.onPause();
     }
@@ -346,7 +350,7 @@ public class BaseActivity extends Activity {        // don't modify this line: i
     @CallSuper
     @Override
     protected void onPostCreate(Bundle savedInstanceState) {
-        CoreLogger.log(getDebugLevel(), getDebugMessage() + ", savedInstanceState " + savedInstanceState, false);
+        if (isLog()) CoreLogger.log(getDebugLevel(), getDebugMessage() + ", savedInstanceState " + savedInstanceState, false);
 
         super.onPostCreate(savedInstanceState);
     }
@@ -357,7 +361,7 @@ public class BaseActivity extends Activity {        // don't modify this line: i
     @CallSuper
     @Override
     public void onPostCreate(Bundle savedInstanceState, PersistableBundle persistentState) {
-        CoreLogger.log(getDebugLevel(), getDebugMessage() + ", savedInstanceState " + savedInstanceState +
+        if (isLog()) CoreLogger.log(getDebugLevel(), getDebugMessage() + ", savedInstanceState " + savedInstanceState +
                 ", persistentState " + persistentState, false);
 
         super.onPostCreate(savedInstanceState, persistentState);
@@ -369,7 +373,7 @@ public class BaseActivity extends Activity {        // don't modify this line: i
     @CallSuper
     @Override
     protected void onPostResume() {
-        CoreLogger.log(getDebugLevel(), getDebugMessage(), false);
+        if (isLog()) CoreLogger.log(getDebugLevel(), getDebugMessage(), false);
 
         super.onPostResume();
     }
@@ -379,7 +383,7 @@ public class BaseActivity extends Activity {        // don't modify this line: i
     //YakhontPreprocessor:addToGenerated-PreferenceActivity-@Override
     //YakhontPreprocessor:addToGenerated-PreferenceActivity-public boolean onPreferenceStartFragment(android.preference.PreferenceFragment caller,
     //YakhontPreprocessor:addToGenerated-PreferenceActivity-                                         android.preference.Preference pref) {
-    //YakhontPreprocessor:addToGenerated-PreferenceActivity-    CoreLogger.log(getDebugLevel(), getDebugMessage(), false);
+    //YakhontPreprocessor:addToGenerated-PreferenceActivity-    if (isLog()) CoreLogger.log(getDebugLevel(), getDebugMessage(), false);
     //YakhontPreprocessor:addToGenerated-PreferenceActivity-    return super.onPreferenceStartFragment(caller, pref);
     //YakhontPreprocessor:addToGenerated-PreferenceActivity-}
 
@@ -390,7 +394,7 @@ public class BaseActivity extends Activity {        // don't modify this line: i
     @Override
     @SuppressWarnings("deprecation")
     protected void onPrepareDialog(int id, Dialog dialog) {
-        CoreLogger.log(getDebugLevel(), getDebugMessage() + ", id " + id, false);
+        if (isLog()) CoreLogger.log(getDebugLevel(), getDebugMessage() + ", id " + id, false);
 
         super.onPrepareDialog(id, dialog);
     }
@@ -402,7 +406,7 @@ public class BaseActivity extends Activity {        // don't modify this line: i
     @Override
     @SuppressWarnings("deprecation")
     protected void onPrepareDialog(int id, Dialog dialog, Bundle args) {
-        CoreLogger.log(getDebugLevel(), getDebugMessage() + ", id " + id + ", args " + args, false);
+        if (isLog()) CoreLogger.log(getDebugLevel(), getDebugMessage() + ", id " + id + ", args " + args, false);
 
         super.onPrepareDialog(id, dialog, args);
     }
@@ -413,7 +417,7 @@ public class BaseActivity extends Activity {        // don't modify this line: i
     @CallSuper
     @Override
     public void onRequestPermissionsResult(int requestCode, @NonNull String[] permissions, @NonNull int[] grantResults) {
-        CoreLogger.log(getDebugLevel(), getDebugMessage() + ", requestCode " + requestCode +
+        if (isLog()) CoreLogger.log(getDebugLevel(), getDebugMessage() + ", requestCode " + requestCode +
                 ", permissions " + Arrays.deepToString(permissions) +
                 ", grantResults " + Arrays.toString(grantResults), false);
 
@@ -426,7 +430,7 @@ public class BaseActivity extends Activity {        // don't modify this line: i
     @CallSuper
     @Override
     protected void onRestart() {
-        CoreLogger.log(getDebugLevel(), getDebugMessage(), false);
+        if (isLog()) CoreLogger.log(getDebugLevel(), getDebugMessage(), false);
 
         super.onRestart();
     }
@@ -437,7 +441,7 @@ public class BaseActivity extends Activity {        // don't modify this line: i
     @CallSuper
     @Override
     protected void onRestoreInstanceState(Bundle savedInstanceState) {
-        CoreLogger.log(getDebugLevel(), getDebugMessage() + ", savedInstanceState " + savedInstanceState, false);
+        if (isLog()) CoreLogger.log(getDebugLevel(), getDebugMessage() + ", savedInstanceState " + savedInstanceState, false);
 
         super.onRestoreInstanceState(savedInstanceState);
     }
@@ -448,7 +452,7 @@ public class BaseActivity extends Activity {        // don't modify this line: i
     @CallSuper
     @Override
     public void onRestoreInstanceState(Bundle savedInstanceState, PersistableBundle persistentState) {
-        CoreLogger.log(getDebugLevel(), getDebugMessage() + ", savedInstanceState " + savedInstanceState +
+        if (isLog()) CoreLogger.log(getDebugLevel(), getDebugMessage() + ", savedInstanceState " + savedInstanceState +
                 ", persistentState " + persistentState, false);
 
         super.onRestoreInstanceState(savedInstanceState, persistentState);
@@ -460,7 +464,7 @@ public class BaseActivity extends Activity {        // don't modify this line: i
     @CallSuper
     @Override
     protected void onResume() {
-        CoreLogger.log(getDebugLevel(), getDebugMessage(), false);
+        if (isLog()) CoreLogger.log(getDebugLevel(), getDebugMessage(), false);
 
         super.onResume();
     }
@@ -469,7 +473,7 @@ public class BaseActivity extends Activity {        // don't modify this line: i
     //YakhontPreprocessor:addToGenerated-FragmentActivity-@CallSuper
     //YakhontPreprocessor:addToGenerated-FragmentActivity-@Override
     //YakhontPreprocessor:addToGenerated-FragmentActivity-protected void onResumeFragments() {
-    //YakhontPreprocessor:addToGenerated-FragmentActivity-    CoreLogger.log(getDebugLevel(), getDebugMessage(), false);
+    //YakhontPreprocessor:addToGenerated-FragmentActivity-    if (isLog()) CoreLogger.log(getDebugLevel(), getDebugMessage(), false);
     //YakhontPreprocessor:addToGenerated-FragmentActivity-    super.onResumeFragments();
     //YakhontPreprocessor:addToGenerated-FragmentActivity-}
 
@@ -477,7 +481,7 @@ public class BaseActivity extends Activity {        // don't modify this line: i
     //YakhontPreprocessor:addToGenerated-FragmentActivity-@CallSuper
     //YakhontPreprocessor:addToGenerated-FragmentActivity-@Override
     //YakhontPreprocessor:addToGenerated-FragmentActivity-public Object onRetainCustomNonConfigurationInstance() {
-    //YakhontPreprocessor:addToGenerated-FragmentActivity-    CoreLogger.log(getDebugLevel(), getDebugMessage(), false);
+    //YakhontPreprocessor:addToGenerated-FragmentActivity-    if (isLog()) CoreLogger.log(getDebugLevel(), getDebugMessage(), false);
     //YakhontPreprocessor:addToGenerated-FragmentActivity-    return super.onRetainCustomNonConfigurationInstance();
     //YakhontPreprocessor:addToGenerated-FragmentActivity-}
 
@@ -487,7 +491,7 @@ public class BaseActivity extends Activity {        // don't modify this line: i
     @CallSuper
     @Override
     protected void onSaveInstanceState(Bundle outState) {
-        CoreLogger.log(getDebugLevel(), getDebugMessage() + ", outState " + outState, false);
+        if (isLog()) CoreLogger.log(getDebugLevel(), getDebugMessage() + ", outState " + outState, false);
 
         super.onSaveInstanceState(outState);
     }
@@ -498,7 +502,7 @@ public class BaseActivity extends Activity {        // don't modify this line: i
     @CallSuper
     @Override
     public void onSaveInstanceState(Bundle outState, PersistableBundle outPersistentState) {
-        CoreLogger.log(getDebugLevel(), getDebugMessage() + ", outState " + outState +
+        if (isLog()) CoreLogger.log(getDebugLevel(), getDebugMessage() + ", outState " + outState +
                 ", outPersistentState " + outPersistentState, false);
 
         super.onSaveInstanceState(outState, outPersistentState);
@@ -510,7 +514,7 @@ public class BaseActivity extends Activity {        // don't modify this line: i
     @CallSuper
     @Override
     protected void onStart() {
-        CoreLogger.log(getDebugLevel(), getDebugMessage(), false);
+        if (isLog()) CoreLogger.log(getDebugLevel(), getDebugMessage(), false);
 
         super.onStart();
     }
@@ -521,7 +525,7 @@ public class BaseActivity extends Activity {        // don't modify this line: i
     @CallSuper
     @Override
     public void onStateNotSaved() {
-        CoreLogger.log(getDebugLevel(), getDebugMessage(), false);
+        if (isLog()) CoreLogger.log(getDebugLevel(), getDebugMessage(), false);
 
         super.onStateNotSaved();
     }
@@ -532,7 +536,7 @@ public class BaseActivity extends Activity {        // don't modify this line: i
     @CallSuper
     @Override
     protected void onStop() {
-        CoreLogger.log(getDebugLevel(), getDebugMessage(), false);
+        if (isLog()) CoreLogger.log(getDebugLevel(), getDebugMessage(), false);
 
         super.onStop();
     }
@@ -541,7 +545,7 @@ public class BaseActivity extends Activity {        // don't modify this line: i
     //YakhontPreprocessor:addToGenerated-AppCompatActivity,ActionBarActivity-@CallSuper
     //YakhontPreprocessor:addToGenerated-AppCompatActivity,ActionBarActivity-@Override
     //YakhontPreprocessor:addToGenerated-AppCompatActivity,ActionBarActivity-public void onSupportActionModeFinished(android.support.v7.view.ActionMode mode) {
-    //YakhontPreprocessor:addToGenerated-AppCompatActivity,ActionBarActivity-    CoreLogger.log(getDebugLevel(), getDebugMessage() + ", mode " + mode, false);
+    //YakhontPreprocessor:addToGenerated-AppCompatActivity,ActionBarActivity-    if (isLog()) CoreLogger.log(getDebugLevel(), getDebugMessage() + ", mode " + mode, false);
     //YakhontPreprocessor:addToGenerated-AppCompatActivity,ActionBarActivity-    super.onSupportActionModeFinished(mode);
     //YakhontPreprocessor:addToGenerated-AppCompatActivity,ActionBarActivity-}
 
@@ -549,7 +553,7 @@ public class BaseActivity extends Activity {        // don't modify this line: i
     //YakhontPreprocessor:addToGenerated-AppCompatActivity,ActionBarActivity-@CallSuper
     //YakhontPreprocessor:addToGenerated-AppCompatActivity,ActionBarActivity-@Override
     //YakhontPreprocessor:addToGenerated-AppCompatActivity,ActionBarActivity-public void onSupportActionModeStarted(android.support.v7.view.ActionMode mode) {
-    //YakhontPreprocessor:addToGenerated-AppCompatActivity,ActionBarActivity-    CoreLogger.log(getDebugLevel(), getDebugMessage() + ", mode " + mode, false);
+    //YakhontPreprocessor:addToGenerated-AppCompatActivity,ActionBarActivity-    if (isLog()) CoreLogger.log(getDebugLevel(), getDebugMessage() + ", mode " + mode, false);
     //YakhontPreprocessor:addToGenerated-AppCompatActivity,ActionBarActivity-    super.onSupportActionModeStarted(mode);
     //YakhontPreprocessor:addToGenerated-AppCompatActivity,ActionBarActivity-}
 
@@ -557,7 +561,7 @@ public class BaseActivity extends Activity {        // don't modify this line: i
     //YakhontPreprocessor:addToGenerated-AppCompatActivity,ActionBarActivity-@CallSuper
     //YakhontPreprocessor:addToGenerated-AppCompatActivity,ActionBarActivity-@Override
     //YakhontPreprocessor:addToGenerated-AppCompatActivity,ActionBarActivity-public boolean onSupportNavigateUp() {
-    //YakhontPreprocessor:addToGenerated-AppCompatActivity,ActionBarActivity-    CoreLogger.log(getDebugLevel(), getDebugMessage(), false);
+    //YakhontPreprocessor:addToGenerated-AppCompatActivity,ActionBarActivity-    if (isLog()) CoreLogger.log(getDebugLevel(), getDebugMessage(), false);
     //YakhontPreprocessor:addToGenerated-AppCompatActivity,ActionBarActivity-    return super.onSupportNavigateUp();
     //YakhontPreprocessor:addToGenerated-AppCompatActivity,ActionBarActivity-}
 
@@ -579,7 +583,7 @@ public class BaseActivity extends Activity {        // don't modify this line: i
     @CallSuper
     @Override
     public void setRequestedOrientation(int requestedOrientation) {
-        CoreLogger.log(getDebugLevel(), getDebugMessage() + ", requestedOrientation " + requestedOrientation, true);
+        if (isLog()) CoreLogger.log(getDebugLevel(), getDebugMessage() + ", requestedOrientation " + requestedOrientation, true);
 
         super.setRequestedOrientation(requestedOrientation);
     }
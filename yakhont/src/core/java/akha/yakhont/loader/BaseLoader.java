@@ -23,15 +23,20 @@ import akha.yakhont.Core.UriResolver;
 import akha.yakhont.Core.Utils;
 import akha.yakhont.CoreLogger;
 import akha.yakhont.CoreLogger.Level;
+import akha.yakhont.CoreTrace;
 import akha.yakhont.adapter.BaseCacheAdapter;
 import akha.yakhont.adapter.BaseCacheAdapter.ViewBinder;
+import akha.yakhont.adapter.BaseCacheAdapter.ViewInflater;
 import akha.yakhont.adapter.BaseRecyclerViewAdapter.ViewHolderCreator;
+import akha.yakhont.adapter.ImageBinder;
 import akha.yakhont.adapter.ValuesCacheAdapterWrapper;
+import akha.yakhont.adapter.ViewPoolRegistry;
 import akha.yakhont.fragment.WorkerFragment;
 import akha.yakhont.loader.BaseResponse;
 import akha.yakhont.loader.BaseResponse.Converter;
 import akha.yakhont.loader.BaseResponse.LoaderCallback;
 import akha.yakhont.loader.BaseResponse.Source;
+import akha.yakhont.loader.LoaderMetrics.Stage;
 import akha.yakhont.loader.wrapper.BaseLoaderWrapper.LoaderBuilder;
 import akha.yakhont.loader.wrapper.BaseLoaderWrapper.LoaderFactory;
 import akha.yakhont.loader.wrapper.BaseResponseLoaderWrapper.BaseResponseLoaderBuilder;
@@ -57,6 +62,7 @@ import android.support.annotation.StringRes;
 import android.support.v7.widget.RecyclerView;
 import android.support.v7.widget.RecyclerView.ViewHolder;
 import android.view.View;
+import android.view.ViewGroup;
 import android.widget.GridView;
 import android.widget.ListView;
 
@@ -68,6 +74,7 @@ import java.util.Collection;
 import java.util.Timer;
 import java.util.TimerTask;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
 
 import javax.inject.Provider;
 
@@ -94,7 +101,8 @@ public abstract class BaseLoader<C, R, E, D> extends Loader<BaseResponse<R, E, D
 
     private final static    String                  FORMAT_ERROR                = "%s (%s)";
     private final static    String                  FORMAT_INFO                 = "id = %d (%s)";
-    private final static    String                  FORMAT_ADD                  = "%s, %s";
+    /** @exclude */ @SuppressWarnings({"JavaDoc", "WeakerAccess"})
+    protected final static  String                  FORMAT_ADD                  = "%s, %s";
 
     @StringRes
     private static final    int                     ERROR_RES_ID                = akha.yakhont.R.string.yakhont_loader_error;
@@ -120,6 +128,9 @@ public abstract class BaseLoader<C, R, E, D> extends Loader<BaseResponse<R, E, D
 
     private                 ProgressWrapper         mProgress;
 
+    private   final         AtomicReference<LoaderMetrics>
+                                                    mMetrics                    = new AtomicReference<>();
+
     /**
      * Initialises a newly created {@code BaseLoader} object.
      *
@@ -299,7 +310,7 @@ public abstract class BaseLoader<C, R, E, D> extends Loader<BaseResponse<R, E, D
     @SuppressWarnings("WeakerAccess")
     protected void makeRequest() {
         if (mCallback == null) {
-            CoreLogger.logError(addLoaderInfo("mCallback == null"));
+            CoreLogger.logFormat(Level.ERROR, FORMAT_ADD, "mCallback == null", this);
             return;
         }
 
@@ -309,17 +320,28 @@ public abstract class BaseLoader<C, R, E, D> extends Loader<BaseResponse<R, E, D
 
         doProgressSafe(true);
 
+        final LoaderMetrics metrics = getMetrics();
+        if (metrics != null) metrics.start(Stage.QUEUE_WAIT);
+
         Utils.runInBackground(true, new Runnable() {
             @Override
             public void run() {
+                if (metrics != null) {
+                    metrics.stop (Stage.QUEUE_WAIT);
+                    metrics.start(Stage.NETWORK);
+                }
+                CoreTrace.beginSection(CoreTrace.SECTION_MAKE_REQUEST);
                 try {
-                    CoreLogger.log(addLoaderInfo("makeRequest"));
+                    CoreLogger.logFormat(FORMAT_ADD, "makeRequest", BaseLoader.this);
                     makeRequest(mCallback);
                 }
                 catch (Exception exception) {
                     CoreLogger.log(addLoaderInfo("makeRequest failed"), exception);
                     callbackHelper(false, wrapException(exception));
                 }
+                finally {
+                    CoreTrace.endSection();
+                }
             }
         });
     }
@@ -345,14 +367,17 @@ public abstract class BaseLoader<C, R, E, D> extends Loader<BaseResponse<R, E, D
      *        The results of loading
      */
     public void callbackHelper(final boolean success, @NonNull final BaseResponse<R, E, D> baseResponse) {
+        final LoaderMetrics metrics = getMetrics();
+        if (metrics != null) metrics.stop(Stage.NETWORK);
+
         Utils.postToMainLoop(new Runnable() {
             @Override
             public void run() {
                 final boolean waiting = isWaiting();
-                CoreLogger.log(waiting ? Level.DEBUG: Level.ERROR, addLoaderInfo("success " + success));
+                CoreLogger.logFormat(waiting ? Level.DEBUG: Level.ERROR, "success %b, %s", success, BaseLoader.this);
 
                 if (!waiting) return;
-                CoreLogger.log(addLoaderInfo("proceed"));
+                CoreLogger.logFormat(FORMAT_ADD, "proceed", BaseLoader.this);
 
                 doProgressSafe(false);
 
@@ -371,13 +396,13 @@ public abstract class BaseLoader<C, R, E, D> extends Loader<BaseResponse<R, E, D
 
     private void logError(final E error) {
         if (error == null) {
-            CoreLogger.logError(addLoaderInfo("error == null"));
+            CoreLogger.logFormat(Level.ERROR, FORMAT_ADD, "error == null", this);
             return;
         }
         if (error instanceof Throwable)
             CoreLogger.logError(addLoaderInfo(error.toString()), (Throwable) error);
         else
-            CoreLogger.logError(addLoaderInfo(error.toString()));
+            CoreLogger.logFormat(Level.ERROR, FORMAT_ADD, error, this);
     }
 
     private void displayErrorSafe(@NonNull final String text) {
@@ -426,7 +451,7 @@ public abstract class BaseLoader<C, R, E, D> extends Loader<BaseResponse<R, E, D
      */
     @SuppressWarnings("WeakerAccess")
     protected void deliver(@NonNull final BaseResponse<R, E, D> baseResponse) {
-        CoreLogger.log(addLoaderInfo("deliver"));
+        CoreLogger.logFormat(FORMAT_ADD, "deliver", this);
 
         postDeliverResult(baseResponse);
     }
@@ -482,6 +507,7 @@ public abstract class BaseLoader<C, R, E, D> extends Loader<BaseResponse<R, E, D
     }
 
     private Timer               mTimer;
+    private String              mTimerName;
     private final Object        mTimerLock       = new Object();
 
     private void doProgressTimer(final boolean show) {
@@ -493,7 +519,7 @@ public abstract class BaseLoader<C, R, E, D> extends Loader<BaseResponse<R, E, D
             if (!show) return;
 
             if (mTimeout < 0) {
-                CoreLogger.logError(addLoaderInfo("mTimeout < 0"));
+                CoreLogger.logFormat(Level.ERROR, FORMAT_ADD, "mTimeout < 0", this);
                 return;
             }
 
@@ -501,7 +527,10 @@ public abstract class BaseLoader<C, R, E, D> extends Loader<BaseResponse<R, E, D
             // (normally should never happen)
             final int timeout = (mTimeout + Core.TIMEOUT_CONNECTION_TIMER) * 1000;
 
-            mTimer = new Timer(addLoaderInfo("timer for loading progress"));
+            // the timer is created for every request, but its name is the same
+            if (mTimerName == null) mTimerName = addLoaderInfo("timer for loading progress");
+
+            mTimer = new Timer(mTimerName);
             mTimer.schedule(new TimerTask() {
                 @Override
                 public void run() {
@@ -509,7 +538,7 @@ public abstract class BaseLoader<C, R, E, D> extends Loader<BaseResponse<R, E, D
                     doProgressSafe(false);
 
                     if (!isWaiting()) return;
-                    CoreLogger.log(addLoaderInfo("timer proceed"));
+                    CoreLogger.logFormat(FORMAT_ADD, "timer proceed", BaseLoader.this);
 
                     Utils.postToMainLoop(new Runnable() {
                         @Override
@@ -599,6 +628,15 @@ public abstract class BaseLoader<C, R, E, D> extends Loader<BaseResponse<R, E, D
         return false;
     }
     
+    /**
+     * Returns the metrics of the current request (if any).
+     *
+     * @return  The {@link LoaderMetrics} (or null if there is no request in progress)
+     */
+    public LoaderMetrics getMetrics() {
+        return mMetrics.get();
+    }
+
     /** @exclude */ @SuppressWarnings("JavaDoc")
     public static void enableLoaderManagerDebugLogging(final boolean enable) {
         LoaderManager.enableDebugLogging(enable);
@@ -632,6 +670,12 @@ public abstract class BaseLoader<C, R, E, D> extends Loader<BaseResponse<R, E, D
             super.deliverResult(data);
 
         releaseResources(prevData);
+
+        final LoaderMetrics metrics = mMetrics.getAndSet(null);
+        if (metrics == null) return;
+
+        metrics.setSource(data == null ? null: data.getSource());
+        metrics.release();
     }
 
     // from docs: "Subclasses generally must implement at least onStartLoading(), onStopLoading(), onForceLoad(), and onReset()."
@@ -677,6 +721,9 @@ public abstract class BaseLoader<C, R, E, D> extends Loader<BaseResponse<R, E, D
         super.onForceLoad();
         cancelLoadHelper();
 
+        // no one to report the metrics to - no reason to allocate them
+        mMetrics.set(LoaderMetrics.isEnabled() ? new LoaderMetrics(getId(), mLogDescription): null);
+
         makeRequest();
     }
 
@@ -842,6 +889,12 @@ public abstract class BaseLoader<C, R, E, D> extends Loader<BaseResponse<R, E, D
         /** @exclude */ @SuppressWarnings({"JavaDoc", "WeakerAccess"})
         @LayoutRes
         protected int                                   mLayoutItemId   = Core.NOT_VALID_RES_ID;
+        /** @exclude */ @SuppressWarnings({"JavaDoc", "WeakerAccess"})
+        protected int                                   mPreInflate;
+        /** @exclude */ @SuppressWarnings({"JavaDoc", "WeakerAccess"})
+        protected boolean                               mViewPoolShared;
+        /** @exclude */ @SuppressWarnings({"JavaDoc", "WeakerAccess"})
+        protected int                                   mViewPoolSize   = -1;
 
         /**
          * Initialises a newly created {@code CoreLoadBuilder} object.
@@ -984,6 +1037,60 @@ public abstract class BaseLoader<C, R, E, D> extends Loader<BaseResponse<R, E, D
             return this;
         }
 
+        /**
+         * Sets the number of item views to inflate in advance, during the main thread's idle time
+         * (so the first screenfuls of the list don't pay for the XML inflation during layout).
+         * Disabled by default; not used if the {@link #setViewHolderCreator ViewHolderCreator} was set
+         * or if the {@code ListView} / {@code GridView} shows the cursor adapter (which inflates views itself).
+         *
+         * @param count
+         *        The number of item views (or 0 to disable pre-inflation),
+         *        e.g. {@link ViewInflater#DEFAULT_PRE_INFLATE}
+         *
+         * @return  This {@code CoreLoadBuilder} object to allow for chaining of calls to set methods
+         */
+        @NonNull
+        @SuppressWarnings("unused")
+        public CoreLoadBuilder<R, E, D> setPreInflate(@IntRange(from = 0) final int count) {
+            mPreInflate = count;
+            return this;
+        }
+
+        /**
+         * Registers the {@code RecyclerView} with the shared (for the given Activity) {@code RecycledViewPool},
+         * so lists with the same item layout (e.g. in tabs or pagers) reuse views instead of inflating
+         * the new ones. The {@link #setViewHolderCreator ViewHolderCreator} gets the item layout ID
+         * as the view type then. Please refer to {@link ViewPoolRegistry} for more info.
+         *
+         * @param shared
+         *        {@code true} to use the shared {@code RecycledViewPool}, {@code false} (default) otherwise
+         *
+         * @return  This {@code CoreLoadBuilder} object to allow for chaining of calls to set methods
+         */
+        @NonNull
+        @SuppressWarnings("unused")
+        public CoreLoadBuilder<R, E, D> setViewPoolShared(final boolean shared) {
+            mViewPoolShared = shared;
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of the recycled item views to keep in the shared {@code RecycledViewPool}
+         * (for the item layout of this list). Turns on the {@link #setViewPoolShared shared pool}.
+         *
+         * @param size
+         *        The pool size
+         *
+         * @return  This {@code CoreLoadBuilder} object to allow for chaining of calls to set methods
+         */
+        @NonNull
+        @SuppressWarnings("unused")
+        public CoreLoadBuilder<R, E, D> setViewPoolSize(@IntRange(from = 0) final int size) {
+            mViewPoolShared = true;
+            mViewPoolSize   = size;
+            return this;
+        }
+
         @LayoutRes
         @SuppressWarnings("SameParameterValue")
         private int getItemLayout(@NonNull final Resources resources, @NonNull final View list,
@@ -1052,19 +1159,32 @@ public abstract class BaseLoader<C, R, E, D> extends Loader<BaseResponse<R, E, D
 
             if (mViewHolderCreator != null)
                 mAdapterWrapper.getRecyclerViewAdapter().setViewHolderCreator(mViewHolderCreator);
+            // the view types should be set before the adapter is attached
+            mAdapterWrapper.getRecyclerViewAdapter().setViewPoolShared(mViewPoolShared && list instanceof RecyclerView);
 
             if      (list instanceof ListView)
                 ((ListView) list).setAdapter(mAdapterWrapper.getAdapter());
             else if (list instanceof GridView)
                 ((GridView) list).setAdapter(mAdapterWrapper.getAdapter());
-            else if (list instanceof RecyclerView)
+            else if (list instanceof RecyclerView) {
                 ((RecyclerView) list).setAdapter(mAdapterWrapper.getRecyclerViewAdapter());
+
+                if (ImageBinder.isPauseOnFling()) ((RecyclerView) list).addOnScrollListener(
+                        ImageBinder.getRecyclerViewScrollListener(list.getContext()));
+
+                if (mViewPoolShared) {
+                    if (mViewPoolSize >= 0) ViewPoolRegistry.setPoolSize(itemId, mViewPoolSize);
+                    ViewPoolRegistry.register(fragment.getActivity(), (RecyclerView) list, itemId);
+                }
+            }
             else {
                 CoreLogger.logError("view with id " + mListViewId +
                         " should be instance of ListView, GridView or RecyclerView");
                 return null;
             }
 
+            mAdapterWrapper.preInflate((ViewGroup) list, mPreInflate);
+
             coreLoad.addLoader(mAdapterWrapper, mRx, mLoaderBuilder);
 
             return coreLoad;
@@ -1130,6 +1250,9 @@ public abstract class BaseLoader<C, R, E, D> extends Loader<BaseResponse<R, E, D
         /** @exclude */ @SuppressWarnings({"JavaDoc", "WeakerAccess"})
         protected LoaderFactory<BaseResponse<R, E, D>>  mLoaderFactory;
 
+        /** @exclude */ @SuppressWarnings({"JavaDoc", "WeakerAccess"})
+        protected String[]                              mSearchableColumns;
+
         /**
          * Initialises a newly created {@code CoreLoadExtendedBuilder} object.
          *
@@ -1319,6 +1442,23 @@ public abstract class BaseLoader<C, R, E, D> extends Loader<BaseResponse<R, E, D
             return this;
         }
 
+        /**
+         * Marks the columns as searchable (the full-text index will be maintained for them in the cache).
+         *
+         * @param columns
+         *        The searchable columns
+         *
+         * @return  This {@code CoreLoadExtendedBuilder} object to allow for chaining of calls to set methods
+         *
+         * @see BaseResponseLoaderBuilder#setSearchableColumns
+         */
+        @NonNull
+        @SuppressWarnings("unused")
+        public CoreLoadExtendedBuilder<C, R, E, D, T> setSearchableColumns(@NonNull @Size(min = 1) final String... columns) {
+            mSearchableColumns = columns;
+            return this;
+        }
+
         /**
          * Sets the loader factory.
          *
@@ -1392,6 +1532,7 @@ public abstract class BaseLoader<C, R, E, D> extends Loader<BaseResponse<R, E, D
             if (mLoaderId       != null)                        builder.setLoaderId      (mLoaderId                         );
             if (mUriResolver    != null)                        builder.setUriResolver   (mUriResolver                      );
             if (mLoaderFactory  != null)                        builder.setLoaderFactory (mLoaderFactory                    );
+            if (mSearchableColumns != null)                     builder.setSearchableColumns(mSearchableColumns             );
 
             return super.create();
         }
@@ -16,13 +16,17 @@
 
 package akha.yakhont.loader;
 
+import akha.yakhont.BaseCacheProvider.HttpValidators;
 import akha.yakhont.Core.UriResolver;
 import akha.yakhont.Core.Utils;
 import akha.yakhont.CoreLogger;
+import akha.yakhont.CoreLogger.Level;
+import akha.yakhont.CoreTrace;
 import akha.yakhont.adapter.BaseCacheAdapter.BaseCursorAdapter;
 import akha.yakhont.loader.BaseResponse;
 import akha.yakhont.loader.BaseResponse.Converter;
 import akha.yakhont.loader.BaseResponse.Source;
+import akha.yakhont.loader.LoaderMetrics.Stage;
 
 import android.annotation.TargetApi;
 import android.app.Fragment;
@@ -164,7 +168,7 @@ public abstract class CacheLoader<C, R, E, D> extends BaseLoader<C, R, E, D> {
      */
     @SuppressWarnings("UnusedReturnValue")
     public boolean setForceCache(final boolean forceCache) {
-        CoreLogger.log(addLoaderInfo("" + forceCache));
+        CoreLogger.logFormat("forceCache %b, %s", forceCache, this);
 
         return mForceCache.getAndSet(forceCache);
     }
@@ -180,7 +184,7 @@ public abstract class CacheLoader<C, R, E, D> extends BaseLoader<C, R, E, D> {
      */
     @SuppressWarnings("UnusedReturnValue")
     public boolean setMerge(final boolean merge) {
-        CoreLogger.log(addLoaderInfo("" + merge));
+        CoreLogger.logFormat("merge %b, %s", merge, this);
 
         return mMerge.getAndSet(merge);
     }
@@ -191,8 +195,12 @@ public abstract class CacheLoader<C, R, E, D> extends BaseLoader<C, R, E, D> {
     @CallSuper
     @Override
     protected void makeRequest() {
-        if (mForceCache.get() || !Utils.isConnected()) {
-            CoreLogger.log(addLoaderInfo("request forced to cache, forceCache " + mForceCache.get()));
+        // tracked by broadcasts if the NetworkMonitor is running, otherwise queried from the ConnectivityManager
+        final boolean isConnected = Utils.isConnected();
+
+        if (mForceCache.get() || !isConnected) {
+            CoreLogger.logFormat("request forced to cache, forceCache %b, connected %b, %s",
+                    mForceCache.get(), isConnected, this);
 
             onFailure(new BaseResponse<R, E, D>(Source.CACHE));
         }
@@ -206,6 +214,14 @@ public abstract class CacheLoader<C, R, E, D> extends BaseLoader<C, R, E, D> {
     @CallSuper
     @Override
     protected void onSuccess(@NonNull final BaseResponse<R, E, D> baseResponse) {
+        if (baseResponse.getSource() == Source.CACHE) {
+            // e.g. HTTP 304 Not Modified: no conversion and no DB writing, just load from cache
+            CoreLogger.logFormat(FORMAT_ADD, "not modified", this);
+
+            loadFromCache(baseResponse);
+            return;
+        }
+
         storeResult(baseResponse);
 
         super.onSuccess(baseResponse);
@@ -221,19 +237,43 @@ public abstract class CacheLoader<C, R, E, D> extends BaseLoader<C, R, E, D> {
 
         final D result = baseResponse.getResult();
 
-        CoreLogger.logWarning(addLoaderInfo("about to store in cache"));
+        CoreLogger.logFormat(Level.WARNING, FORMAT_ADD, "about to store in cache", this);
+
+        final LoaderMetrics metrics = getMetrics();
+        if (metrics != null) metrics.start(Stage.CONVERSION);
 
         final ContentValues[] values = mConverter.get(result);
         baseResponse.setContentValues(values);
 
+        if (metrics != null) {
+            metrics.stop(Stage.CONVERSION);
+            metrics.setRows(values == null ? 0: values.length);
+
+            // the metrics will be published after the DB write completion
+            metrics.hold();
+        }
+
         mExecutor.execute(new Runnable() {
             @Override
             public void run() {
+                if (metrics != null) metrics.start(Stage.DB_WRITE);
+
+                final String tableName = Utils.getLoaderTableName(mUri);
                 try {
                     storeResult(values);
+
+                    HttpValidators.commit(getContext(), tableName);
                 }
                 catch (Exception e) {
                     CoreLogger.log(addLoaderInfo("can not store result"), e);
+
+                    HttpValidators.discard(tableName);
+                }
+                finally {
+                    if (metrics != null) {
+                        metrics.stop(Stage.DB_WRITE);
+                        metrics.release();
+                    }
                 }
             }
         });
@@ -246,7 +286,13 @@ public abstract class CacheLoader<C, R, E, D> extends BaseLoader<C, R, E, D> {
 
         if (values == null || values.length == 0) return;
 
-        contentResolver.bulkInsert(mUri, values);
+        CoreTrace.beginSection(CoreTrace.SECTION_BULK_INSERT);
+        try {
+            contentResolver.bulkInsert(mUri, values);
+        }
+        finally {
+            CoreTrace.endSection();
+        }
     }
 
     /**
@@ -255,7 +301,11 @@ public abstract class CacheLoader<C, R, E, D> extends BaseLoader<C, R, E, D> {
     @CallSuper
     @Override
     protected void onFailure(@NonNull final BaseResponse<R, E, D> baseResponse) {
-        CoreLogger.log(addLoaderInfo("about to load from cache"));
+        loadFromCache(baseResponse);
+    }
+
+    private void loadFromCache(@NonNull final BaseResponse<R, E, D> baseResponse) {
+        CoreLogger.logFormat(FORMAT_ADD, "about to load from cache", this);
 
         final Fragment fragment = mFragment.get();
         if (fragment == null) {
@@ -264,10 +314,15 @@ public abstract class CacheLoader<C, R, E, D> extends BaseLoader<C, R, E, D> {
         }
 
         final LoaderManager loaderManager = fragment.getLoaderManager();
-        if (loaderManager == null)
+        if (loaderManager == null) {
             CoreLogger.logError("loaderManager == null");
-        else
-            loaderManager.restartLoader(-mLoaderId, null, new CursorLoaderWrapper(baseResponse.getError()));
+            return;
+        }
+
+        final LoaderMetrics metrics = getMetrics();
+        if (metrics != null) metrics.start(Stage.CACHE_READ);
+
+        loaderManager.restartLoader(-mLoaderId, null, new CursorLoaderWrapper(baseResponse.getError()));
     }
 
     private class CursorLoaderWrapper implements LoaderManager.LoaderCallbacks<Cursor> {
@@ -291,9 +346,27 @@ public abstract class CacheLoader<C, R, E, D> extends BaseLoader<C, R, E, D> {
          */
         @Override
         public void onLoadFinished(Loader<Cursor> loader, Cursor cursor) {
-            CoreLogger.log(addLoaderInfo("from cache"));
+            CoreTrace.beginSection(CoreTrace.SECTION_CACHE_LOADED);
+            try {
+                CoreLogger.logFormat(FORMAT_ADD, "from cache", CacheLoader.this);
+
+                // the cursor is reloaded on every cache update, but the metrics are for the first load only
+                LoaderMetrics metrics = getMetrics();
+                if (metrics != null && !metrics.stop(Stage.CACHE_READ)) metrics = null;
+                if (metrics != null) metrics.start(Stage.CURSOR_DECODE);
 
-            deliver(new BaseResponse<R, E, D>(mConverter.get(cursor), null, cursor, mError, Source.CACHE, null));
+                final D data = mConverter.get(cursor);
+
+                if (metrics != null) {
+                    metrics.stop(Stage.CURSOR_DECODE);
+                    metrics.setRows(cursor == null ? 0: cursor.getCount());
+                }
+
+                deliver(new BaseResponse<R, E, D>(data, null, cursor, mError, Source.CACHE, null));
+            }
+            finally {
+                CoreTrace.endSection();
+            }
         }
 
         /**
@@ -301,7 +374,7 @@ public abstract class CacheLoader<C, R, E, D> extends BaseLoader<C, R, E, D> {
          */
         @Override
         public void onLoaderReset(Loader<Cursor> loader) {
-            CoreLogger.log(addLoaderInfo(null));
+            CoreLogger.logFormat("%s", CacheLoader.this);
 
             if (mAdapter != null) mAdapter.swapCursor(null);
         }
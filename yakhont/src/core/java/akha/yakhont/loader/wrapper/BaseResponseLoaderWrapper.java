@@ -16,6 +16,8 @@
 
 package akha.yakhont.loader.wrapper;
 
+import akha.yakhont.BaseCacheProvider.FullTextSearch;
+import akha.yakhont.BaseCacheProvider.HttpValidators;
 import akha.yakhont.Core;
 import akha.yakhont.Core.Requester;
 import akha.yakhont.Core.UriResolver;
@@ -23,6 +25,7 @@ import akha.yakhont.Core.Utils;
 import akha.yakhont.Core.Utils.TypeHelper;
 import akha.yakhont.CoreLogger;
 import akha.yakhont.CoreLogger.Level;
+import akha.yakhont.CoreTrace;
 import akha.yakhont.adapter.BaseCacheAdapter.BaseCursorAdapter;
 import akha.yakhont.adapter.BaseCacheAdapter.CacheAdapter;
 import akha.yakhont.adapter.BaseCacheAdapter.Mergeable;
@@ -32,6 +35,8 @@ import akha.yakhont.loader.BaseResponse.Converter;
 import akha.yakhont.loader.BaseResponse.LoaderCallback;
 import akha.yakhont.loader.CacheLoader;
 import akha.yakhont.loader.BaseConverter;
+import akha.yakhont.loader.LoaderMetrics;
+import akha.yakhont.loader.LoaderMetrics.Stage;
 import akha.yakhont.technology.rx.BaseRx.LoaderRx;
 
 import android.annotation.TargetApi;
@@ -40,6 +45,7 @@ import android.app.Fragment;
 import android.app.LoaderManager;
 import android.content.Context;
 import android.content.Loader;
+import android.net.Uri;
 import android.os.Build;
 import android.os.Bundle;
 import android.support.annotation.CallSuper;
@@ -258,6 +264,16 @@ public class BaseResponseLoaderWrapper<C, R, E, D> extends BaseLoaderWrapper<Bas
         return mTableName;
     }
 
+    /**
+     * Returns the URI of the cache table.
+     *
+     * @return  The URI
+     */
+    @SuppressWarnings("unused")
+    public Uri getUri() {
+        return mUriResolver.getUri(mTableName);
+    }
+
     /**
      * Please refer to the base method description.
      */
@@ -344,10 +360,23 @@ public class BaseResponseLoaderWrapper<C, R, E, D> extends BaseLoaderWrapper<Bas
     }
 
     private void updateAdapter(final Loader<BaseResponse<R, E, D>> loader, final BaseResponse<R, E, D> data) {
-        if (mAdapter != null)
-            mAdapter.update(data, loader instanceof Mergeable && ((Mergeable) loader).isMerge());
-        else
+        if (mAdapter == null) {
             CoreLogger.logWarning("adapter == null, table name: " + mTableName);
+            return;
+        }
+
+        final LoaderMetrics metrics = loader instanceof BaseLoader ? ((BaseLoader) loader).getMetrics(): null;
+        if (metrics != null) metrics.start(Stage.ADAPTER_BIND);
+
+        CoreTrace.beginSection(CoreTrace.SECTION_ADAPTER_BIND);
+        try {
+            mAdapter.update(data, loader instanceof Mergeable && ((Mergeable) loader).isMerge());
+        }
+        finally {
+            CoreTrace.endSection();
+        }
+
+        if (metrics != null) metrics.stop(Stage.ADAPTER_BIND);
     }
 
     /**
@@ -395,7 +424,14 @@ public class BaseResponseLoaderWrapper<C, R, E, D> extends BaseLoaderWrapper<Bas
          */
         @Override
         protected void makeRequest(@NonNull final C callback) {
-            mRequester.makeRequest(callback);
+            // only the loaders' requests are made conditional, see HttpValidators
+            HttpValidators.setLoaderRequest(true);
+            try {
+                mRequester.makeRequest(callback);
+            }
+            finally {
+                HttpValidators.setLoaderRequest(false);
+            }
         }
     }
 
@@ -436,6 +472,8 @@ public class BaseResponseLoaderWrapper<C, R, E, D> extends BaseLoaderWrapper<Bas
         private         Converter<D>                                              mConverter;
         private         UriResolver                                               mUriResolver;
 
+        private         String[]                                                  mSearchableColumns;
+
         /** @exclude */ @SuppressWarnings({"JavaDoc", "WeakerAccess"})
         protected       LoaderManager.LoaderCallbacks<BaseResponse<R, E, D>>      mLoaderCallbacks;
         /** @exclude */ @SuppressWarnings({"JavaDoc", "WeakerAccess"})
@@ -576,6 +614,22 @@ public class BaseResponseLoaderWrapper<C, R, E, D> extends BaseLoaderWrapper<Bas
             return this;
         }
 
+        /**
+         * Marks the columns as searchable: the full-text index will be maintained for them in the cache
+         * (please refer to {@link akha.yakhont.BaseCacheProvider.FullTextSearch} for more info).
+         *
+         * @param columns
+         *        The searchable columns
+         *
+         * @return  This {@code BaseResponseLoaderBuilder} object to allow for chaining of calls to set methods
+         */
+        @NonNull
+        @SuppressWarnings({"unused", "UnusedReturnValue"})
+        public BaseResponseLoaderBuilder<C, R, E, D> setSearchableColumns(@NonNull @Size(min = 1) final String... columns) {
+            mSearchableColumns  = columns;
+            return this;
+        }
+
         /**
          * Sets the data type.
          *
@@ -667,6 +721,9 @@ public class BaseResponseLoaderWrapper<C, R, E, D> extends BaseLoaderWrapper<Bas
             if (mLoaderCallbacks != null) loaderWrapper.setLoaderCallbacks(mLoaderCallbacks);
             if (mLoaderFactory   != null) loaderWrapper.setLoaderFactory  (mLoaderFactory  );
 
+            if (mSearchableColumns != null)
+                FullTextSearch.register(loaderWrapper.getTableName(), mSearchableColumns);
+
             return loaderWrapper;
         }
 
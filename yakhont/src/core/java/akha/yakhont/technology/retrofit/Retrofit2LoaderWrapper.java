@@ -16,10 +16,12 @@
 
 package akha.yakhont.technology.retrofit;
 
+import akha.yakhont.BaseCacheProvider.HttpValidators;
 import akha.yakhont.Core;
 import akha.yakhont.Core.Requester;
 import akha.yakhont.Core.UriResolver;
 import akha.yakhont.Core.Utils.TypeHelper;
+import akha.yakhont.Core.Utils.TypeHelper.MethodIndex;
 import akha.yakhont.CoreLogger;
 import akha.yakhont.CoreReflection;
 import akha.yakhont.loader.BaseLoader;
@@ -27,6 +29,7 @@ import akha.yakhont.loader.BaseLoader.CoreLoadExtendedBuilder;
 import akha.yakhont.loader.BaseResponse;
 import akha.yakhont.loader.BaseResponse.Converter;
 import akha.yakhont.loader.BaseResponse.Source;
+import akha.yakhont.loader.LoaderMetrics;
 import akha.yakhont.loader.wrapper.BaseResponseLoaderWrapper;
 import akha.yakhont.loader.wrapper.BaseResponseLoaderWrapper.BaseResponseLoaderExtendedWrapper;
 import akha.yakhont.technology.retrofit.Retrofit2;
@@ -159,11 +162,28 @@ public class Retrofit2LoaderWrapper<D> extends BaseResponseLoaderExtendedWrapper
     private void onSuccess(final Call<D> call, final Response<D> response,
                            final BaseLoader<Callback<D>, Response<D>, Throwable, D> loader) {
         if (response.isSuccessful()) {
+            // the URL after redirects - the interceptor keeps the validators under the same one
+            HttpValidators.bind(response.raw().request().url().toString(), getTableName());
+
+            final LoaderMetrics metrics = loader.getMetrics();
+            if (metrics != null) {
+                // the raw body is already consumed but still knows its length (-1 if unknown, e.g. chunked)
+                final ResponseBody body = response.raw().body();
+                metrics.setPayloadBytes(body == null ? LoaderMetrics.UNKNOWN: body.contentLength());
+            }
+
             loader.callbackHelper(true, new BaseResponse<Response<D>, Throwable, D>(
                     response.body(), response, null, null, Source.NETWORK, null));
             return;
         }
 
+        if (response.code() == HttpValidators.HTTP_NOT_MODIFIED) {
+            // the cached data is still valid: no conversion and no DB writing
+            loader.callbackHelper(true, new BaseResponse<Response<D>, Throwable, D>(
+                    null, response, null, null, Source.CACHE, null));
+            return;
+        }
+
         final ResponseBody errorBody = response.errorBody();
         CoreLogger.logError("error " + errorBody);
         
@@ -285,7 +305,7 @@ public class Retrofit2LoaderWrapper<D> extends BaseResponseLoaderExtendedWrapper
         /** @exclude */ @SuppressWarnings("JavaDoc")
         @Override
         protected Type getTypeHelper() {
-            return getType(findMethod());
+            return getMethodIndex(mRetrofit.getService()).getType(mType);
         }
 
         /** @exclude */ @SuppressWarnings("JavaDoc")
@@ -306,10 +326,16 @@ public class Retrofit2LoaderWrapper<D> extends BaseResponseLoaderExtendedWrapper
 
         private static <T> Method findMethod(@NonNull final Class<T> service,
                                              @NonNull final Type     typeResponse) {
-            for (final Method method: service.getMethods())
-                if (TypeHelper.checkType(typeResponse, getType(method)))
-                    return method;
-            return null;
+            return getMethodIndex(service).findMethod(typeResponse);
+        }
+
+        private static MethodIndex getMethodIndex(@NonNull final Class<?> service) {
+            return MethodIndex.get(service, new MethodIndex.TypeResolver() {
+                @Override
+                public Type getType(@NonNull final Method method) {
+                    return Retrofit2LoaderBuilder.getType(method);
+                }
+            });
         }
 
         /** @exclude */ @SuppressWarnings("JavaDoc")
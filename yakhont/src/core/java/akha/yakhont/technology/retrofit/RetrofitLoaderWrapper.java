@@ -16,15 +16,18 @@
 
 package akha.yakhont.technology.retrofit;
 
+import akha.yakhont.BaseCacheProvider.HttpValidators;
 import akha.yakhont.Core;
 import akha.yakhont.Core.Requester;
 import akha.yakhont.Core.UriResolver;
+import akha.yakhont.CoreLogger;
 import akha.yakhont.CoreReflection;
 import akha.yakhont.loader.BaseLoader;
 import akha.yakhont.loader.BaseLoader.CoreLoadExtendedBuilder;
 import akha.yakhont.loader.BaseResponse;
 import akha.yakhont.loader.BaseResponse.Converter;
 import akha.yakhont.loader.BaseResponse.Source;
+import akha.yakhont.loader.LoaderMetrics;
 import akha.yakhont.loader.wrapper.BaseResponseLoaderWrapper;
 import akha.yakhont.loader.wrapper.BaseResponseLoaderWrapper.BaseResponseLoaderExtendedWrapper;
 import akha.yakhont.technology.retrofit.Retrofit;
@@ -43,10 +46,12 @@ import android.view.View;
 import com.google.gson.reflect.TypeToken;
 
 import java.lang.reflect.Type;
+import java.util.List;
 
 import retrofit.Callback;
 import retrofit.RetrofitError;
 import retrofit.YakhontRestAdapter.YakhontCallback;
+import retrofit.client.Header;
 import retrofit.client.Response;
 
 /**
@@ -60,6 +65,8 @@ import retrofit.client.Response;
 @TargetApi(Build.VERSION_CODES.HONEYCOMB)                       //YakhontPreprocessor:removeInFlavor
 public class RetrofitLoaderWrapper<D> extends BaseResponseLoaderExtendedWrapper<Callback<D>, Response, Exception, D> {
 
+    private static final String                 HEADER_CONTENT_LENGTH           = "Content-Length";
+
     /**
      * Initialises a newly created {@code RetrofitLoaderWrapper} object.
      *
@@ -163,11 +170,40 @@ public class RetrofitLoaderWrapper<D> extends BaseResponseLoaderExtendedWrapper<
     }
 
     private void onSuccess(final D result, final Response response, final BaseLoader<Callback<D>, Response, Exception, D> loader) {
+        // the URL after redirects - the interceptor keeps the validators under the same one
+        if (response != null) HttpValidators.bind(response.getUrl(), getTableName());
+
+        final LoaderMetrics metrics = loader.getMetrics();
+        if (metrics != null && response != null) metrics.setPayloadBytes(getContentLength(response));
+
         loader.callbackHelper(true, new BaseResponse<Response, Exception, D>(
                 result, response, null, null, Source.NETWORK, null));
     }
 
+    private static long getContentLength(@NonNull final Response response) {
+        // the body is already converted, so the header is the only source here
+        final List<Header> headers = response.getHeaders();
+        if (headers != null)
+            for (final Header header: headers)
+                if (header != null && HEADER_CONTENT_LENGTH.equalsIgnoreCase(header.getName()))
+                    try {
+                        return Long.parseLong(header.getValue());
+                    }
+                    catch (NumberFormatException e) {
+                        CoreLogger.log("wrong " + HEADER_CONTENT_LENGTH, e);
+                    }
+        return LoaderMetrics.UNKNOWN;
+    }
+
     private void onError(final RetrofitError error, final BaseLoader<Callback<D>, Response, Exception, D> loader) {
+        final Response response = error == null ? null: error.getResponse();
+        if (response != null && response.getStatus() == HttpValidators.HTTP_NOT_MODIFIED) {
+            // the cached data is still valid: no conversion and no DB writing
+            loader.callbackHelper(true, new BaseResponse<Response, Exception, D>(
+                    null, response, null, null, Source.CACHE, null));
+            return;
+        }
+
         loader.callbackHelper(false, new BaseResponse<Response, Exception, D>(
                 null, null, null, new RetrofitException(error), Source.NETWORK, error));
     }
@@ -21,7 +21,9 @@ import akha.yakhont.CoreLogger.Level;
 import akha.yakhont.loader.BaseResponse;
 
 import android.annotation.SuppressLint;
+import android.annotation.TargetApi;
 import android.content.ContentProvider;
+import android.content.ContentResolver;
 import android.content.ContentUris;
 import android.content.ContentValues;
 import android.content.Context;
@@ -31,6 +33,7 @@ import android.database.sqlite.SQLiteDatabase;
 import android.database.sqlite.SQLiteOpenHelper;
 import android.net.Uri;
 import android.os.Build;
+import android.os.CancellationSignal;
 import android.provider.BaseColumns;
 import android.support.annotation.NonNull;
 import android.support.annotation.Size;
@@ -44,6 +47,10 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.nio.channels.FileChannel;
 import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
@@ -96,6 +103,21 @@ public class BaseCacheProvider extends ContentProvider {
                                                             " INTEGER PRIMARY KEY AUTOINCREMENT";
     private static final String         ALTER_TABLE       = "ALTER TABLE %s ADD COLUMN %s %s;";
 
+    // FTS3 is available on all supported API levels (FTS4 needs API 11)
+    private static final String         CREATE_FTS        = "CREATE VIRTUAL TABLE IF NOT EXISTS %s USING fts3(%s);";
+    private static final String         DROP_FTS          = "DROP TABLE IF EXISTS %s;";
+    private static final String         SYNC_FTS          = "INSERT INTO %1$s (docid, %2$s) SELECT " + BaseColumns._ID +
+                                                            "%3$s FROM %4$s WHERE " + BaseColumns._ID +
+                                                            " NOT IN (SELECT docid FROM %1$s);";
+    private static final String         SYNC_FTS_ROW      = "INSERT INTO %1$s (docid, %2$s) SELECT " + BaseColumns._ID +
+                                                            "%3$s FROM %4$s WHERE " + BaseColumns._ID + " = %5$d;";
+    private static final String         DELETE_FTS        = "DELETE FROM %s WHERE docid IN (SELECT " + BaseColumns._ID +
+                                                            " FROM %s WHERE %s);";
+    // no custom ranking functions available, so rows with more matches go first
+    private static final String         SEARCH_FTS        = "SELECT %3$s FROM %1$s JOIN %2$s ON %1$s." + BaseColumns._ID +
+                                                            " = %2$s.docid WHERE %2$s MATCH ?%4$s ORDER BY %5$s;";
+    private static final String         SEARCH_RANK       = "length(offsets(%2$s)) DESC, %1$s." + BaseColumns._ID;
+
     private final Matcher               mUriMatcher       = new Matcher();
 
     /** @exclude */
@@ -167,6 +189,9 @@ public class BaseCacheProvider extends ContentProvider {
         }
         if (id == -1) CoreLogger.logError("table " + tableName + ": insert error");
 
+        // for bulk inserts the index is synchronized once, in the same transaction
+        if (id != -1 && !silent && FullTextSearch.getColumns(tableName) != null) syncSearchIndex(db, tableName, id);
+
         return id == -1 ? null: ContentUris.withAppendedId(uri, id);
     }
 
@@ -269,11 +294,13 @@ public class BaseCacheProvider extends ContentProvider {
 
         switch (mUriMatcher.match(uri)) {
             case ALL:
-                runTransaction(mDbHelper.getWritableDatabase(), new Runnable() {
+                final SQLiteDatabase db = mDbHelper.getWritableDatabase();
+                runTransaction(db, new Runnable() {
                     @Override
                     public void run() {
                         for (final ContentValues values: bulkValues)
                             insert(uri, values, true, bulkValues);
+                        syncSearchIndex(db, tableName);
                         CoreLogger.log("bulkInsert completed");
                     }
                 });
@@ -291,18 +318,42 @@ public class BaseCacheProvider extends ContentProvider {
      */
     @Override
     public Cursor query(@NonNull Uri uri, String[] projection, String selection, String[] selectionArgs, String sortOrder) {
+        return query(uri, projection, selection, selectionArgs, sortOrder, (Object) null);
+    }
+
+    /**
+     * Please refer to the base method description.
+     */
+    @TargetApi(Build.VERSION_CODES.JELLY_BEAN)
+    @Override
+    public Cursor query(@NonNull Uri uri, String[] projection, String selection, String[] selectionArgs, String sortOrder,
+                        CancellationSignal cancellationSignal) {
+        return query(uri, projection, selection, selectionArgs, sortOrder, (Object) cancellationSignal);
+    }
+
+    // the cancellation signal is an Object 'cause the CancellationSignal class is not available before API 16
+    private Cursor query(@NonNull Uri uri, String[] projection, String selection, String[] selectionArgs, String sortOrder,
+                         final Object cancellationSignal) {
         final String tableName = Utils.getLoaderTableName(uri);
 
         switch (mUriMatcher.match(uri)) {       // fall through
+            case SEARCH:
+                return search(uri, tableName, projection, selection, selectionArgs, sortOrder, cancellationSignal);
+
             case ID:
                 selection       = SELECTION_ID;
                 selectionArgs   = getSelectionIdArgs(uri);
 
             case ALL:
                 try {
-                    return mDbHelper.getReadableDatabase().query(tableName, projection, selection, selectionArgs, null, null, sortOrder);
+                    final SQLiteDatabase db = mDbHelper.getReadableDatabase();
+                    return cancellationSignal == null ?
+                            db.query(tableName, projection, selection, selectionArgs, null, null, sortOrder):
+                            query(db, tableName, projection, selection, selectionArgs, sortOrder, cancellationSignal);
                 }
                 catch (Exception e) {
+                    if (isCanceled(cancellationSignal)) throw e;
+
                     CoreLogger.log(Level.WARNING, String.format("table %s, selection %s, selection args %s",
                             tableName, selection, Arrays.deepToString(selectionArgs)), e);
                     return BaseResponse.EMPTY_CURSOR;
@@ -314,6 +365,25 @@ public class BaseCacheProvider extends ContentProvider {
         }
     }
 
+    @TargetApi(Build.VERSION_CODES.JELLY_BEAN)
+    private static Cursor query(@NonNull final SQLiteDatabase db, @NonNull final String tableName,
+                                final String[] projection, final String selection, final String[] selectionArgs,
+                                final String sortOrder, @NonNull final Object cancellationSignal) {
+        return db.query(false, tableName, projection, selection, selectionArgs, null, null, sortOrder, null,
+                (CancellationSignal) cancellationSignal);
+    }
+
+    @TargetApi(Build.VERSION_CODES.JELLY_BEAN)
+    private static Cursor rawQuery(@NonNull final SQLiteDatabase db, @NonNull final String sql,
+                                   final String[] args, @NonNull final Object cancellationSignal) {
+        return db.rawQuery(sql, args, (CancellationSignal) cancellationSignal);
+    }
+
+    @TargetApi(Build.VERSION_CODES.JELLY_BEAN)
+    private static boolean isCanceled(final Object cancellationSignal) {
+        return cancellationSignal != null && ((CancellationSignal) cancellationSignal).isCanceled();
+    }
+
     /**
      * Please refer to the base method description.
      */
@@ -329,9 +399,13 @@ public class BaseCacheProvider extends ContentProvider {
                 selectionArgs   = getSelectionIdArgs(uri);
 
             case ALL:
+                // the cached data is gone, so the HTTP validators for it are not valid anymore
+                if (selection == null && !HttpValidators.TABLE.equals(tableName))
+                    HttpValidators.onTableCleared(mDbHelper.getWritableDatabase(), tableName);
+
                 // from docs: To remove all rows and get a count pass "1" as the whereClause.
                 if (selection == null) selection = "1";
-                final int rows = mDbHelper.getWritableDatabase().delete(tableName, selection, selectionArgs);
+                final int rows = delete(mDbHelper.getWritableDatabase(), tableName, selection, selectionArgs);
 
                 CoreLogger.log(String.format(getLocale(), "table %s, %d rows", tableName, rows));
                 return rows;
@@ -342,6 +416,22 @@ public class BaseCacheProvider extends ContentProvider {
         }
     }
 
+    private int delete(@NonNull final SQLiteDatabase db, @NonNull final String tableName,
+                       @NonNull final String selection, final String[] selectionArgs) {
+        if (FullTextSearch.getColumns(tableName) == null)
+            return db.delete(tableName, selection, selectionArgs);
+
+        final int[] rows = new int[1];
+        runTransaction(db, new Runnable() {
+            @Override
+            public void run() {
+                deleteFromSearchIndex(db, tableName, selection, selectionArgs);
+                rows[0] = db.delete(tableName, selection, selectionArgs);
+            }
+        });
+        return rows[0];
+    }
+
     /**
      * Please refer to the base method description.
      */
@@ -357,7 +447,7 @@ public class BaseCacheProvider extends ContentProvider {
                 selectionArgs   = getSelectionIdArgs(uri);
 
             case ALL:
-                final int rows = mDbHelper.getWritableDatabase().update(tableName, values, selection, selectionArgs);
+                final int rows = update(mDbHelper.getWritableDatabase(), tableName, values, selection, selectionArgs);
 
                 CoreLogger.log(String.format(getLocale(), "table %s, %d rows", tableName, rows));
                 return rows;
@@ -368,6 +458,23 @@ public class BaseCacheProvider extends ContentProvider {
         }
     }
 
+    private int update(@NonNull final SQLiteDatabase db, @NonNull final String tableName,
+                       final ContentValues values, final String selection, final String[] selectionArgs) {
+        if (FullTextSearch.getColumns(tableName) == null)
+            return db.update(tableName, values, selection, selectionArgs);
+
+        final int[] rows = new int[1];
+        runTransaction(db, new Runnable() {
+            @Override
+            public void run() {
+                deleteFromSearchIndex(db, tableName, selection == null ? "1": selection, selectionArgs);
+                rows[0] = db.update(tableName, values, selection, selectionArgs);
+                syncSearchIndex(db, tableName);
+            }
+        });
+        return rows[0];
+    }
+
     /**
      * Please refer to the base method description.
      */
@@ -376,7 +483,8 @@ public class BaseCacheProvider extends ContentProvider {
         final String table = String.format(MIME_SUBTYPE, uri.getAuthority(), Utils.getLoaderTableName(uri));
 
         switch (mUriMatcher.match(uri)) {
-            case ALL:
+            case ALL:       // fall through
+            case SEARCH:
                 return MIME_DIR + table;
             case ID:
                 return MIME_ITEM + table;
@@ -407,15 +515,50 @@ public class BaseCacheProvider extends ContentProvider {
      * @return  {@code true} if the column exists, {@code false} otherwise
      */
     protected boolean isExist(@NonNull final String tableName, @NonNull final String columnName) {
+        Cursor cursor = null;
         try {
             // writable to trigger onCreate
-            mDbHelper.getWritableDatabase().query(tableName, new String[] {columnName}, null, null, null, null, null, "1");
+            cursor = mDbHelper.getWritableDatabase().query(tableName, new String[] {columnName}, null, null, null, null, null, "1");
             return true;
         }
         catch (SQLException e) {
             CoreLogger.log(Level.DEBUG, tableName, e);
             return false;
         }
+        finally {
+            if (cursor != null) cursor.close();
+        }
+    }
+
+    /**
+     * Returns the names of the table's columns.
+     *
+     * @param db
+     *        The database
+     *
+     * @param tableName
+     *        The table name
+     *
+     * @return  The column names (lower case) or null if the table doesn't exist
+     */
+    protected Set<String> getTableColumns(@NonNull final SQLiteDatabase db, @NonNull final String tableName) {
+        Cursor cursor = null;
+        try {
+            // no rows, just the columns
+            cursor = db.query(tableName, null, null, null, null, null, null, "0");
+
+            final Set<String> columns = new HashSet<>();
+            for (final String column: cursor.getColumnNames())
+                columns.add(column.toLowerCase(Locale.US));
+            return columns;
+        }
+        catch (SQLException e) {
+            CoreLogger.log(Level.DEBUG, tableName, e);
+            return null;
+        }
+        finally {
+            if (cursor != null) cursor.close();
+        }
     }
 
     /**
@@ -442,6 +585,272 @@ public class BaseCacheProvider extends ContentProvider {
         execSQL(db, String.format(CREATE_INDEX, tableName, tableName));
     }
 
+    private void syncSearchIndex(@NonNull final SQLiteDatabase db, @NonNull final String tableName) {
+        syncSearchIndex(db, tableName, -1);
+    }
+
+    // id == -1 means all the rows which are not in the index yet
+    private void syncSearchIndex(@NonNull final SQLiteDatabase db, @NonNull final String tableName, final long id) {
+        final String[] columns = FullTextSearch.getColumns(tableName);
+        if (columns == null) return;
+
+        final Set<String> tableColumns = getTableColumns(db, tableName);
+        if (tableColumns == null) return;
+
+        final String ftsTableName = FullTextSearch.getTableName(tableName);
+        final String ftsColumns   = TextUtils.join(", ", columns);
+
+        final StringBuilder select = new StringBuilder();
+        for (final String column: columns)
+            select.append(", ").append(tableColumns.contains(column.toLowerCase(Locale.US)) ? column: "NULL");
+
+        final String sync = id == -1 ? String.format(SYNC_FTS, ftsTableName, ftsColumns, select, tableName):
+                String.format(Locale.US, SYNC_FTS_ROW, ftsTableName, ftsColumns, select, tableName, id);
+        try {
+            execSQL(db, String.format(CREATE_FTS, ftsTableName, ftsColumns));
+            execSQL(db, sync);
+        }
+        catch (SQLException e) {        // e.g. the searchable columns were changed
+            CoreLogger.log(Level.WARNING, "about to recreate the search index " + ftsTableName, e);
+
+            execSQL(db, String.format(DROP_FTS,   ftsTableName));
+            execSQL(db, String.format(CREATE_FTS, ftsTableName, ftsColumns));
+            execSQL(db, sync);
+        }
+    }
+
+    private void deleteFromSearchIndex(@NonNull final SQLiteDatabase db, @NonNull final String tableName,
+                                       @NonNull final String selection, final String[] selectionArgs) {
+        final String ftsTableName = FullTextSearch.getTableName(tableName);
+        if (!isTableExist(tableName) || !isExist(ftsTableName, "docid")) return;
+
+        final String sql = String.format(DELETE_FTS, ftsTableName, tableName, selection);
+        CoreLogger.log(sql);
+
+        if (selectionArgs == null)
+            db.execSQL(sql);
+        else
+            db.execSQL(sql, selectionArgs);
+    }
+
+    private Cursor search(@NonNull final Uri uri, @NonNull final String tableName, final String[] projection,
+                          final String selection, final String[] selectionArgs, final String sortOrder,
+                          final Object cancellationSignal) {
+        final String query = uri.getQueryParameter(FullTextSearch.PARAMETER_QUERY);
+        if (FullTextSearch.getColumns(tableName) == null || TextUtils.isEmpty(query)) {
+            CoreLogger.logError("search is not available, uri " + uri);
+            return BaseResponse.EMPTY_CURSOR;
+        }
+
+        final SQLiteDatabase db = mDbHelper.getWritableDatabase();
+        // e.g. the data were cached before the search was enabled
+        if (FullTextSearch.onSearch(tableName))
+            runTransaction(db, new Runnable() {
+                @Override
+                public void run() {
+                    syncSearchIndex(db, tableName);
+                }
+            });
+
+        final String ftsTableName = FullTextSearch.getTableName(tableName);
+        final Set<String> tableColumns = getTableColumns(db, tableName);
+
+        final StringBuilder columns = new StringBuilder();
+        if (projection == null || projection.length == 0)
+            columns.append(tableName).append(".*");
+        else
+            for (final String column: projection) {
+                if (columns.length() > 0) columns.append(", ");
+                if (column.indexOf('.') < 0 && column.indexOf('(') < 0) columns.append(tableName).append('.');
+                columns.append(column);
+            }
+
+        // the FTS table has the same columns, so the bare names are ambiguous in the join
+        final String sql = String.format(SEARCH_FTS, tableName, ftsTableName, columns,
+                TextUtils.isEmpty(selection) ? "": " AND (" + qualify(selection, tableName, tableColumns) + ")",
+                TextUtils.isEmpty(sortOrder) ? String.format(SEARCH_RANK, tableName, ftsTableName):
+                        qualify(sortOrder, tableName, tableColumns));
+
+        final String[] args = new String[1 + (selectionArgs == null ? 0: selectionArgs.length)];
+        args[0] = query;
+        if (selectionArgs != null) System.arraycopy(selectionArgs, 0, args, 1, selectionArgs.length);
+
+        try {
+            CoreLogger.log(sql);
+            return cancellationSignal == null ? db.rawQuery(sql, args): rawQuery(db, sql, args, cancellationSignal);
+        }
+        catch (Exception e) {
+            if (isCanceled(cancellationSignal)) throw e;
+
+            CoreLogger.log(Level.WARNING, String.format("table %s, search %s", tableName, query), e);
+            return BaseResponse.EMPTY_CURSOR;
+        }
+    }
+
+    // prefixes the bare (i.e. not quoted and not qualified) names of the table's columns with the table name
+    private static String qualify(@NonNull final String sql, @NonNull final String tableName,
+                                  final Set<String> tableColumns) {
+        if (tableColumns == null || tableColumns.isEmpty()) return sql;
+
+        final StringBuilder builder = new StringBuilder(sql.length() + 32);
+        for (int i = 0; i < sql.length();) {
+            final char c = sql.charAt(i);
+
+            if (c == '\'' || c == '"' || c == '`' || c == '[') {       // literal or quoted identifier
+                final char end = c == '[' ? ']': c;
+                int next = sql.indexOf(end, i + 1);
+                next = next < 0 ? sql.length(): next + 1;
+
+                builder.append(sql, i, next);
+                i = next;
+                continue;
+            }
+            if (!Character.isLetter(c) && c != '_') {
+                builder.append(c);
+                i++;
+                continue;
+            }
+
+            int next = i + 1;
+            while (next < sql.length() && (Character.isLetterOrDigit(sql.charAt(next)) || sql.charAt(next) == '_'))
+                next++;
+
+            final String name = sql.substring(i, next);
+            if (tableColumns.contains(name.toLowerCase(Locale.US)) && !isQualified(sql, i, next))
+                builder.append(tableName).append('.');
+
+            builder.append(name);
+            i = next;
+        }
+        return builder.toString();
+    }
+
+    private static boolean isQualified(@NonNull final String sql, final int start, final int end) {
+        int prev = start - 1;
+        while (prev >= 0 && Character.isWhitespace(sql.charAt(prev))) prev--;
+        if (prev >= 0 && sql.charAt(prev) == '.') return true;
+
+        int next = end;
+        while (next < sql.length() && Character.isWhitespace(sql.charAt(next))) next++;
+        // the table name or the function call
+        return next < sql.length() && (sql.charAt(next) == '.' || sql.charAt(next) == '(');
+    }
+
+    /**
+     * The full-text search support for the cache tables. For the tables with registered searchable columns
+     * the companion FTS table is maintained (in the same transactions as the cache table itself);
+     * the search URI (see {@link #getSearchUri}) returns the matching rows of the cache table,
+     * rows with more matches go first. For example:
+     *
+     * <p><pre style="background-color: silver; border: thin solid black;">
+     * import akha.yakhont.BaseCacheProvider.FullTextSearch;
+     *
+     * // normally the columns are registered via the loader builder's setSearchableColumns()
+     * Cursor cursor = getContentResolver().query(FullTextSearch.getSearchUri(
+     *     loaderWrapper.getUri(), FullTextSearch.getPrefixQuery("belgian ale")), null, null, null, null);
+     * </pre>
+     */
+    @SuppressWarnings("WeakerAccess")
+    public static class FullTextSearch {
+
+        /** The last path segment of the search URI (the value is {@value}). */
+        public  static final String                     PATH_SEARCH                 = "search";
+        /** The search URI parameter with the FTS query (the value is {@value}). */
+        public  static final String                     PARAMETER_QUERY             = "q";
+
+        private static final String                     TABLE_SUFFIX                = "_fts";
+
+        private static final Map<String, String[]>      sColumns                    = Utils.newMap();
+        private static final Set<String>                sSearched                   = Utils.newSet();
+
+        private FullTextSearch() {
+        }
+
+        /**
+         * Registers the searchable columns for the given cache table.
+         *
+         * @param tableName
+         *        The cache table name
+         *
+         * @param columns
+         *        The searchable columns (or null / empty to unregister)
+         */
+        public static void register(@NonNull final String tableName, final String... columns) {
+            if (columns == null || columns.length == 0) {
+                sColumns .remove(tableName);
+                sSearched.remove(tableName);
+                return;
+            }
+            CoreLogger.log(String.format("table %s, searchable columns %s", tableName, Arrays.toString(columns)));
+            sColumns.put(tableName, Arrays.copyOf(columns, columns.length));
+        }
+
+        /**
+         * Returns the searchable columns for the given cache table.
+         *
+         * @param tableName
+         *        The cache table name
+         *
+         * @return  The searchable columns (or null)
+         */
+        public static String[] getColumns(@NonNull final String tableName) {
+            return sColumns.get(tableName);
+        }
+
+        /**
+         * Returns the name of the FTS table for the given cache table.
+         *
+         * @param tableName
+         *        The cache table name
+         *
+         * @return  The FTS table name
+         */
+        public static String getTableName(@NonNull final String tableName) {
+            return tableName + TABLE_SUFFIX;
+        }
+
+        /**
+         * Returns the search URI.
+         *
+         * @param uri
+         *        The URI of the cache table
+         *
+         * @param query
+         *        The FTS query (e.g. {@link #getPrefixQuery})
+         *
+         * @return  The search URI
+         */
+        public static Uri getSearchUri(@NonNull final Uri uri, @NonNull final String query) {
+            return uri.buildUpon().appendPath(PATH_SEARCH).appendQueryParameter(PARAMETER_QUERY, query).build();
+        }
+
+        /**
+         * Converts the user input to the FTS query which matches all the words as prefixes.
+         *
+         * @param text
+         *        The user input
+         *
+         * @return  The FTS query (or empty string if there are no words to search)
+         */
+        @NonNull
+        public static String getPrefixQuery(final String text) {
+            if (text == null) return "";
+
+            final StringBuilder builder = new StringBuilder();
+            for (final String word: text.split("[^\\p{L}\\p{N}]+")) {
+                if (word.length() == 0) continue;
+                if (builder.length() > 0) builder.append(' ');
+                builder.append(word).append('*');
+            }
+            return builder.toString();
+        }
+
+        // returns true for the first search in the table
+        private static boolean onSearch(@NonNull final String tableName) {
+            return sSearched.add(tableName);
+        }
+    }
+
     /**
      * Simple class to generate typical CREATE TABLE script.
      * The {@link BaseColumns#_ID _ID} column is added by default.
@@ -665,13 +1074,295 @@ public class BaseCacheProvider extends ContentProvider {
         }
     }
 
+    /**
+     * Keeps the HTTP validators ({@code ETag} and {@code Last-Modified}) of the cached network responses,
+     * so the next requests could be made conditional ({@code If-None-Match} and {@code If-Modified-Since}).
+     * The validators are stored in the metadata table of this provider (per request URL and cache table)
+     * and become active only after the data they describe were successfully written to the cache table;
+     * clearing the cache table removes them as well. Normally used by the Retrofit components only.
+     */
+    @SuppressWarnings("WeakerAccess")
+    public static class HttpValidators {
+
+        /** The name of the metadata table (the value is {@value}). */
+        public  static final String                     TABLE                       = "yakhont_http_validators";
+
+        /** The HTTP "Not Modified" status code (the value is {@value}). */
+        public  static final int                        HTTP_NOT_MODIFIED           = 304;
+
+        /** The {@code ETag} HTTP header (the value is {@value}). */
+        public  static final String                     HEADER_ETAG                 = "ETag";
+        /** The {@code Last-Modified} HTTP header (the value is {@value}). */
+        public  static final String                     HEADER_LAST_MODIFIED        = "Last-Modified";
+        /** The {@code If-None-Match} HTTP header (the value is {@value}). */
+        public  static final String                     HEADER_IF_NONE_MATCH        = "If-None-Match";
+        /** The {@code If-Modified-Since} HTTP header (the value is {@value}). */
+        public  static final String                     HEADER_IF_MODIFIED_SINCE    = "If-Modified-Since";
+
+        private static final String                     COLUMN_URL                  = "url";
+        private static final String                     COLUMN_TABLE                = "table_name";
+        private static final String                     COLUMN_ETAG                 = "etag";
+        private static final String                     COLUMN_LAST_MODIFIED        = "last_modified";
+
+        private static final String                     SELECTION_URL               = COLUMN_URL   + "=?";
+        private static final String                     SELECTION_TABLE             = COLUMN_TABLE + "=?";
+
+        // the responses which were never cached (e.g. the loader was destroyed before caching) are evicted
+        private static final int                        MAX_PENDING                 = 64;
+
+        private static final Map<String, String[]>      sActive                     = new HashMap<>();
+        private static final Map<String, String[]>      sPending                    = new LinkedHashMap<String, String[]>(
+                16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<String, String[]> eldest) {
+                return size() > MAX_PENDING;
+            }
+        };
+        private static final Object                     sLock                       = new Object();
+
+        private static final ThreadLocal<Boolean>       sLoaderRequest              = new ThreadLocal<>();
+
+        private static       boolean                    sLoaded;
+        private static       boolean                    sEnabled                    = true;
+
+        // indexes in the arrays above
+        private static final int                        IDX_ETAG                    = 0;
+        private static final int                        IDX_LAST_MODIFIED           = 1;
+        private static final int                        IDX_TABLE                   = 2;
+        private static final int                        IDX_REQUEST_URL             = 3;
+
+        private HttpValidators() {
+        }
+
+        /**
+         * Enables or disables the HTTP conditional requests. The default value is {@code true}.
+         *
+         * @param enabled
+         *        {@code true} to enable the HTTP conditional requests, {@code false} otherwise
+         */
+        @SuppressWarnings("unused")
+        public static void setEnabled(final boolean enabled) {
+            sEnabled = enabled;
+        }
+
+        /**
+         * Checks whether the HTTP conditional requests are enabled or not.
+         *
+         * @return  {@code true} if the HTTP conditional requests are enabled, {@code false} otherwise
+         */
+        public static boolean isEnabled() {
+            return sEnabled;
+        }
+
+        /**
+         * Marks the requests submitted from the current thread as the loader ones (or clears the mark).
+         * Only such requests are made conditional: the loaders load the data from cache
+         * for the bodyless {@code 304 Not Modified} responses, but the other callers don't expect them.
+         *
+         * @param loaderRequest
+         *        {@code true} to mark the requests, {@code false} to clear the mark
+         */
+        public static void setLoaderRequest(final boolean loaderRequest) {
+            if (loaderRequest)
+                sLoaderRequest.set(Boolean.TRUE);
+            else
+                sLoaderRequest.remove();
+        }
+
+        /**
+         * Checks whether the requests submitted from the current thread are the loader ones.
+         *
+         * @return  {@code true} if the requests are submitted by the loader, {@code false} otherwise
+         *
+         * @see #setLoaderRequest
+         */
+        public static boolean isLoaderRequest() {
+            return sLoaderRequest.get() != null;
+        }
+
+        /**
+         * Returns the active validators for the given URL.
+         *
+         * @param url
+         *        The request URL
+         *
+         * @return  The array of {@code ETag} and {@code Last-Modified} values (any of them may be null), or null
+         */
+        public static String[] get(final String url) {
+            if (!sEnabled || url == null) return null;
+
+            synchronized (sLock) {
+                load();
+
+                final String[] validators = sActive.get(url);
+                return validators == null ? null: new String[] {validators[IDX_ETAG], validators[IDX_LAST_MODIFIED]};
+            }
+        }
+
+        /**
+         * Keeps the validators from the network response (they are not active until the response data is cached).
+         *
+         * @param requestUrl
+         *        The request URL (the validators will be sent with the requests to this URL)
+         *
+         * @param responseUrl
+         *        The response URL (differs from the request one after redirects), please refer to {@link #bind}
+         *
+         * @param eTag
+         *        The {@code ETag} header value (or null)
+         *
+         * @param lastModified
+         *        The {@code Last-Modified} header value (or null)
+         */
+        public static void onResponse(final String requestUrl, final String responseUrl,
+                                      final String eTag, final String lastModified) {
+            if (!sEnabled || requestUrl == null || responseUrl == null) return;
+
+            synchronized (sLock) {
+                if (eTag == null && lastModified == null)
+                    sPending.remove(responseUrl);
+                else
+                    sPending.put(responseUrl, new String[] {eTag, lastModified, null, requestUrl});
+            }
+        }
+
+        /**
+         * Binds the validators received for the given URL to the cache table.
+         *
+         * @param url
+         *        The response URL (i.e. the URL after redirects, if any)
+         *
+         * @param tableName
+         *        The cache table name
+         */
+        public static void bind(final String url, final String tableName) {
+            if (!sEnabled || url == null || tableName == null) return;
+
+            synchronized (sLock) {
+                final String[] validators = sPending.get(url);
+                if (validators != null) validators[IDX_TABLE] = tableName;
+            }
+        }
+
+        /**
+         * Activates (and persists) the validators bound to the given cache table.
+         * Should be called after the response data were successfully written to the cache.
+         *
+         * @param context
+         *        The context
+         *
+         * @param tableName
+         *        The cache table name
+         */
+        public static void commit(@NonNull final Context context, @NonNull final String tableName) {
+            if (!sEnabled) return;
+
+            final Map<String, String[]> validators = Utils.newMap();
+            synchronized (sLock) {
+                load();
+
+                final Iterator<Map.Entry<String, String[]>> iterator = sPending.entrySet().iterator();
+                while (iterator.hasNext()) {
+                    final String[] values = iterator.next().getValue();
+                    if (!tableName.equals(values[IDX_TABLE])) continue;
+
+                    iterator.remove();
+                    // activated under the request URL - the one the interceptors look them up by
+                    validators.put(values[IDX_REQUEST_URL], values);
+                }
+                sActive.putAll(validators);
+            }
+            if (validators.isEmpty()) return;
+
+            final ContentResolver contentResolver = context.getContentResolver();
+            final Uri uri = Utils.getUri(TABLE);
+            try {
+                for (final Map.Entry<String, String[]> entry: validators.entrySet()) {
+                    final String   url    = entry.getKey();
+                    final String[] values = entry.getValue();
+
+                    final ContentValues contentValues = new ContentValues();
+                    contentValues.put(COLUMN_URL,           url);
+                    contentValues.put(COLUMN_TABLE,         tableName);
+                    contentValues.put(COLUMN_ETAG,          values[IDX_ETAG]);
+                    contentValues.put(COLUMN_LAST_MODIFIED, values[IDX_LAST_MODIFIED]);
+
+                    contentResolver.delete(uri, SELECTION_URL, new String[] {url});
+                    contentResolver.insert(uri, contentValues);
+                }
+                CoreLogger.log(String.format(getLocale(), "table %s, %d HTTP validator(s) stored",
+                        tableName, validators.size()));
+            }
+            catch (Exception e) {
+                CoreLogger.log("failed storing HTTP validators", e);
+            }
+        }
+
+        /**
+         * Discards the not yet activated validators bound to the given cache table (e.g. if caching failed).
+         *
+         * @param tableName
+         *        The cache table name
+         */
+        public static void discard(@NonNull final String tableName) {
+            synchronized (sLock) {
+                final Iterator<Map.Entry<String, String[]>> iterator = sPending.entrySet().iterator();
+                while (iterator.hasNext())
+                    if (tableName.equals(iterator.next().getValue()[IDX_TABLE])) iterator.remove();
+            }
+        }
+
+        private static void onTableCleared(@NonNull final SQLiteDatabase db, @NonNull final String tableName) {
+            synchronized (sLock) {
+                final Iterator<Map.Entry<String, String[]>> iterator = sActive.entrySet().iterator();
+                while (iterator.hasNext())
+                    if (tableName.equals(iterator.next().getValue()[IDX_TABLE])) iterator.remove();
+            }
+            try {
+                db.delete(TABLE, SELECTION_TABLE, new String[] {tableName});
+            }
+            catch (SQLException e) {        // no validators table yet
+                CoreLogger.log(Level.DEBUG, TABLE, e);
+            }
+        }
+
+        // should be called under lock
+        private static void load() {
+            if (sLoaded) return;
+
+            final Context context = Utils.getApplication();
+            if (context == null) return;
+            sLoaded = true;
+
+            Cursor cursor = null;
+            try {
+                cursor = context.getContentResolver().query(Utils.getUri(TABLE), new String[] {
+                        COLUMN_URL, COLUMN_TABLE, COLUMN_ETAG, COLUMN_LAST_MODIFIED}, null, null, null);
+                if (cursor == null || cursor.getColumnCount() < 4) return;
+
+                while (cursor.moveToNext())
+                    sActive.put(cursor.getString(0), new String[] {
+                            cursor.getString(2), cursor.getString(3), cursor.getString(1)});
+
+                CoreLogger.log(String.format(getLocale(), "%d HTTP validator(s) loaded", sActive.size()));
+            }
+            catch (Exception e) {
+                CoreLogger.log("failed loading HTTP validators", e);
+            }
+            finally {
+                if (cursor != null && cursor != BaseResponse.EMPTY_CURSOR) cursor.close();
+            }
+        }
+    }
+
     @SuppressWarnings("unused")
     private static class Matcher {
 
         private enum Match {
             NO,
             ALL,
-            ID
+            ID,
+            SEARCH
         }
 
         @NonNull
@@ -683,6 +1374,8 @@ public class BaseCacheProvider extends ContentProvider {
                 return Match.ALL;
             else if (pathSegmentsSize == 2 && TextUtils.isDigitsOnly(pathSegments.get(1)))
                 return Match.ID;
+            else if (pathSegmentsSize == 2 && FullTextSearch.PATH_SEARCH.equals(pathSegments.get(1)))
+                return Match.SEARCH;
             else
                 return Match.NO;
         }
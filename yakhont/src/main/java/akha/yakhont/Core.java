@@ -31,12 +31,14 @@ import android.annotation.SuppressLint;
 import android.annotation.TargetApi;
 import android.app.Activity;
 import android.app.Application;
+import android.content.BroadcastReceiver;
 import android.content.ComponentCallbacks;
 import android.content.ComponentCallbacks2;
 import android.content.Context;
 import android.content.ContextWrapper;
 import android.content.DialogInterface;
 import android.content.Intent;
+import android.content.IntentFilter;
 import android.content.SharedPreferences;
 import android.content.pm.PackageManager;
 import android.content.res.Configuration;
@@ -55,6 +57,7 @@ import android.support.annotation.IntRange;
 import android.support.annotation.NonNull;
 import android.support.annotation.StringRes;
 import android.support.design.widget.Snackbar;
+import android.support.v4.net.ConnectivityManagerCompat;
 import android.util.TypedValue;
 import android.view.View;
 import android.view.ViewGroup;
@@ -72,6 +75,7 @@ import java.lang.reflect.Method;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
 import java.text.DateFormat;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Date;
@@ -81,9 +85,8 @@ import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
-import java.util.Timer;
-import java.util.TimerTask;
 import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.zip.ZipEntry;
@@ -138,7 +141,9 @@ public class Core {
     /** @exclude */ @SuppressWarnings({"JavaDoc", "WeakerAccess"})
     @IntRange(from = 0) public  static final int        TIMEOUT_CONNECTION_TIMER    =  3;
 
-    @IntRange(from = 0) private static final int        TIMEOUT_NETWORK_MONITOR     =  3;   // seconds
+    /** The network type which means no network connection (the value is {@value}). */
+    @SuppressWarnings("WeakerAccess")
+    public static final int                             NETWORK_TYPE_NONE           = -1;
 
     // use my birthday as the offset... why not?
     private static final int                            REQUEST_CODES_OFFSET        = 19631201;
@@ -647,7 +652,6 @@ public class Core {
     @SuppressWarnings("unused")
     private static class Init extends BaseListeners {
 
-        private static final AtomicBoolean              sConnected                      = new AtomicBoolean(true);
         private static boolean                          sRunNetworkMonitor;
         private static String                           sBaseUri;
 
@@ -674,33 +678,111 @@ public class Core {
         private static void allRemaining(@NonNull final Application application) {
             sBaseUri = String.format(BASE_URI, application.getPackageName());
 
-            if (!sRunNetworkMonitor) return;
+            if (sRunNetworkMonitor) NetworkMonitor.start(application);
+        }
+    }
 
-            new Timer("timer for network monitoring").scheduleAtFixedRate(new TimerTask() {
-                @Override
-                public void run() {
-                    if (!isVisible() || !isInForeground()) return;
+    /**
+     * The network state tracker which is driven by the {@link ConnectivityManager#CONNECTIVITY_ACTION} broadcasts
+     * (so there are no periodic wakeups and the registered {@link NetworkStatusListener}s are notified immediately).
+     */
+    private static class NetworkMonitor extends BroadcastReceiver {
 
-                    boolean isConnected = false;
+        private static final AtomicBoolean              sConnected                      = new AtomicBoolean(true);
+        private static volatile int                     sNetworkType                    = NETWORK_TYPE_NONE;
+        private static volatile boolean                 sMetered;
 
-                    final ConnectivityManager connectivityManager =
-                            (ConnectivityManager) application.getSystemService(Context.CONNECTIVITY_SERVICE);
-                    final NetworkInfo activeInfo = connectivityManager.getActiveNetworkInfo();
+        private static NetworkMonitor                   sMonitor;
+        private static final Object                     sLock                           = new Object();
 
-                    if (activeInfo != null && activeInfo.isConnected()) isConnected = true;
+        private static void start(@NonNull final Context context) {
+            synchronized (sLock) {
+                if (sMonitor != null) return;
 
-                    if (sConnected.getAndSet(isConnected) != isConnected) {
-                        CoreLogger.log((isConnected ? Level.INFO: Level.WARNING),
-                                "network is " + (isConnected ? "": "NOT ") + "available");
-                        onNetworkStatusChanged(isConnected);
-                    }
+                final Context appContext = context.getApplicationContext();
+                update(appContext);
+
+                sMonitor = new NetworkMonitor();
+                appContext.registerReceiver(sMonitor, new IntentFilter(ConnectivityManager.CONNECTIVITY_ACTION));
+
+                CoreLogger.log("network monitor started");
+            }
+        }
+
+        private static void stop(@NonNull final Context context) {
+            synchronized (sLock) {
+                if (sMonitor == null) return;
+
+                try {
+                    context.getApplicationContext().unregisterReceiver(sMonitor);
                 }
-            }, 0, TIMEOUT_NETWORK_MONITOR * 1000);
+                catch (Exception e) {
+                    CoreLogger.log("failed unregistering network monitor", e);
+                }
+                sMonitor     = null;
+
+                sNetworkType = NETWORK_TYPE_NONE;
+                sMetered     = false;
+
+                CoreLogger.log("network monitor stopped");
+            }
+        }
+
+        private static boolean isRunning() {
+            synchronized (sLock) {
+                return sMonitor != null;
+            }
+        }
+
+        /**
+         * Please refer to the base method description.
+         */
+        @Override
+        public void onReceive(final Context context, final Intent intent) {
+            update(context);
+        }
+
+        private static NetworkInfo getActiveNetworkInfo(final ConnectivityManager connectivityManager) {
+            try {
+                return connectivityManager == null ? null: connectivityManager.getActiveNetworkInfo();
+            }
+            catch (Exception e) {
+                CoreLogger.log("getActiveNetworkInfo failed", e);
+                return null;
+            }
+        }
+
+        private static ConnectivityManager getConnectivityManager(final Context context) {
+            return context == null ? null: (ConnectivityManager) context.getSystemService(Context.CONNECTIVITY_SERVICE);
+        }
+
+        private static boolean query(final Context context) {
+            if (context == null) return sConnected.get();
+
+            final NetworkInfo activeInfo = getActiveNetworkInfo(getConnectivityManager(context));
+            return activeInfo != null && activeInfo.isConnected();
+        }
+
+        private static void update(@NonNull final Context context) {
+            final ConnectivityManager connectivityManager = getConnectivityManager(context);
+            final NetworkInfo activeInfo = getActiveNetworkInfo(connectivityManager);
+
+            final boolean isConnected = activeInfo != null && activeInfo.isConnected();
+
+            sNetworkType = isConnected ? activeInfo.getType(): NETWORK_TYPE_NONE;
+            sMetered     = isConnected && ConnectivityManagerCompat.isActiveNetworkMetered(connectivityManager);
+
+            if (sConnected.getAndSet(isConnected) != isConnected) {
+                CoreLogger.log((isConnected ? Level.INFO: Level.WARNING),
+                        "network is " + (isConnected ? "": "NOT ") + "available, type " +
+                                sNetworkType + ", metered " + sMetered);
+                onNetworkStatusChanged(isConnected);
+            }
         }
 
         private static void onNetworkStatusChanged(final boolean isConnected) {
             for (final NetworkStatusListener listener: sNetworkStatusListeners)
-                notifyListener(new Runnable() {
+                BaseListeners.notifyListener(new Runnable() {
                     @Override
                     public void run() {
                         listener.onNetworkStatusChanged(isConnected);
@@ -709,27 +791,67 @@ public class Core {
         }
     }
 
-    /** @exclude */
-    @SuppressWarnings({"JavaDoc", "unused"})
+    /**
+     * Starts (or stops) the network state tracker. The tracker is not started by default.
+     *
+     * @param runNetworkMonitor
+     *        {@code true} to start the network state tracker, {@code false} to stop it
+     */
+    @SuppressWarnings("unused")
     public static void setRunNetworkMonitor(final boolean runNetworkMonitor) {
         Init.sRunNetworkMonitor = runNetworkMonitor;
+
+        final Application application = Utils.getApplication();
+        if (application == null) return;
+
+        if (runNetworkMonitor)
+            NetworkMonitor.start(application);
+        else
+            NetworkMonitor.stop (application);
     }
 
-    /** @exclude */ @SuppressWarnings("JavaDoc")
+    /**
+     * The callback API which allows registered components to be notified about network status changes.
+     * Please refer to {@link #register(NetworkStatusListener)} and {@link #unregister(NetworkStatusListener)}.
+     *
+     * @see Utils#getNetworkType()
+     * @see Utils#isNetworkMetered()
+     */
     public interface NetworkStatusListener {
+
+        /**
+         * Called when the network status changes.
+         *
+         * @param isConnected
+         *        {@code true} if network connected, {@code false} otherwise
+         */
         void onNetworkStatusChanged(boolean isConnected);
     }
 
     private static final Set<NetworkStatusListener>     sNetworkStatusListeners         = Utils.newSet();
 
-    /** @exclude */
-    @SuppressWarnings({"JavaDoc", "unused"})
+    /**
+     * Registers component to be notified about network status changes.
+     *
+     * @param listener
+     *        The component to register
+     *
+     * @return  {@code true} if registration was successful, {@code false} otherwise
+     */
+    @SuppressWarnings("unused")
     public static boolean register(@NonNull final NetworkStatusListener listener) {
         return sNetworkStatusListeners.add(listener);
     }
 
-    /** @exclude */
-    @SuppressWarnings({"JavaDoc", "unused"})
+    /**
+     * Removes a {@code NetworkStatusListener} component that was previously registered with {@link #register(NetworkStatusListener)}.
+     *
+     * @param listener
+     *        The component to remove
+     *
+     * @return  {@code true} if component removing was successful, {@code false} otherwise
+     */
+    @SuppressWarnings("unused")
     public static boolean unregister(@NonNull final NetworkStatusListener listener) {
         return sNetworkStatusListeners.remove(listener);
     }
@@ -985,7 +1107,33 @@ public class Core {
          * @return  The network status flag
          */
         public static boolean isConnected() {
-            return Init.sConnected.get();
+            return NetworkMonitor.isRunning() ? NetworkMonitor.sConnected.get(): NetworkMonitor.query(getApplication());
+        }
+
+        /**
+         * Returns the type of the currently active network (e.g. {@link ConnectivityManager#TYPE_WIFI}),
+         * or {@link Core#NETWORK_TYPE_NONE} if network is not connected (or the network state tracker is not running).
+         *
+         * @return  The network type
+         *
+         * @see Core#setRunNetworkMonitor(boolean)
+         */
+        @SuppressWarnings("unused")
+        public static int getNetworkType() {
+            return NetworkMonitor.sNetworkType;
+        }
+
+        /**
+         * Returns {@code true} if the currently active network is metered, {@code false} otherwise
+         * (or if the network state tracker is not running).
+         *
+         * @return  The network metered flag
+         *
+         * @see Core#setRunNetworkMonitor(boolean)
+         */
+        @SuppressWarnings("unused")
+        public static boolean isNetworkMetered() {
+            return NetworkMonitor.sMetered;
         }
 
         /** @exclude */ @SuppressWarnings("JavaDoc")
@@ -1567,6 +1715,140 @@ public class Core {
             private static Type getParameterizedRawType(final Type type) {
                 return type instanceof ParameterizedType ? ((ParameterizedType) type).getRawType(): null;
             }
+
+            /**
+             * The index of the service interface methods by the response types. The method types are resolved
+             * once (when the index is created), the lookup results are cached, so finding the method for
+             * the already requested response type is O(1). The ambiguities (several methods returning
+             * the same type) are reported when the index is created.
+             */
+            public static class MethodIndex {
+
+                private static final Map<Class<?>, MethodIndex>     sIndexes        = newWeakMap();
+
+                private static final Integer                        NOT_FOUND       = -1;
+
+                private final Method[]                              mMethods;
+                private final Type[]                                mTypes;
+                private final Map<Type, Integer>                    mCache          = new ConcurrentHashMap<>();
+
+                /**
+                 * Resolves the response type of the service method.
+                 */
+                public interface TypeResolver {
+
+                    /**
+                     * Returns the response type of the given method.
+                     *
+                     * @param method
+                     *        The method
+                     *
+                     * @return  The response type (or null)
+                     */
+                    Type getType(@NonNull Method method);
+                }
+
+                /**
+                 * Initialises a newly created {@code MethodIndex} object.
+                 *
+                 * @param service
+                 *        The service interface
+                 *
+                 * @param resolver
+                 *        The method response type resolver
+                 */
+                public MethodIndex(@NonNull final Class<?> service, @NonNull final TypeResolver resolver) {
+                    final List<Method> methods = new ArrayList<>();
+                    final List<Type>   types   = new ArrayList<>();
+
+                    for (final Method method: service.getMethods()) {
+                        if (method.getDeclaringClass().equals(Object.class)) continue;
+
+                        final Type type = resolver.getType(method);
+                        if (type == null) continue;
+
+                        final int idx = types.indexOf(type);
+                        if (idx >= 0) CoreLogger.logWarning("ambiguous methods in " + service.getName() +
+                                ": " + methods.get(idx).getName() + "() and " + method.getName() +
+                                "() both return " + type + ", the first one will be used");
+
+                        methods.add(method);
+                        types  .add(type);
+                    }
+
+                    mMethods = methods.toArray(new Method[methods.size()]);
+                    mTypes   = types  .toArray(new Type  [types  .size()]);
+                }
+
+                /**
+                 * Returns the (cached) index for the given service interface.
+                 *
+                 * @param service
+                 *        The service interface
+                 *
+                 * @param resolver
+                 *        The method response type resolver (used if the index is not created yet)
+                 *
+                 * @return  The {@code MethodIndex}
+                 */
+                @NonNull
+                public static MethodIndex get(@NonNull final Class<?> service, @NonNull final TypeResolver resolver) {
+                    synchronized (sIndexes) {
+                        MethodIndex index = sIndexes.get(service);
+                        if (index == null) {
+                            index = new MethodIndex(service, resolver);
+                            sIndexes.put(service, index);
+                        }
+                        return index;
+                    }
+                }
+
+                /**
+                 * Finds the method for the given response type.
+                 *
+                 * @param typeResponse
+                 *        The response type
+                 *
+                 * @return  The method (or null if not found)
+                 */
+                public Method findMethod(@NonNull final Type typeResponse) {
+                    final int idx = find(typeResponse);
+                    return idx < 0 ? null: mMethods[idx];
+                }
+
+                /**
+                 * Returns the resolved response type of the method found for the given response type.
+                 *
+                 * @param typeResponse
+                 *        The response type
+                 *
+                 * @return  The method response type (or null if method not found)
+                 */
+                public Type getType(@NonNull final Type typeResponse) {
+                    final int idx = find(typeResponse);
+                    return idx < 0 ? null: mTypes[idx];
+                }
+
+                private int find(@NonNull final Type typeResponse) {
+                    Integer idx = mCache.get(typeResponse);
+                    if (idx != null) return idx;
+
+                    idx = NOT_FOUND;
+                    for (int i = 0; i < mTypes.length; i++)
+                        if (checkType(typeResponse, mTypes[i])) {
+                            if (idx.equals(NOT_FOUND))
+                                idx = i;
+                            else
+                                CoreLogger.logWarning("ambiguous type " + typeResponse + ": " +
+                                        mMethods[idx].getName() + "() and " + mMethods[i].getName() +
+                                        "(), the first one will be used");
+                        }
+                    if (idx.equals(NOT_FOUND)) CoreLogger.logError("method not found for type " + typeResponse);
+
+                    mCache.put(typeResponse, idx);
+                    return idx;
+                }
+            }
         }
     }
 }
@@ -25,6 +25,7 @@ import android.hardware.Sensor;
 import android.hardware.SensorEvent;
 import android.hardware.SensorEventListener;
 import android.hardware.SensorManager;
+import android.support.annotation.IntRange;
 import android.support.annotation.NonNull;
 import android.support.v4.util.ArrayMap;
 import android.text.TextUtils;
@@ -32,18 +33,33 @@ import android.util.Log;
 import android.view.View;
 
 import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.FilenameFilter;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.PrintWriter;
+import java.io.RandomAccessFile;
+import java.io.StringReader;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.text.SimpleDateFormat;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
 
 /**
  * The <code>CoreLogger</code> class is responsible for logging. In addition to usability and flexible settings
@@ -79,6 +95,7 @@ public class CoreLogger {
     private static final String                         CLASS_NAME               = CoreLogger.class.getName();
 
     private static       LoggerExtender                 sLoggerExtender;
+    private static       Level                          sLoggerExtenderLevel     = Level.DEBUG;
 
     private static final AtomicReference<String>        sTag                     = new AtomicReference<>();
 
@@ -114,13 +131,26 @@ public class CoreLogger {
          *        Indicates whether the stack trace should be logged too
          *
          * @param stackTraceElement
-         *        The stack trace to log
+         *        The stack trace to log (the call site; available in the detailed logging mode only, otherwise null)
          *
          * @return  {@code true} to prevent {@code CoreLogger} from logging that info, {@code false} otherwise
          */
         boolean log(Level level, String msg, Throwable throwable, boolean showStack, StackTraceElement stackTraceElement);
     }
 
+    /**
+     * Supplies the message to log. Please refer to {@link #log(Level, MessageSupplier)}.
+     */
+    public interface MessageSupplier {
+
+        /**
+         * Returns the message to log. Called only if the message is going to be logged.
+         *
+         * @return  The message
+         */
+        String get();
+    }
+
     private CoreLogger() {
     }
 
@@ -136,13 +166,33 @@ public class CoreLogger {
 
     /**
      * Registers the 3-rd party logger to use (as add-on or full replacement for {@code CoreLogger}).
+     * The {@code LoggerExtender} gets messages of all levels (the {@link LogBuffer} - the ones it keeps
+     * or passes further), please refer to {@link #setLoggerExtender(LoggerExtender, Level)}.
      *
      * @param loggerExtender
      *        The wrapper for 3-rd party logger
      */
     @SuppressWarnings("unused")
     public static void setLoggerExtender(final LoggerExtender loggerExtender) {
-        sLoggerExtender = loggerExtender;
+        setLoggerExtender(loggerExtender, loggerExtender instanceof LogBuffer ?
+                ((LogBuffer) loggerExtender).getMinLevel(): Level.DEBUG);
+    }
+
+    /**
+     * Registers the 3-rd party logger to use (as add-on or full replacement for {@code CoreLogger}).
+     * The messages with the lower levels are not passed to the {@code LoggerExtender} (and not even created
+     * if the {@code CoreLogger} itself doesn't log them, please refer to {@link #isLog}).
+     *
+     * @param loggerExtender
+     *        The wrapper for 3-rd party logger
+     *
+     * @param minLevel
+     *        The minimum level of the messages the {@code LoggerExtender} handles
+     */
+    @SuppressWarnings("WeakerAccess")
+    public static void setLoggerExtender(final LoggerExtender loggerExtender, @NonNull final Level minLevel) {
+        sLoggerExtenderLevel = minLevel;
+        sLoggerExtender      = loggerExtender;
     }
 
     /**
@@ -349,7 +399,7 @@ public class CoreLogger {
      *        The Throwable to log
      */
     public static void log(@NonNull final Level level, @NonNull final String str, final Throwable throwable) {
-        log(level, str, throwable, sShowStack.get() || level.ordinal() >= sForceShowStackLevel.ordinal());
+        log(level, str, throwable, getShowStack(level));
     }
 
     /**
@@ -370,10 +420,88 @@ public class CoreLogger {
         log(level, str, null, showStack);
     }
 
+    /**
+     * Checks whether the message with the given level is going to be logged (by the {@code CoreLogger}
+     * itself or by the registered {@link LoggerExtender}). Intended to avoid building messages for nothing.
+     *
+     * @param level
+     *        The log level
+     *
+     * @return  {@code true} if the message is going to be logged, {@code false} otherwise
+     */
+    public static boolean isLog(@NonNull final Level level) {
+        return !isNotLog(level) || isLogExtender(level);
+    }
+
+    private static boolean isLogExtender(@NonNull final Level level) {
+        return sLoggerExtender != null && level.ordinal() >= sLoggerExtenderLevel.ordinal();
+    }
+
+    /**
+     * Performs logging (the default level). The message is formatted only if it's going to be logged.
+     *
+     * @param format
+     *        The message format (please refer to {@link String#format(String, Object...)})
+     *
+     * @param args
+     *        The message arguments
+     */
+    public static void logFormat(@NonNull final String format, final Object... args) {
+        logFormat(Level.DEBUG, format, args);
+    }
+
+    /**
+     * Performs logging. The message is formatted only if it's going to be logged.
+     *
+     * @param level
+     *        The log level
+     *
+     * @param format
+     *        The message format (please refer to {@link String#format(String, Object...)})
+     *
+     * @param args
+     *        The message arguments
+     */
+    public static void logFormat(@NonNull final Level level, @NonNull final String format, final Object... args) {
+        if (!isLog(level)) return;
+        log(level, String.format(getLocale(), format, args), null, getShowStack(level));
+    }
+
+    /**
+     * Performs logging (the default level). The message is created only if it's going to be logged.
+     *
+     * @param supplier
+     *        The message supplier
+     */
+    public static void log(@NonNull final MessageSupplier supplier) {
+        log(Level.DEBUG, supplier);
+    }
+
+    /**
+     * Performs logging. The message is created only if it's going to be logged.
+     *
+     * @param level
+     *        The log level
+     *
+     * @param supplier
+     *        The message supplier
+     */
+    public static void log(@NonNull final Level level, @NonNull final MessageSupplier supplier) {
+        if (!isLog(level)) return;
+        log(level, supplier.get(), null, getShowStack(level));
+    }
+
+    private static boolean getShowStack(@NonNull final Level level) {
+        return sShowStack.get() || level.ordinal() >= sForceShowStackLevel.ordinal();
+    }
+
     private static void log(@NonNull final Level level, @NonNull final String str, Throwable throwable, final boolean showStack) {
-        final StackTraceElement stackTraceElement = isNotLog(level) ? null: getStackTraceElement();
+        // the call site is shown in the detailed logging mode only, so no reason to create exception otherwise
+        final StackTraceElement stackTraceElement = isNotLog(level) || !isFullInfo() ? null: getStackTraceElement();
 
-        if (sLoggerExtender != null && sLoggerExtender.log(level, str, throwable, showStack, stackTraceElement)) return;
+        final LoggerExtender loggerExtender = sLoggerExtender;
+        if (loggerExtender != null && level.ordinal() >= sLoggerExtenderLevel.ordinal() &&
+                loggerExtender.log(level, str, throwable, showStack, stackTraceElement)) return;
 
         log(level, str, throwable, showStack, stackTraceElement);
     }
@@ -441,7 +569,18 @@ public class CoreLogger {
         void handle(String line) throws IOException;
     }
 
-    private static void getLog(@NonNull final String cmd, @NonNull final LogHandler handler) {
+    private static void getLog(final String cmd, @NonNull final LogHandler handler) {
+        final LogBuffer logBuffer = cmd == null ? getLogBuffer(): null;
+        if (logBuffer != null) {
+            try {
+                logBuffer.read(handler);
+            }
+            catch (IOException e) {
+                log("failed reading log buffer", e);
+            }
+            return;
+        }
+
         Process process = null;
         try {
             @SuppressWarnings("ConstantConditions") final String cmdToExecute =
@@ -463,8 +602,20 @@ public class CoreLogger {
         }
     }
 
+    /**
+     * Returns the {@link LogBuffer} if it's registered as the {@link LoggerExtender}.
+     *
+     * @return  The {@code LogBuffer} (or null)
+     */
+    public static LogBuffer getLogBuffer() {
+        final LoggerExtender loggerExtender = sLoggerExtender;
+        return loggerExtender instanceof LogBuffer ? (LogBuffer) loggerExtender: null;
+    }
+
     /**
      * Collects records from the main log buffer of the Android logging system.
+     * If the {@link LogBuffer} is registered and {@code cmd} is null, the records are taken from it
+     * (no <code>logcat</code> process spawned).
      *
      * @param list
      *        The list to store log records (or null to create the new one)
@@ -488,7 +639,7 @@ public class CoreLogger {
                 listActual.add(line);
             }
         });
-        return list;
+        return listActual;
     }
 
     /**
@@ -638,6 +789,325 @@ public class CoreLogger {
         }).register();
     }
 
+    /**
+     * The in-process log sink: keeps log records in the lock-free ring buffer and flushes them (on the background
+     * thread) to the rotating memory-mapped files. Should be registered as the {@link LoggerExtender}, e.g.
+     * in Application.onCreate():
+     *
+     * <p><pre style="background-color: silver; border: thin solid black;">
+     * CoreLogger.setLoggerExtender(new CoreLogger.LogBuffer(this));
+     * </pre>
+     *
+     * When registered, {@link #getLogCat getLogCat()} and the e-mail senders read log records from the
+     * {@code LogBuffer} (if the <code>logcat</code> command is not specified explicitly).
+     */
+    public static class LogBuffer implements LoggerExtender {
+
+        /** The default ring buffer capacity (the value is {@value}), should be the power of 2. */
+        public static final int                         DEFAULT_CAPACITY         = 2048;
+        /** The default size of the log file (the value is {@value}); there are 2 rotating files. */
+        public static final int                         DEFAULT_FILE_SIZE        = 256 * 1024;
+        /** The default flush interval in milliseconds (the value is {@value}). */
+        public static final int                         DEFAULT_FLUSH_INTERVAL   = 1000;
+
+        private static final String                     LOG_DIR                  = "yakhont_logs";
+        private static final String                     LOG_FILE                 = "log%d.txt";
+        private static final String                     FORMAT_RECORD            = "%s %s/%s [%s]: %s";
+        private static final String                     FORMAT_DATE              = "MM-dd HH:mm:ss.SSS";
+        private static final String                     LEVELS                   = "DIWES";
+
+        private static final Charset                    CHARSET                  = Charset.forName("UTF-8");
+
+        private final AtomicReferenceArray<Record>      mRecords;
+        private final int                               mMask;
+        private final AtomicLong                        mWriteSeq                = new AtomicLong();
+        private       long                              mReadSeq;
+
+        private final File[]                            mFiles                   = new File[2];
+        private final int                               mFileSize;
+        private       int                               mFileIdx                 = -1;
+        private       MappedByteBuffer                  mMapped;
+        private       boolean                           mOpened;
+
+        private final Level                             mLevel;
+        private final LoggerExtender                    mLoggerExtender;
+        private final SimpleDateFormat                  mDateFormat              = new SimpleDateFormat(FORMAT_DATE, Locale.US);
+
+        private final Thread                            mFlusher;
+        private volatile boolean                        mStopped;
+
+        private static class Record {
+
+            private final long                          mTime                    = System.currentTimeMillis();
+            private final String                        mThread                  = Thread.currentThread().getName();
+            private final long                          mSeq;
+            private final Level                         mLevel;
+            private final String                        mMsg;
+            private final Throwable                     mThrowable;
+
+            private Record(final long seq, final Level level, final String msg, final Throwable throwable) {
+                mSeq        = seq;
+                mLevel      = level;
+                mMsg        = msg;
+                mThrowable  = throwable;
+            }
+        }
+
+        /**
+         * Initialises a newly created {@code LogBuffer} object with the default settings. In the detailed
+         * logging mode (see {@link #isFullInfo()}) all records are kept, otherwise - warnings and errors only.
+         *
+         * @param context
+         *        The Context
+         */
+        public LogBuffer(@NonNull final Context context) {
+            this(context, DEFAULT_CAPACITY, DEFAULT_FILE_SIZE, DEFAULT_FLUSH_INTERVAL,
+                    isFullInfo() ? Level.DEBUG: Level.WARNING, null);
+        }
+
+        /**
+         * Initialises a newly created {@code LogBuffer} object.
+         *
+         * @param context
+         *        The Context
+         *
+         * @param capacity
+         *        The ring buffer capacity (rounded up to the power of 2)
+         *
+         * @param fileSize
+         *        The size of each of 2 rotating log files (in bytes)
+         *
+         * @param flushInterval
+         *        The flush interval (in milliseconds)
+         *
+         * @param level
+         *        The minimum level of the records to keep
+         *
+         * @param loggerExtender
+         *        The {@code LoggerExtender} to pass log records to (or null)
+         */
+        @SuppressWarnings("WeakerAccess")
+        public LogBuffer(@NonNull final Context context, @IntRange(from = 1) final int capacity,
+                         @IntRange(from = 1024) final int fileSize, @IntRange(from = 1) final int flushInterval,
+                         @NonNull final Level level, final LoggerExtender loggerExtender) {
+            int size = 1;
+            while (size < capacity) size <<= 1;
+
+            mRecords        = new AtomicReferenceArray<>(size);
+            mMask           = size - 1;
+            mFileSize       = fileSize;
+            mLevel          = level;
+            mLoggerExtender = loggerExtender;
+
+            final File dir = new File(context.getFilesDir(), LOG_DIR);
+            if (!dir.exists() && !dir.mkdirs()) Log.e(getTag(), "can not create " + dir);
+            for (int i = 0; i < mFiles.length; i++)
+                mFiles[i] = new File(dir, String.format(Locale.US, LOG_FILE, i));
+
+            mFlusher = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    while (!mStopped) {
+                        LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(flushInterval));
+                        flush();
+                    }
+                    flush();
+                }
+            }, "yakhont-log-flusher");
+            mFlusher.setDaemon(true);
+            mFlusher.setPriority(Thread.MIN_PRIORITY);
+            mFlusher.start();
+        }
+
+        /**
+         * Please refer to the base method description.
+         */
+        @Override
+        public boolean log(final Level level, final String msg, final Throwable throwable,
+                           final boolean showStack, final StackTraceElement stackTraceElement) {
+            if (level.ordinal() >= mLevel.ordinal() && level != Level.SILENT) {
+                // lock-free: every writer gets its own slot, the oldest records are overwritten
+                final long seq = mWriteSeq.getAndIncrement();
+                mRecords.set((int) (seq & mMask), new Record(seq, level, msg, throwable));
+
+                if (level == Level.ERROR) LockSupport.unpark(mFlusher);
+            }
+            return mLoggerExtender != null &&
+                    mLoggerExtender.log(level, msg, throwable, showStack, stackTraceElement);
+        }
+
+        /**
+         * Returns the minimum level of the messages this {@code LogBuffer} handles: the level of the records
+         * to keep or, if there's the {@code LoggerExtender} to pass records to, all levels.
+         *
+         * @return  The minimum level
+         */
+        @NonNull
+        public Level getMinLevel() {
+            return mLoggerExtender == null ? mLevel: Level.DEBUG;
+        }
+
+        /**
+         * Stops the background flushing (all the buffered records are flushed).
+         */
+        @SuppressWarnings("unused")
+        public void stop() {
+            mStopped = true;
+            LockSupport.unpark(mFlusher);
+        }
+
+        /**
+         * Writes the buffered records to the log file. Normally is called on the background thread.
+         */
+        @SuppressWarnings("WeakerAccess")
+        public synchronized void flush() {
+            final long writeSeq = mWriteSeq.get();
+            if (writeSeq == mReadSeq) return;
+
+            try {
+                open();
+
+                if (writeSeq - mReadSeq > mRecords.length()) {
+                    final long lost = writeSeq - mReadSeq - mRecords.length();
+                    mReadSeq = writeSeq - mRecords.length();
+                    write("... " + lost + " log records lost\n");
+                }
+                for (; mReadSeq < writeSeq; mReadSeq++) {
+                    final Record record = mRecords.get((int) (mReadSeq & mMask));
+                    if (record == null || record.mSeq < mReadSeq) break;    // slot is not written yet
+                    if (record.mSeq == mReadSeq) write(format(record));      // otherwise it's overwritten
+                }
+                if (mMapped != null) mMapped.force();
+            }
+            catch (Exception e) {
+                Log.e(getTag(), "log buffer flush failed", e);
+            }
+        }
+
+        private String format(@NonNull final Record record) {
+            final String data = String.format(Locale.US, FORMAT_RECORD, mDateFormat.format(new Date(record.mTime)),
+                    LEVELS.charAt(record.mLevel.ordinal()), getTag(), record.mThread, record.mMsg);
+            return record.mThrowable == null ? data + "\n":
+                    data + "\n" + Log.getStackTraceString(record.mThrowable) + "\n";
+        }
+
+        private void write(@NonNull final String data) throws IOException {
+            byte[] bytes = data.getBytes(CHARSET);
+            if (bytes.length >= mFileSize) {
+                // don't cut the multi-byte UTF-8 sequence: skip back the continuation bytes (10xxxxxx)
+                int length = mFileSize - 1;
+                while (length > 0 && (bytes[length] & 0xC0) == 0x80) length--;
+                bytes = Arrays.copyOf(bytes, length);
+            }
+
+            if (mMapped == null || mMapped.remaining() < bytes.length + 1) rotate();
+
+            mMapped.put(bytes);
+            mMapped.put(mMapped.position(), (byte) 0);      // the end of data marker
+        }
+
+        private void rotate() throws IOException {
+            mFileIdx = mFileIdx == 0 ? 1: 0;
+
+            mMapped = map(mFiles[mFileIdx]);
+            mMapped.put(0, (byte) 0);
+        }
+
+        private MappedByteBuffer map(@NonNull final File file) throws IOException {
+            final RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw");
+            try {
+                randomAccessFile.setLength(mFileSize);
+                return randomAccessFile.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, mFileSize);
+            }
+            finally {
+                randomAccessFile.close();       // the mapping remains valid
+            }
+        }
+
+        // should be called under lock; continues writing to the newest file of the previous session (if any)
+        private void open() throws IOException {
+            if (mOpened) return;
+            mOpened = true;
+
+            int newest = -1;
+            for (int i = 0; i < mFiles.length; i++)
+                if (mFiles[i].exists() && (newest < 0 || mFiles[i].lastModified() > mFiles[newest].lastModified()))
+                    newest = i;
+            if (newest < 0) return;
+
+            mFileIdx = newest;
+            if (mFiles[newest].length() != mFileSize) return;       // the file size was changed: rotate on write
+
+            final MappedByteBuffer mapped = map(mFiles[newest]);
+            int end = 0;
+            while (end < mFileSize && mapped.get(end) != 0) end++;
+            if (end == mFileSize) return;                           // no end of data marker: rotate on write
+
+            mapped.position(end);
+            mMapped = mapped;
+        }
+
+        /**
+         * Returns the buffered log records (the ones not yet overwritten).
+         *
+         * @return  The log records
+         */
+        @NonNull
+        @SuppressWarnings("unused")
+        public synchronized List<String> getRecords() {
+            final List<String> list = new ArrayList<>();
+
+            final long writeSeq = mWriteSeq.get();
+            for (long seq = Math.max(0, writeSeq - mRecords.length()); seq < writeSeq; seq++) {
+                final Record record = mRecords.get((int) (seq & mMask));
+                if (record != null && record.mSeq == seq) list.add(format(record));
+            }
+            return list;
+        }
+
+        private void read(@NonNull final LogHandler handler) throws IOException {
+            final int current;
+            synchronized (this) {
+                open();
+                flush();
+                current = mFileIdx;
+            }
+            if (current < 0) return;
+
+            read(mFiles[current == 0 ? 1: 0], handler);     // the previous one
+            read(mFiles[current],             handler);
+        }
+
+        private void read(@NonNull final File file, @NonNull final LogHandler handler) throws IOException {
+            if (!file.exists()) return;
+
+            final ByteArrayOutputStream data = new ByteArrayOutputStream();
+            final InputStream input = new FileInputStream(file);
+            try {
+                final byte[] buffer = new byte[8 * 1024];
+                int count, end = -1;
+                while (end < 0 && (count = input.read(buffer)) > 0) {
+                    end = getEndOfData(buffer, count);
+                    data.write(buffer, 0, end < 0 ? count: end);
+                }
+            }
+            finally {
+                input.close();
+            }
+
+            final BufferedReader reader = new BufferedReader(new StringReader(new String(data.toByteArray(), CHARSET)));
+            String line;
+            while ((line = reader.readLine()) != null)
+                handler.handle(line);
+        }
+
+        private static int getEndOfData(@NonNull final byte[] buffer, final int count) {
+            for (int i = 0; i < count; i++)
+                if (buffer[i] == 0) return i;
+            return -1;
+        }
+    }
+
     private static class ShakeEventListener implements SensorEventListener {
 
         private static final float                      THRESHOLD                =    2;
@@ -22,12 +22,17 @@ import java.lang.annotation.Annotation;
 import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * The helper class for work with Java Reflection API.
+ * <p>
+ * The methods and fields found are cached (including the "not found" results), so repeated lookups
+ * don't walk the class hierarchy again; the cached members are made accessible once.
  *
  * @author akha
  */
@@ -35,6 +40,12 @@ public class CoreReflection {
 
     private static final Map<Class, Class>                  UNBOXING;
 
+    private static final Object                             NOT_FOUND                = new Object();
+    private static final Class[]                            NO_ARGS                  = new Class[0];
+
+    private static final Map<MemberKey, Object>             sMethods                 = new ConcurrentHashMap<>();
+    private static final Map<MemberKey, Object>             sFields                  = new ConcurrentHashMap<>();
+
     static {
         final Map<Class, Class> unboxing = new HashMap<>();
 
@@ -56,6 +67,44 @@ public class CoreReflection {
     private CoreReflection() {
     }
 
+    private static class MemberKey {
+
+        private final Class                                 mClass;
+        private final String                                mName;
+        private final Class[]                               mArgs;
+        private final int                                   mHashCode;
+
+        private MemberKey(@NonNull final Class cls, @NonNull final String name, final Class[] args) {
+            mClass      = cls;
+            mName       = name;
+            mArgs       = args;
+            mHashCode   = 31 * (31 * cls.hashCode() + name.hashCode()) + Arrays.hashCode(args);
+        }
+
+        @Override
+        public boolean equals(final Object object) {
+            if (this == object) return true;
+            if (!(object instanceof MemberKey)) return false;
+
+            final MemberKey key = (MemberKey) object;
+            return mClass.equals(key.mClass) && mName.equals(key.mName) && Arrays.equals(mArgs, key.mArgs);
+        }
+
+        @Override
+        public int hashCode() {
+            return mHashCode;
+        }
+    }
+
+    /**
+     * Clears the cache of the methods and fields found.
+     */
+    @SuppressWarnings("unused")
+    public static void clearCache() {
+        sMethods.clear();
+        sFields .clear();
+    }
+
     private static Class getClass(@NonNull final Object object) {
         return object instanceof Class ? (Class) object: object.getClass();
     }
@@ -133,8 +182,9 @@ public class CoreReflection {
                                 final Object... args) throws InvocationTargetException {
         checkForNull(method, "method == null");
 
-        CoreLogger.log("about to invoke method " + method.toGenericString());
+        if (CoreLogger.isFullInfo()) CoreLogger.log("about to invoke method " + method.toGenericString());
 
+        // the cached methods are already accessible; the caller's ones are restored after the call
         final boolean accessible = method.isAccessible();
         if (!accessible) {
             CoreLogger.logWarning("method is not accessible");
@@ -154,6 +204,15 @@ public class CoreReflection {
         }
     }
 
+    // the cached members are left accessible: setAccessible() is costly and they are reused
+    private static void makeAccessible(@NonNull final Method method) {
+        if (!method.isAccessible()) method.setAccessible(true);
+    }
+
+    private static void makeAccessible(@NonNull final Field field) {
+        if (!field.isAccessible()) field.setAccessible(true);
+    }
+
     /**
      * Finds method to invoke.
      *
@@ -170,6 +229,23 @@ public class CoreReflection {
      */
     @SuppressWarnings("WeakerAccess")
     public static Method findMethod(@NonNull final Object object, @NonNull final String methodName, @NonNull final Class... args) {
+        final Class[] types = args == null ? NO_ARGS: args;
+        final MemberKey key = new MemberKey(getClass(object), methodName, types);
+
+        Object method = sMethods.get(key);
+        if (method == null) {
+            method = findMethodHelper(object, methodName, types);
+            if (method == null)
+                method = NOT_FOUND;
+            else
+                makeAccessible((Method) method);
+            sMethods.put(new MemberKey(key.mClass, methodName, types.clone()), method);  // args could be reused by caller
+        }
+        return method == NOT_FOUND ? null: (Method) method;
+    }
+
+    private static Method findMethodHelper(@NonNull final Object object, @NonNull final String methodName,
+                                           @NonNull final Class... args) {
         Class tmpClass = getClass(object);
 
         for (;;) {
@@ -220,6 +296,21 @@ public class CoreReflection {
      */
     @SuppressWarnings("WeakerAccess")
     public static Field findField(@NonNull final Object object, @NonNull final String fieldName) {
+        final MemberKey key = new MemberKey(getClass(object), fieldName, null);
+
+        Object field = sFields.get(key);
+        if (field == null) {
+            field = findFieldHelper(object, fieldName);
+            if (field == null)
+                field = NOT_FOUND;
+            else
+                makeAccessible((Field) field);
+            sFields.put(key, field);
+        }
+        return field == NOT_FOUND ? null: (Field) field;
+    }
+
+    private static Field findFieldHelper(@NonNull final Object object, @NonNull final String fieldName) {
         Class tmpClass = getClass(object);
 
         for (;;) {
@@ -311,9 +402,7 @@ public class CoreReflection {
     private static Object doField(final boolean set, final Object object, final Field field, final Object newValue) {
         checkForNull(field, "field == null");
 
-        final boolean accessible = field.isAccessible();
-        field.setAccessible(true);
-
+        makeAccessible(field);
         try {
             final Object value = field.get(object);
             if (set) field.set(object, newValue);
@@ -322,10 +411,6 @@ public class CoreReflection {
         catch (IllegalAccessException e) {  // should never happen
             CoreLogger.log(field.getName(), e);
         }
-        finally {
-            //noinspection ThrowFromFinallyBlock
-            field.setAccessible(accessible);
-        }
 
         return null;
     }
@@ -0,0 +1,445 @@
+/*
+ * Copyright (C) 2015-2017 akha, a.k.a. Alexander Kharitonov
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package akha.yakhont;
+
+import akha.yakhont.Core.Utils;
+
+import android.annotation.SuppressLint;
+import android.annotation.TargetApi;
+import android.os.Build;
+import android.os.Trace;
+import android.support.annotation.NonNull;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The helper class for tracing Yakhont's hot paths (data loading, conversion, caching, lifecycle
+ * callbacks dispatching and adapters binding).
+ * <p>
+ * Every section is forwarded to {@link Trace android.os.Trace} (API 18+), so it's visible in
+ * systrace / Perfetto. In addition, sections can be recorded in-process by the {@link Recorder}
+ * and exported in Chrome trace-event JSON format (for chrome://tracing or Perfetto UI);
+ * the recorder doesn't depend on the Android tracing, so it works in JVM (e.g. Robolectric) tests too.
+ *
+ * <p><pre style="background-color: silver; border: thin solid black;">
+ * CoreTrace.Recorder recorder = CoreTrace.startRecording();
+ * ...
+ * CoreTrace.stopRecording();
+ * recorder.export(new File(getExternalCacheDir(), "yakhont_trace.json"));
+ * </pre>
+ *
+ * Sections should be used in try / finally blocks:
+ *
+ * <p><pre style="background-color: silver; border: thin solid black;">
+ * CoreTrace.beginSection(CoreTrace.SECTION_BULK_INSERT);
+ * try {
+ *     ...
+ * }
+ * finally {
+ *     CoreTrace.endSection();
+ * }
+ * </pre>
+ *
+ * @author akha
+ */
+public class CoreTrace {
+
+    /** The section for {@link akha.yakhont.loader.BaseLoader} requests (the value is {@value}). */
+    public  static final    String                  SECTION_MAKE_REQUEST            = "Yakhont:makeRequest";
+    /** The section for {@link akha.yakhont.loader.BaseConverter} conversions (the value is {@value}). */
+    public  static final    String                  SECTION_CONVERTER               = "Yakhont:BaseConverter.get";
+    /** The section for writing data to cache (the value is {@value}). */
+    public  static final    String                  SECTION_BULK_INSERT             = "Yakhont:bulkInsert";
+    /** The section for loading data from cache (the value is {@value}). */
+    public  static final    String                  SECTION_CACHE_LOADED            = "Yakhont:CursorLoaderWrapper.onLoadFinished";
+    /** The section for lifecycle callbacks dispatching (the value is {@value}). */
+    public  static final    String                  SECTION_LIFECYCLE               = "Yakhont:lifecycle";
+    /** The section for adapters binding (the value is {@value}). */
+    public  static final    String                  SECTION_ADAPTER_BIND            = "Yakhont:adapterBind";
+    /** The section for adapters items binding (the value is {@value}). */
+    public  static final    String                  SECTION_ITEM_BIND               = "Yakhont:itemBind";
+
+    // android.os.Trace truncates longer names
+    private static final    int                     MAX_SECTION_NAME_LENGTH         = 127;
+
+    @SuppressLint("ObsoleteSdkInt")
+    private static final    boolean                 IS_SYSTRACE_SUPPORTED           =
+            Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN_MR2;
+
+    private static volatile Recorder                sRecorder;
+
+    private CoreTrace() {
+    }
+
+    /**
+     * Starts a new recording (the current one, if any, will be stopped).
+     *
+     * @return  The {@link Recorder}
+     */
+    @SuppressWarnings("UnusedReturnValue")
+    public static Recorder startRecording() {
+        return startRecording(Recorder.DEFAULT_MAX_EVENTS);
+    }
+
+    /**
+     * Starts a new recording (the current one, if any, will be stopped).
+     *
+     * @param maxEvents
+     *        The maximum number of events to keep (the rest will be dropped)
+     *
+     * @return  The {@link Recorder}
+     */
+    @SuppressWarnings("WeakerAccess")
+    public static Recorder startRecording(final int maxEvents) {
+        final Recorder recorder = new Recorder(maxEvents);
+        sRecorder = recorder;
+        return recorder;
+    }
+
+    /**
+     * Stops the current recording.
+     *
+     * @return  The {@link Recorder} (or null if there was no recording)
+     */
+    @SuppressWarnings("UnusedReturnValue")
+    public static Recorder stopRecording() {
+        final Recorder recorder = sRecorder;
+        sRecorder = null;
+        return recorder;
+    }
+
+    /**
+     * Returns the current {@link Recorder} (if any).
+     *
+     * @return  The {@link Recorder} (or null if there is no recording)
+     */
+    @SuppressWarnings("unused")
+    public static Recorder getRecorder() {
+        return sRecorder;
+    }
+
+    /**
+     * Begins the section. Should always be paired with the {@link #endSection} call on the same thread.
+     *
+     * @param name
+     *        The section name
+     */
+    public static void beginSection(@NonNull final String name) {
+        if (IS_SYSTRACE_SUPPORTED) beginSystrace(name);
+
+        final Recorder recorder = sRecorder;
+        if (recorder != null) recorder.begin(name);
+    }
+
+    /**
+     * Ends the section which was begun by the most recent {@link #beginSection} call on the current thread.
+     */
+    public static void endSection() {
+        if (IS_SYSTRACE_SUPPORTED) endSystrace();
+
+        final Recorder recorder = sRecorder;
+        if (recorder != null) recorder.end();
+    }
+
+    @TargetApi(Build.VERSION_CODES.JELLY_BEAN_MR2)
+    private static void beginSystrace(@NonNull final String name) {
+        Trace.beginSection(name.length() <= MAX_SECTION_NAME_LENGTH ? name: name.substring(0, MAX_SECTION_NAME_LENGTH));
+    }
+
+    @TargetApi(Build.VERSION_CODES.JELLY_BEAN_MR2)
+    private static void endSystrace() {
+        Trace.endSection();
+    }
+
+    ////////////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * The in-process recorder of the trace sections. Exports data in
+     * {@link <a href="https://docs.google.com/document/d/1CvAClvFfyA5R-PhYUmn5OOQtYMH4h6I0nSsKchNAySU">Chrome trace-event</a>}
+     * JSON format.
+     */
+    public static class Recorder {
+
+        /** The default maximum number of events to keep (the value is {@value}). */
+        @SuppressWarnings("WeakerAccess")
+        public  static final int                    DEFAULT_MAX_EVENTS              = 100000;
+
+        private static final int                    PID                             = 1;
+
+        private final        int                    mMaxEvents;
+        private final        long                   mStartNanos                     = System.nanoTime();
+
+        private final        List<Event>            mEvents                         = new ArrayList<>();
+        private final        Map<Long, String>      mThreads                        = Utils.newMap();
+        private              int                    mDropped;
+
+        private final        ThreadLocal<Deque<Event>>
+                                                    mStacks                         = new ThreadLocal<Deque<Event>>() {
+            @Override
+            protected Deque<Event> initialValue() {
+                return new ArrayDeque<>();
+            }
+        };
+
+        /**
+         * The recorded trace event (the complete one, i.e. "X" in Chrome trace-event terms).
+         */
+        public static class Event {
+
+            private final String                    mName;
+            private final long                      mThreadId;
+            private final long                      mStart;
+            private       long                      mDuration                       = -1;
+
+            private Event(@NonNull final String name, final long threadId, final long start) {
+                mName               = name;
+                mThreadId           = threadId;
+                mStart              = start;
+            }
+
+            /**
+             * Returns the section name.
+             *
+             * @return  The section name
+             */
+            public String getName() {
+                return mName;
+            }
+
+            /**
+             * Returns the ID of the thread the section was executed on.
+             *
+             * @return  The thread ID
+             */
+            public long getThreadId() {
+                return mThreadId;
+            }
+
+            /**
+             * Returns the section start time (relative to the recording start).
+             *
+             * @return  The start time in microseconds
+             */
+            public long getStart() {
+                return mStart;
+            }
+
+            /**
+             * Returns the section duration.
+             *
+             * @return  The duration in microseconds
+             */
+            public long getDuration() {
+                return mDuration;
+            }
+
+            /**
+             * Please refer to the base method description.
+             */
+            @Override
+            public String toString() {
+                return String.format(CoreLogger.getLocale(), "%s, thread %d, start %d us, duration %d us",
+                        mName, mThreadId, mStart, mDuration);
+            }
+        }
+
+        private Recorder(final int maxEvents) {
+            mMaxEvents = maxEvents;
+        }
+
+        private long now() {
+            return (System.nanoTime() - mStartNanos) / 1000;
+        }
+
+        private void begin(@NonNull final String name) {
+            final Thread thread = Thread.currentThread();
+            final long   id     = thread.getId();
+
+            if (!mThreads.containsKey(id)) mThreads.put(id, thread.getName());
+
+            mStacks.get().push(new Event(name, id, now()));
+        }
+
+        private void end() {
+            // the section could be begun before the recording start
+            final Event event = mStacks.get().poll();
+            if (event == null) return;
+
+            event.mDuration = now() - event.mStart;
+
+            synchronized (mEvents) {
+                if (mEvents.size() < mMaxEvents)
+                    mEvents.add(event);
+                else
+                    mDropped++;
+            }
+        }
+
+        /**
+         * Returns the recorded (i.e. completed) sections.
+         *
+         * @return  The list of events
+         */
+        public List<Event> getEvents() {
+            synchronized (mEvents) {
+                return Collections.unmodifiableList(new ArrayList<>(mEvents));
+            }
+        }
+
+        /**
+         * Returns the recorded sections with the given name.
+         *
+         * @param name
+         *        The section name
+         *
+         * @return  The list of events
+         */
+        @SuppressWarnings("unused")
+        public List<Event> getEvents(@NonNull final String name) {
+            final List<Event> events = new ArrayList<>();
+            for (final Event event: getEvents())
+                if (name.equals(event.mName)) events.add(event);
+            return events;
+        }
+
+        /**
+         * Returns the number of events dropped because of the {@link #DEFAULT_MAX_EVENTS limit}.
+         *
+         * @return  The number of dropped events
+         */
+        @SuppressWarnings("unused")
+        public int getDropped() {
+            synchronized (mEvents) {
+                return mDropped;
+            }
+        }
+
+        /**
+         * Exports the recorded sections to the file in Chrome trace-event JSON format.
+         *
+         * @param file
+         *        The file to write to
+         *
+         * @return  {@code true} if export was successful, {@code false} otherwise
+         */
+        @SuppressWarnings("UnusedReturnValue")
+        public boolean export(@NonNull final File file) {
+            Writer writer = null;
+            try {
+                writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file), "UTF-8"));
+                export(writer);
+                return true;
+            }
+            catch (IOException e) {
+                CoreLogger.log("trace export failed, file " + file, e);
+                return false;
+            }
+            finally {
+                if (writer != null)
+                    try {
+                        writer.close();
+                    }
+                    catch (IOException e) {
+                        CoreLogger.log("close failed", e);
+                    }
+            }
+        }
+
+        /**
+         * Writes the recorded sections in Chrome trace-event JSON format.
+         *
+         * @param writer
+         *        The writer
+         *
+         * @throws IOException
+         *         please refer to the exception description
+         */
+        @SuppressWarnings("WeakerAccess")
+        public void export(@NonNull final Writer writer) throws IOException {
+            writer.write("{\"traceEvents\":[");
+
+            boolean first = true;
+            synchronized (mThreads) {
+                for (final Map.Entry<Long, String> entry: mThreads.entrySet()) {
+                    if (!first) writer.write(',');
+                    first = false;
+
+                    writer.write("{\"name\":\"thread_name\",\"ph\":\"M\",\"pid\":");
+                    writer.write(String.valueOf(PID));
+                    writer.write(",\"tid\":");
+                    writer.write(String.valueOf(entry.getKey()));
+                    writer.write(",\"args\":{\"name\":");
+                    writeString(writer, entry.getValue());
+                    writer.write("}}");
+                }
+            }
+
+            for (final Event event: getEvents()) {
+                if (!first) writer.write(',');
+                first = false;
+
+                writer.write("{\"name\":");
+                writeString(writer, event.mName);
+                writer.write(",\"cat\":\"yakhont\",\"ph\":\"X\",\"pid\":");
+                writer.write(String.valueOf(PID));
+                writer.write(",\"tid\":");
+                writer.write(String.valueOf(event.mThreadId));
+                writer.write(",\"ts\":");
+                writer.write(String.valueOf(event.mStart));
+                writer.write(",\"dur\":");
+                writer.write(String.valueOf(event.mDuration));
+                writer.write('}');
+            }
+
+            writer.write("],\"displayTimeUnit\":\"ms\"}");
+            writer.flush();
+        }
+
+        private static void writeString(@NonNull final Writer writer, final String str) throws IOException {
+            writer.write('"');
+            if (str != null)
+                for (int i = 0; i < str.length(); i++) {
+                    final char c = str.charAt(i);
+                    switch (c) {
+                        case '"':
+                        case '\\':
+                            writer.write('\\');
+                            writer.write(c);
+                            break;
+                        default:
+                            if (c < 0x20)
+                                writer.write(String.format(CoreLogger.getLocale(), "\\u%04x", (int) c));
+                            else
+                                writer.write(c);
+                            break;
+                    }
+                }
+            writer.write('"');
+        }
+    }
+}
@@ -20,6 +20,7 @@ import akha.yakhont.Core;
 import akha.yakhont.Core.Utils.ViewHelper;
 import akha.yakhont.CoreLogger;
 import akha.yakhont.CoreLogger.Level;
+import akha.yakhont.CoreTrace;
 import akha.yakhont.SupportHelper;
 import akha.yakhont.loader.BaseResponse;
 import akha.yakhont.loader.BaseResponse.Source;
@@ -32,6 +33,10 @@ import android.content.res.Resources;
 import android.database.Cursor;
 import android.database.DataSetObserver;
 import android.os.Build;
+import android.os.Looper;
+import android.os.MessageQueue.IdleHandler;
+import android.provider.BaseColumns;
+import android.support.annotation.IntRange;
 import android.support.annotation.LayoutRes;
 import android.support.annotation.MainThread;
 import android.support.annotation.NonNull;
@@ -52,9 +57,9 @@ import android.widget.SpinnerAdapter;
 import android.widget.TextView;
 import android.widget.ThemedSpinnerAdapter;
 
-import com.squareup.picasso.Picasso;
-
+import java.util.ArrayDeque;
 import java.util.Collection;
+import java.util.Deque;
 import java.util.Map;
 import java.util.Set;
 
@@ -83,12 +88,18 @@ public class BaseCacheAdapter<T, R, E, D> implements ListAdapter, SpinnerAdapter
                              For Madmen Only
                                - Hermann Hesse, Steppenwolf
                                                                                                   */
+    /** The value returned for items without ID (the value is {@value}). */
+    @SuppressWarnings("WeakerAccess")
+    public static final long                                NO_ID           = RecyclerView.NO_ID;
+
     private             BaseAdapter                         mBaseAdapter;
     private final       BaseArrayAdapter<T>                 mArrayAdapter;
     private final       BaseCursorAdapter                   mCursorAdapter;
 
     private final       ArrayConverter<T, R, E, D>          mConverter;
 
+    private             CacheFilter                         mCacheFilter;
+
     /**
      * The API to convert a {@code BaseResponse} to collection.
      *
@@ -418,6 +429,83 @@ public class BaseCacheAdapter<T, R, E, D> implements ListAdapter, SpinnerAdapter
         return this;
     }
 
+    /**
+     * Sets the column to get the item IDs from (makes the IDs stable for both array and cursor adapters).
+     * If not set, the cursor adapter uses the {@link BaseColumns#_ID _ID} column, and the array one - positions.
+     * The items without the key value get the {@link #NO_ID}.
+     * Most implementations should use {@link ValuesCacheAdapterWrapper#setIdColumn} instead.
+     *
+     * @param column
+     *        The column name (or null)
+     *
+     * @return  This {@code BaseCacheAdapter} object
+     */
+    @SuppressWarnings({"unused", "UnusedReturnValue"})
+    public BaseCacheAdapter<T, R, E, D> setIdColumn(final String column) {
+        mArrayAdapter.setIdColumn(column);
+        return this;
+    }
+
+    /**
+     * Returns the column to get the item IDs from.
+     *
+     * @return  The column name (or null)
+     */
+    @SuppressWarnings("WeakerAccess")
+    public String getIdColumn() {
+        return mArrayAdapter.getIdColumn();
+    }
+
+    /** @exclude */ @SuppressWarnings("JavaDoc")
+    public static long getId(final Object value) {
+        if (value == null) return NO_ID;
+
+        if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte)
+            return ((Number) value).longValue();
+
+        final String strValue = value.toString();
+        try {
+            return Long.parseLong(strValue);
+        }
+        catch (NumberFormatException exception) {
+            return getHash(strValue);
+        }
+    }
+
+    // 64-bit FNV-1a: String.hashCode() is too short for the IDs, collisions are quite possible
+    private static long getHash(@NonNull final String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            hash ^= value.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return hash == NO_ID ? Long.MIN_VALUE: hash;
+    }
+
+    private long getCursorItemId(final int position) {
+        final String column = getIdColumn();
+        if (column == null || column.equals(BaseColumns._ID)) return mBaseAdapter.getItemId(position);
+
+        // the _id values are not mixed with the key column ones, the array adapter doesn't have them
+        final Object item = mBaseAdapter.getItem(position);
+        if (!(item instanceof Cursor)) return NO_ID;
+
+        final Cursor cursor = (Cursor) item;
+        final int    index  = cursor.getColumnIndex(column);
+        if (index < 0) {
+            CoreLogger.logWarning("ID column not found: " + column);
+            return NO_ID;
+        }
+
+        try {
+            return getId(cursor.getString(index));
+        }
+        catch (Exception exception) {
+            CoreLogger.log("ID column " + column, exception);
+            return NO_ID;
+        }
+    }
+
     ////////////////////////////////////////////////////////////////////////////////////////////////
 
     /** @exclude */ @SuppressWarnings("JavaDoc")
@@ -468,7 +556,23 @@ public class BaseCacheAdapter<T, R, E, D> implements ListAdapter, SpinnerAdapter
      */
     @Override
     public Filter getFilter() {
-        return isCursorAdapter() ? mCursorAdapter.getFilter(): mArrayAdapter.getFilter();
+        return mCacheFilter != null ? mCacheFilter:
+                isCursorAdapter() ? mCursorAdapter.getFilter(): mArrayAdapter.getFilter();
+    }
+
+    /**
+     * Sets the filter which queries the cache (instead of scanning the data in memory).
+     * Most implementations should use {@link ValuesCacheAdapterWrapper#setCacheFilter} instead.
+     *
+     * @param cacheFilter
+     *        The CacheFilter (or null to use the default filters)
+     *
+     * @return  This {@code BaseCacheAdapter} object
+     */
+    @SuppressWarnings({"unused", "UnusedReturnValue"})
+    public BaseCacheAdapter<T, R, E, D> setCacheFilter(final CacheFilter cacheFilter) {
+        mCacheFilter = cacheFilter;
+        return this;
     }
 
     /**
@@ -517,7 +621,7 @@ public class BaseCacheAdapter<T, R, E, D> implements ListAdapter, SpinnerAdapter
      */
     @Override
     public long getItemId(int position) {
-        return mBaseAdapter.getItemId(position);
+        return isCursorAdapter() ? getCursorItemId(position): mBaseAdapter.getItemId(position);
     }
 
     /**
@@ -533,7 +637,13 @@ public class BaseCacheAdapter<T, R, E, D> implements ListAdapter, SpinnerAdapter
      */
     @Override
     public View getView(int position, View convertView, ViewGroup parent) {
-        return mBaseAdapter.getView(position, convertView, parent);
+        CoreTrace.beginSection(CoreTrace.SECTION_ITEM_BIND);
+        try {
+            return mBaseAdapter.getView(position, convertView, parent);
+        }
+        finally {
+            CoreTrace.endSection();
+        }
     }
 
     /**
@@ -800,13 +910,7 @@ public class BaseCacheAdapter<T, R, E, D> implements ListAdapter, SpinnerAdapter
     /** @exclude */ @SuppressWarnings("JavaDoc")
     public static void bindImageView(@NonNull final Context context,
                                      @NonNull final ImageView imageView, final Object value) {
-        final String strValue = getString(value);
-        try {
-            imageView.setImageResource(Integer.parseInt(strValue));
-        }
-        catch (NumberFormatException e) {
-            Picasso.with(context).load(getString(value)).into(imageView);
-        }
+        ImageBinder.bind(context, imageView, value);
     }
 
     /** @exclude */ @SuppressWarnings("JavaDoc")
@@ -829,6 +933,7 @@ public class BaseCacheAdapter<T, R, E, D> implements ListAdapter, SpinnerAdapter
 
         private final           DataBinder<T>                   mDataBinder;
         private final           ViewInflater                    mViewInflater;
+        private final           ImagePrefetcher<T>              mImagePrefetcher;
 
         /** @exclude */ @SuppressWarnings("JavaDoc")
         protected BaseArrayAdapter(@NonNull final Context context, @LayoutRes final int layoutId,
@@ -837,6 +942,38 @@ public class BaseCacheAdapter<T, R, E, D> implements ListAdapter, SpinnerAdapter
 
             mDataBinder   = dataBinder;
             mViewInflater = new ViewInflater(context, layoutId);
+
+            mImagePrefetcher = new ImagePrefetcher<>(dataBinder, new ImagePrefetcher.Items<T>() {
+                @Override
+                public int getCount() {
+                    return BaseArrayAdapter.this.getCount();
+                }
+
+                @Override
+                public T getItem(int position) {
+                    return BaseArrayAdapter.this.getItem(position);
+                }
+            });
+        }
+
+        /** @exclude */ @SuppressWarnings("JavaDoc")
+        public DataBinder<T> getDataBinder() {
+            return mDataBinder;
+        }
+
+        /** @exclude */ @SuppressWarnings("JavaDoc")
+        public ViewInflater getViewInflater() {
+            return mViewInflater;
+        }
+
+        /**
+         * Returns the {@code ImagePrefetcher} which warms up the images cache for the upcoming rows.
+         *
+         * @return  The ImagePrefetcher
+         */
+        @NonNull
+        public ImagePrefetcher<T> getImagePrefetcher() {
+            return mImagePrefetcher;
         }
 
         /**
@@ -860,14 +997,57 @@ public class BaseCacheAdapter<T, R, E, D> implements ListAdapter, SpinnerAdapter
             mDataBinder.setAdapterViewBinder(viewBinder);
         }
 
+        /**
+         * Sets the column to get the item IDs from.
+         * Most implementations should use {@link ValuesCacheAdapterWrapper#setIdColumn} instead.
+         *
+         * @param column
+         *        The column name (or null to use positions as IDs)
+         */
+        public void setIdColumn(final String column) {
+            mDataBinder.setIdColumn(column);
+        }
+
+        /**
+         * Returns the column to get the item IDs from.
+         *
+         * @return  The column name (or null)
+         */
+        public String getIdColumn() {
+            return mDataBinder.getIdColumn();
+        }
+
+        /**
+         * Please refer to the base method description.
+         */
+        @Override
+        public long getItemId(int position) {
+            // positions are not stable, so they are not mixed with the key column values
+            if (mDataBinder.getIdColumn() == null) return super.getItemId(position);
+
+            final T item = getItem(position);
+            return item == null ? NO_ID: mDataBinder.getItemId(item);
+        }
+
+        /**
+         * Please refer to the base method description.
+         */
+        @Override
+        public boolean hasStableIds() {
+            return mDataBinder.getIdColumn() != null;
+        }
+
         /**
          * Please refer to the base method description.
          */
         @NonNull
         @Override
         public View getView(int position, View convertView, @NonNull ViewGroup parent) {
-            return mDataBinder.bind(position, getItem(position),
+            final View view = mDataBinder.bind(position, getItem(position),
                     convertView == null ? mViewInflater.inflate(parent): convertView);
+
+            mImagePrefetcher.onBind(position);
+            return view;
         }
 
         /** @exclude */ @SuppressWarnings("JavaDoc")
@@ -888,6 +1068,8 @@ public class BaseCacheAdapter<T, R, E, D> implements ListAdapter, SpinnerAdapter
 
         private   final         Context                         mContext;
         private                 ViewBinder                      mViewBinder;
+        private                 String                          mIdColumn;
+        private                 int   []                        mImageIndexes;
 
         @SuppressWarnings("WeakerAccess")
         protected final         String[]                        mFrom;
@@ -911,18 +1093,41 @@ public class BaseCacheAdapter<T, R, E, D> implements ListAdapter, SpinnerAdapter
             mViewBinder = viewBinder;
         }
 
+        public Context getContext() {
+            return mContext;
+        }
+
+        /**
+         * Returns the indices of the "from" values which are bound to the {@code ImageView ImageViews}.
+         *
+         * @return  The indices (or null if no item view was bound yet)
+         */
+        public int[] getImageIndexes() {
+            return mImageIndexes;
+        }
+
+        public String getIdColumn() {
+            return mIdColumn;
+        }
+
+        public void setIdColumn(final String column) {
+            mIdColumn = column;
+        }
+
+        public long getItemId(@NonNull final T item) {
+            return mIdColumn == null ? NO_ID: getId(getValue(item, mIdColumn));
+        }
+
         public View bind(final int position, final T item, final View mainView) {
             if (item == null) {
                 CoreLogger.logError("item is null, position = " + position);
                 return mainView;
             }
 
-            for (int i = 0; i < mTo.length; i++) {
-                final View view = mainView.findViewById(mTo[i]);
-                if (view == null) {
-                    CoreLogger.logError("view not found, index = " + i);
-                    continue;
-                }
+            final View[] views = getViews(mainView);
+            for (int i = 0; i < views.length; i++) {
+                final View view = views[i];
+                if (view == null) continue;
 
                 try {
                     setViewValue(view, item, i);
@@ -935,6 +1140,52 @@ public class BaseCacheAdapter<T, R, E, D> implements ListAdapter, SpinnerAdapter
             return mainView;
         }
 
+        /**
+         * Returns the views to bind data to (resolved once per item view and cached in its tag,
+         * so rebinding doesn't walk the views tree).
+         *
+         * @param mainView
+         *        The item view
+         *
+         * @return  The views (in the same order as the "to" ones, null for not found)
+         */
+        @NonNull
+        protected View[] getViews(@NonNull final View mainView) {
+            final Object tag = mainView.getTag(akha.yakhont.R.id.yakhont_data_binder_views);
+            if (tag instanceof ViewsHolder && ((ViewsHolder) tag).mTo == mTo)
+                return ((ViewsHolder) tag).mViews;
+
+            final View[] views = new View[mTo.length];
+            int imageViews = 0;
+            for (int i = 0; i < mTo.length; i++) {
+                views[i] = mainView.findViewById(mTo[i]);
+                if (views[i] == null) CoreLogger.logError("view not found, index = " + i);
+
+                if (views[i] instanceof ImageView) imageViews++;
+            }
+
+            if (mImageIndexes == null) {
+                final int[] imageIndexes = new int[imageViews];
+                for (int i = 0, j = 0; i < views.length; i++)
+                    if (views[i] instanceof ImageView) imageIndexes[j++] = i;
+                mImageIndexes = imageIndexes;
+            }
+
+            mainView.setTag(akha.yakhont.R.id.yakhont_data_binder_views, new ViewsHolder(mTo, views));
+            return views;
+        }
+
+        private static class ViewsHolder {
+
+            private final       int   []                        mTo;
+            private final       View  []                        mViews;
+
+            private ViewsHolder(@NonNull final int[] to, @NonNull final View[] views) {
+                mTo             = to;
+                mViews          = views;
+            }
+        }
+
         private void setViewValue(@NonNull final View view, @NonNull final T item, final int index) {
             final Object    value = getValue(item, index);
             final String strValue = getString(value);
@@ -956,6 +1207,11 @@ public class BaseCacheAdapter<T, R, E, D> implements ListAdapter, SpinnerAdapter
         }
 
         protected abstract Object getValue(@NonNull final T item, final int index);
+
+        @SuppressWarnings({"UnusedParameters", "WeakerAccess"})
+        protected Object getValue(@NonNull final T item, @NonNull final String column) {
+            return null;
+        }
     }
 
     ////////////////////////////////////////////////////////////////////////////////////////////////
@@ -963,10 +1219,17 @@ public class BaseCacheAdapter<T, R, E, D> implements ListAdapter, SpinnerAdapter
     /** @exclude */ @SuppressWarnings("JavaDoc")
     public static class ViewInflater {
 
+        /** The suggested number of item views to pre-inflate (the value is {@value}). */
+        public  static final    int                             DEFAULT_PRE_INFLATE     = 4;
+
         private final           LayoutInflater                  mInflater;
         @LayoutRes
         private final           int                             mLayoutId;
 
+        // main thread only
+        private final           Deque<View>                     mPool                   = new ArrayDeque<>();
+        private                 IdleHandler                     mIdleHandler;
+
         public ViewInflater(@NonNull final Context context, @LayoutRes final int layoutId) {
             mLayoutId   = layoutId;
             mInflater   = LayoutInflater.from(context);
@@ -975,11 +1238,54 @@ public class BaseCacheAdapter<T, R, E, D> implements ListAdapter, SpinnerAdapter
                 CoreLogger.logError("item layout ID is not defined");
         }
 
+        @MainThread
         public View inflate(final ViewGroup parent) {
+            final View view = mPool.poll();
+            if (view != null) return view;
+
             return mLayoutId == Core.NOT_VALID_RES_ID ? null:
                     mInflater.inflate(mLayoutId, parent, false);
         }
 
+        /**
+         * Inflates the item views in advance, one view per main thread's idle time
+         * (so neither frames are delayed, nor the views are created off the main thread).
+         * The {@link #inflate} takes views from this pool first.
+         *
+         * @param parent
+         *        The list to generate the layout params of the item views
+         *
+         * @param count
+         *        The number of item views to pre-inflate
+         */
+        @MainThread
+        public void preInflate(@NonNull final ViewGroup parent, @IntRange(from = 0) final int count) {
+            if (mLayoutId == Core.NOT_VALID_RES_ID || count <= 0) return;
+
+            if (mIdleHandler != null) Looper.myQueue().removeIdleHandler(mIdleHandler);
+
+            mIdleHandler = new IdleHandler() {
+                private int mCounter = count;
+
+                @Override
+                public boolean queueIdle() {
+                    if (mIdleHandler != this) return false;
+                    try {
+                        mPool.add(mInflater.inflate(mLayoutId, parent, false));
+                        if (--mCounter > 0) return true;
+
+                        CoreLogger.log("pre-inflated views: " + count);
+                    }
+                    catch (Exception exception) {
+                        CoreLogger.log("pre-inflation failed", exception);
+                    }
+                    mIdleHandler = null;
+                    return false;
+                }
+            };
+            Looper.myQueue().addIdleHandler(mIdleHandler);
+        }
+
         @SuppressWarnings("unused")
         @LayoutRes
         public int getLayoutId() {
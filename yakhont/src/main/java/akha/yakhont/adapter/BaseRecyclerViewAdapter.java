@@ -18,6 +18,7 @@ package akha.yakhont.adapter;
 
 import akha.yakhont.Core;
 import akha.yakhont.CoreLogger;
+import akha.yakhont.CoreTrace;
 import akha.yakhont.adapter.BaseCacheAdapter.DataBinder;
 import akha.yakhont.adapter.BaseCacheAdapter.ViewBinder;
 
@@ -52,12 +53,15 @@ public class BaseRecyclerViewAdapter<T, R, E, D, VH extends ViewHolder> extends
 
     private final   BaseCacheAdapter<T, R, E, D>    mBaseCacheAdapter;
     private final   DataBinder      <T>             mDataBinder;
+    private final   ImagePrefetcher <T>             mImagePrefetcher;
 
     protected       ViewHolderCreator<VH>           mViewHolderCreator;
 
     @LayoutRes
     protected final int                             mLayoutId;
 
+    private         boolean                         mViewPoolShared;
+
     /**
      * Called when RecyclerView needs a new RecyclerView.ViewHolder of the given type to represent an item.
      *
@@ -97,6 +101,33 @@ public class BaseRecyclerViewAdapter<T, R, E, D, VH extends ViewHolder> extends
         mBaseCacheAdapter = baseCacheAdapter;
         mDataBinder       = dataBinder;
         mLayoutId         = layoutId;
+
+        mImagePrefetcher  = new ImagePrefetcher<>(dataBinder, new ImagePrefetcher.Items<T>() {
+            @Override
+            public int getCount() {
+                return mBaseCacheAdapter.getCount();
+            }
+
+            @Override
+            public T getItem(int position) {
+                return mBaseCacheAdapter.getItem(position);
+            }
+        });
+    }
+
+    /** @exclude */ @SuppressWarnings("JavaDoc")
+    public DataBinder<T> getDataBinder() {
+        return mDataBinder;
+    }
+
+    /**
+     * Returns the {@code ImagePrefetcher} which warms up the images cache for the upcoming rows.
+     *
+     * @return  The ImagePrefetcher
+     */
+    @NonNull
+    public ImagePrefetcher<T> getImagePrefetcher() {
+        return mImagePrefetcher;
     }
 
     /**
@@ -145,7 +176,15 @@ public class BaseRecyclerViewAdapter<T, R, E, D, VH extends ViewHolder> extends
      */
     @Override
     public void onBindViewHolder(VH holder, int position) {
-        mDataBinder.bind(position, mBaseCacheAdapter.getItem(position), holder.itemView);
+        CoreTrace.beginSection(CoreTrace.SECTION_ITEM_BIND);
+        try {
+            mDataBinder.bind(position, mBaseCacheAdapter.getItem(position), holder.itemView);
+
+            if (!mBaseCacheAdapter.isCursorAdapter()) mImagePrefetcher.onBind(position);
+        }
+        finally {
+            CoreTrace.endSection();
+        }
     }
 
     /**
@@ -161,6 +200,37 @@ public class BaseRecyclerViewAdapter<T, R, E, D, VH extends ViewHolder> extends
                 mViewHolderCreator.onCreateViewHolder(parent, viewType, mLayoutId);
     }
 
+    /**
+     * Marks the adapter as using the shared {@code RecycledViewPool}: the item layout ID becomes the view type
+     * (so the adapters with the different item layouts could safely share the pool).
+     * Should be called before the adapter is attached to the {@code RecyclerView}.
+     * Most implementations should use {@yakhont.link BaseLoader.CoreLoadBuilder#setViewPoolShared} instead.
+     *
+     * @param shared
+     *        {@code true} if the {@code RecycledViewPool} is shared, {@code false} otherwise
+     */
+    public void setViewPoolShared(final boolean shared) {
+        mViewPoolShared = shared;
+    }
+
+    /**
+     * Returns the item layout ID as the view type if the {@code RecycledViewPool} is shared
+     * (please refer to {@link ViewPoolRegistry}), otherwise the default one (i.e. 0, as
+     * the {@code ViewHolderCreator} expects).
+     */
+    @Override
+    public int getItemViewType(int position) {
+        return !mViewPoolShared || mLayoutId == Core.NOT_VALID_RES_ID ? super.getItemViewType(position): mLayoutId;
+    }
+
+    /**
+     * Please refer to the base method description.
+     */
+    @Override
+    public long getItemId(int position) {
+        return mBaseCacheAdapter.getItemId(position);
+    }
+
     /**
      * Please refer to the base method description.
      */
@@ -0,0 +1,303 @@
+/*
+ * Copyright (C) 2015-2017 akha, a.k.a. Alexander Kharitonov
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package akha.yakhont.adapter;
+
+import akha.yakhont.BaseCacheProvider.FullTextSearch;
+import akha.yakhont.CoreLogger;
+import akha.yakhont.loader.BaseResponse;
+
+import android.content.Context;
+import android.database.Cursor;
+import android.net.Uri;
+import android.os.SystemClock;
+import android.provider.BaseColumns;
+import android.support.annotation.IntRange;
+import android.support.annotation.NonNull;
+import android.support.v4.content.ContentResolverCompat;
+import android.support.v4.os.CancellationSignal;
+import android.support.v7.widget.RecyclerView;
+import android.widget.Filter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * The {@link Filter} which queries the cache table (instead of scanning the data in memory).
+ * Queries run in background (the {@code Filter}'s worker thread); the typing is debounced and
+ * superseded queries are cancelled. For example:
+ *
+ * <p><pre style="background-color: silver; border: thin solid black;">
+ * import akha.yakhont.adapter.CacheFilter;
+ *
+ * // 'loaderWrapper' is the BaseResponseLoaderWrapper and 'wrapper' is the ValuesCacheAdapterWrapper
+ * CacheFilter filter = wrapper.setCacheFilter(getActivity(), loaderWrapper.getUri(), "title");
+ *
+ * // your code here, e.g. from the TextWatcher
+ * filter.filter(text);
+ * </pre>
+ *
+ * Found rows are shown via the cursor adapter of the {@link BaseCacheAdapter}.
+ *
+ * @author akha
+ */
+public class CacheFilter extends Filter {
+
+    /** The default debounce delay in milliseconds (the value is {@value}). */
+    @SuppressWarnings("WeakerAccess")
+    public  static final int                            DEFAULT_DEBOUNCE        = 300;
+
+    private static final char                           ESCAPE                  = '\\';
+
+    private final        Context                        mContext;
+    private final        Uri                            mUri;
+    private final        BaseCacheAdapter<?, ?, ?, ?>   mAdapter;
+    private final        RecyclerView.Adapter<?>        mRecyclerViewAdapter;
+    private final        ValuesCacheAdapterWrapper<?, ?, ?>
+                                                        mWrapper;
+    private final        String[]                       mColumns;
+
+    private              boolean                        mPrefix;
+    private              boolean                        mFullTextSearch;
+    private              int                            mDebounce               = DEFAULT_DEBOUNCE;
+
+    private final        AtomicInteger                  mSequence               = new AtomicInteger();
+    private final        AtomicReference<CancellationSignal>
+                                                        mCancellationSignal     = new AtomicReference<>();
+
+    // main thread only
+    private              Cursor                         mCursor;
+
+    /**
+     * Initialises a newly created {@code CacheFilter} object.
+     *
+     * @param context
+     *        The context
+     *
+     * @param uri
+     *        The URI of the cache table
+     *
+     * @param adapter
+     *        The adapter to show the found rows
+     *
+     * @param recyclerViewAdapter
+     *        The {@code RecyclerView} adapter to notify (or null)
+     *
+     * @param columns
+     *        The columns to search in (if empty, all the adapter's columns except {@link BaseColumns#_ID _ID})
+     */
+    public CacheFilter(@NonNull final Context context, @NonNull final Uri uri,
+                       @NonNull final BaseCacheAdapter<?, ?, ?, ?> adapter,
+                       final RecyclerView.Adapter<?> recyclerViewAdapter, final String... columns) {
+        this(context, uri, adapter, recyclerViewAdapter, null, columns);
+    }
+
+    CacheFilter(@NonNull final Context context, @NonNull final Uri uri,
+                @NonNull final ValuesCacheAdapterWrapper<?, ?, ?> wrapper, final String... columns) {
+        this(context, uri, wrapper.getAdapter(), wrapper.getRecyclerViewAdapter(), wrapper, columns);
+    }
+
+    private CacheFilter(@NonNull final Context context, @NonNull final Uri uri,
+                        @NonNull final BaseCacheAdapter<?, ?, ?, ?> adapter,
+                        final RecyclerView.Adapter<?> recyclerViewAdapter,
+                        final ValuesCacheAdapterWrapper<?, ?, ?> wrapper, final String... columns) {
+        mContext                = context.getApplicationContext();
+        mUri                    = uri;
+        mAdapter                = adapter;
+        mRecyclerViewAdapter    = recyclerViewAdapter;
+        mWrapper                = wrapper;
+        mColumns                = columns != null && columns.length > 0 ? columns: getColumns(adapter);
+
+        CoreLogger.log("filter columns: " + Arrays.toString(mColumns));
+    }
+
+    private static String[] getColumns(@NonNull final BaseCacheAdapter<?, ?, ?, ?> adapter) {
+        final List<String> columns = new ArrayList<>();
+        for (final String column: adapter.getArrayAdapter().getFrom())
+            if (!BaseColumns._ID.equals(column)) columns.add(column);
+        return columns.toArray(new String[columns.size()]);
+    }
+
+    /**
+     * Sets the search mode.
+     *
+     * @param prefix
+     *        {@code true} to search values starting with the constraint, {@code false} (default)
+     *        to search values containing it
+     *
+     * @return  This {@code CacheFilter} object
+     */
+    @SuppressWarnings({"unused", "UnusedReturnValue"})
+    public CacheFilter setPrefix(final boolean prefix) {
+        mPrefix = prefix;
+        return this;
+    }
+
+    /**
+     * Switches to the full-text search (the words are matched as prefixes, the rows with more matches go first).
+     * The columns should be registered as searchable, please refer to
+     * {@link akha.yakhont.BaseCacheProvider.FullTextSearch} for more info.
+     *
+     * @param fullTextSearch
+     *        {@code true} to use the full-text index, {@code false} (default) to use the LIKE queries
+     *
+     * @return  This {@code CacheFilter} object
+     */
+    @SuppressWarnings({"unused", "UnusedReturnValue"})
+    public CacheFilter setFullTextSearch(final boolean fullTextSearch) {
+        mFullTextSearch = fullTextSearch;
+        return this;
+    }
+
+    /**
+     * Sets the debounce delay: the query starts only if the constraint was not changed during that time.
+     *
+     * @param debounce
+     *        The delay in milliseconds (the default one is {@link #DEFAULT_DEBOUNCE})
+     *
+     * @return  This {@code CacheFilter} object
+     */
+    @SuppressWarnings({"unused", "UnusedReturnValue"})
+    public CacheFilter setDebounce(@IntRange(from = 0) final int debounce) {
+        mDebounce = Math.max(debounce, 0);
+        return this;
+    }
+
+    /**
+     * Please refer to the base method description.
+     */
+    @Override
+    public void filter(final CharSequence constraint, final FilterListener listener) {
+        mSequence.incrementAndGet();
+
+        final CancellationSignal cancellationSignal = mCancellationSignal.get();
+        if (cancellationSignal != null) cancellationSignal.cancel();
+
+        super.filter(constraint, listener);
+    }
+
+    private boolean isSuperseded(final int sequence) {
+        return sequence != mSequence.get();
+    }
+
+    /**
+     * Please refer to the base method description.
+     */
+    @Override
+    protected FilterResults performFiltering(final CharSequence constraint) {
+        final int sequence = mSequence.get();
+
+        if (mDebounce > 0) SystemClock.sleep(mDebounce);
+        if (isSuperseded(sequence)) return null;
+
+        final String        value               = constraint == null ? "": constraint.toString().trim();
+        final String        query               = mFullTextSearch ? FullTextSearch.getPrefixQuery(value): null;
+        final boolean       all                 = mFullTextSearch ? query.length() == 0:
+                                                        value.length() == 0 || mColumns.length == 0;
+
+        final Uri           uri                 = all || !mFullTextSearch ? mUri: FullTextSearch.getSearchUri(mUri, query);
+        final String        selection           = all || mFullTextSearch ? null: getSelection();
+        final String[]      selectionArgs       = all || mFullTextSearch ? null: getSelectionArgs(value);
+
+        final CancellationSignal cancellationSignal = new CancellationSignal();
+        mCancellationSignal.set(cancellationSignal);
+
+        Cursor cursor = null;
+        try {
+            cursor = ContentResolverCompat.query(mContext.getContentResolver(), uri, null,
+                    selection, selectionArgs, null, cancellationSignal);
+            // fills the cursor window in background
+            final int count = cursor == null ? 0: cursor.getCount();
+
+            if (isSuperseded(sequence)) {
+                close(cursor);
+                return null;
+            }
+
+            final FilterResults results = new FilterResults();
+            results.values  = cursor;
+            results.count   = count;
+
+            return results;
+        }
+        catch (Exception exception) {
+            close(cursor);
+            if (!cancellationSignal.isCanceled()) CoreLogger.log("filter failed, constraint " + value, exception);
+            return null;
+        }
+        finally {
+            mCancellationSignal.compareAndSet(cancellationSignal, null);
+        }
+    }
+
+    private String getSelection() {
+        final StringBuilder builder = new StringBuilder();
+        for (final String column: mColumns) {
+            if (builder.length() > 0) builder.append(" OR ");
+            builder.append(column).append(" LIKE ? ESCAPE '").append(ESCAPE).append("'");
+        }
+        return builder.toString();
+    }
+
+    private String[] getSelectionArgs(@NonNull final String value) {
+        final String pattern = (mPrefix ? "": "%") + escape(value) + "%";
+
+        final String[] args = new String[mColumns.length];
+        Arrays.fill(args, pattern);
+        return args;
+    }
+
+    private static String escape(@NonNull final String value) {
+        final StringBuilder builder = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            final char c = value.charAt(i);
+            if (c == '%' || c == '_' || c == ESCAPE) builder.append(ESCAPE);
+            builder.append(c);
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Please refer to the base method description.
+     */
+    @Override
+    protected void publishResults(final CharSequence constraint, final FilterResults results) {
+        if (results == null || !(results.values instanceof Cursor)) return;
+
+        final Cursor cursor = (Cursor) results.values;
+        // the wrapper drops its pending incremental updates too (otherwise they'd replace the found rows)
+        if (mWrapper != null)
+            mWrapper.updateCursor(cursor);
+        else {
+            mAdapter.updateCursor(cursor);
+            if (mRecyclerViewAdapter != null) mRecyclerViewAdapter.notifyDataSetChanged();
+        }
+
+        // the empty cursor is not passed to the adapter
+        if (cursor.getCount() == 0) close(cursor);
+
+        close(mCursor);
+        mCursor = cursor.isClosed() || cursor == BaseResponse.EMPTY_CURSOR ? null: cursor;
+    }
+
+    private static void close(final Cursor cursor) {
+        // the shared empty cursor is returned by the provider on errors
+        if (cursor != null && cursor != BaseResponse.EMPTY_CURSOR && !cursor.isClosed()) cursor.close();
+    }
+}
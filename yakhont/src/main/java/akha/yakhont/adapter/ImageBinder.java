@@ -0,0 +1,495 @@
+/*
+ * Copyright (C) 2015-2017 akha, a.k.a. Alexander Kharitonov
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package akha.yakhont.adapter;
+
+import akha.yakhont.CoreLogger;
+
+import android.content.Context;
+import android.support.annotation.IntRange;
+import android.support.annotation.NonNull;
+import android.support.v7.widget.RecyclerView;
+import android.widget.AbsListView;
+import android.widget.ImageView;
+
+import com.squareup.picasso.Callback;
+import com.squareup.picasso.LruCache;
+import com.squareup.picasso.MemoryPolicy;
+import com.squareup.picasso.Picasso;
+import com.squareup.picasso.Picasso.LoadedFrom;
+import com.squareup.picasso.Picasso.Priority;
+import com.squareup.picasso.Request;
+import com.squareup.picasso.RequestCreator;
+import com.squareup.picasso.RequestHandler;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Binds values to {@link ImageView ImageViews}: the value is classified first (resource ID, image data
+ * or URI), and URIs and image data are loaded via <a href="http://square.github.io/picasso/">Picasso</a>
+ * (so the image data are decoded in background, with the same fit / resize options as the URIs).
+ * Also provides the Picasso options (fit / resize, memory cache size) and pausing of the image
+ * requests during flings.
+ * <p>
+ * By default the application's Picasso instance ({@link Picasso#with}) is used, so the one set via
+ * {@link Picasso#setSingletonInstance} is honoured too; the image data are loaded by the separate instance
+ * (created on demand) which knows how to decode them. To use the same instance for all the images, please set it
+ * via {@link #setPicasso} or {@link #setMemoryCacheSize}. For example:
+ *
+ * <p><pre style="background-color: silver; border: thin solid black;">
+ * import akha.yakhont.adapter.ImageBinder;
+ *
+ * ImageBinder.setMemoryCacheSize(context, 16 * 1024 * 1024);
+ * ImageBinder.setFit(true);
+ *
+ * // for RecyclerViews created via CoreLoadBuilder the listener is added automatically
+ * listView.setOnScrollListener(ImageBinder.getListViewScrollListener(context, null));
+ * </pre>
+ *
+ * @author akha
+ */
+@SuppressWarnings("WeakerAccess")
+public class ImageBinder {
+
+    /** The tag of all the image requests (for pause / resume). */
+    public  static final Object                 TAG                 = ImageBinder.class;
+
+    // resource IDs are positive integers, i.e. no more than 10 digits
+    private static final int                    MAX_ID_LENGTH       = 10;
+
+    private static final String                 SCHEME_DATA         = "yakhont-image";
+    private static final int                    MAX_DATA            = 64;
+
+    // the image data to decode, by URI (the URI is the data digest, so the memory cache works for them too)
+    private static final Map<String, byte[]>    sData               = Collections.synchronizedMap(
+            new LinkedHashMap<String, byte[]>(MAX_DATA, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(final Map.Entry<String, byte[]> eldest) {
+                    return size() > MAX_DATA;
+                }
+            });
+
+    private static volatile Picasso             sPicasso;
+    // for the image data if there's no dedicated instance (the application's one can't decode them)
+    private static volatile Picasso             sDataPicasso;
+
+    private static volatile boolean             sFit;
+    private static volatile int                 sWidth, sHeight;
+    private static volatile boolean             sCenterCrop         = true;
+    private static volatile boolean             sPauseOnFling       = true;
+    private static volatile boolean             sPaused;
+
+    private ImageBinder() {
+    }
+
+    /**
+     * Sets the size of the images memory cache (creates the dedicated {@code Picasso} instance,
+     * please refer to {@link #setPicasso} for more info).
+     *
+     * @param context
+     *        The context
+     *
+     * @param size
+     *        The memory cache size in bytes
+     */
+    @SuppressWarnings("unused")
+    public static void setMemoryCacheSize(@NonNull final Context context, @IntRange(from = 1) final int size) {
+        if (size <= 0) {
+            CoreLogger.logError("wrong memory cache size " + size);
+            return;
+        }
+        setPicasso(new Picasso.Builder(context.getApplicationContext()).memoryCache(new LruCache(size)));
+    }
+
+    /**
+     * Creates the dedicated {@code Picasso} instance for all the images (instead of the application's one),
+     * the handler for the image data is added to the builder. Should be called (once) before the first
+     * image was loaded, e.g. from the {@code Application.onCreate()}.
+     *
+     * @param builder
+     *        The {@code Picasso} builder
+     */
+    @SuppressWarnings("unused")
+    public static void setPicasso(@NonNull final Picasso.Builder builder) {
+        synchronized (ImageBinder.class) {
+            // the requests (including the paused ones) are bound to the existing instance
+            if (sPicasso != null) {
+                CoreLogger.logError("Picasso already set, ignored");
+                return;
+            }
+            sPicasso = builder.addRequestHandler(new DataRequestHandler()).build();
+        }
+    }
+
+    /**
+     * Returns the {@code Picasso} instance to use: the one set via {@link #setPicasso} (or
+     * {@link #setMemoryCacheSize}), or the application's one.
+     *
+     * @param context
+     *        The context
+     *
+     * @return  The {@code Picasso} instance
+     */
+    @NonNull
+    public static Picasso getPicasso(@NonNull final Context context) {
+        final Picasso picasso = sPicasso;
+        return picasso != null ? picasso: Picasso.with(context);
+    }
+
+    private static Picasso getDataPicasso(@NonNull final Context context) {
+        Picasso picasso = sPicasso;
+        if (picasso != null) return picasso;
+
+        picasso = sDataPicasso;
+        if (picasso == null)
+            synchronized (ImageBinder.class) {
+                picasso = sDataPicasso;
+                if (picasso == null) sDataPicasso = picasso = new Picasso.Builder(context.getApplicationContext())
+                        .addRequestHandler(new DataRequestHandler()).build();
+            }
+        return picasso;
+    }
+
+    /**
+     * Resizes images to exactly match the target {@code ImageView} size (please refer to
+     * {@link RequestCreator#fit} for more info). Cancels {@link #setResize resize}.
+     *
+     * @param fit
+     *        {@code true} to resize images to the {@code ImageView} size, {@code false} otherwise
+     */
+    @SuppressWarnings("unused")
+    public static void setFit(final boolean fit) {
+        sFit = fit;
+        if (fit) sWidth = sHeight = 0;
+    }
+
+    /**
+     * Resizes images to the specified size. Cancels {@link #setFit fit}.
+     *
+     * @param width
+     *        The target width (or 0 to cancel resizing)
+     *
+     * @param height
+     *        The target height (or 0 to cancel resizing)
+     */
+    @SuppressWarnings("unused")
+    public static void setResize(@IntRange(from = 0) final int width, @IntRange(from = 0) final int height) {
+        sWidth  = Math.max(width,  0);
+        sHeight = Math.max(height, 0);
+        if (sWidth > 0 || sHeight > 0) sFit = false;
+    }
+
+    /**
+     * Sets the scaling for the fit / resize options.
+     *
+     * @param centerCrop
+     *        {@code true} (default) to crop images, {@code false} to scale them inside the bounds
+     */
+    @SuppressWarnings("unused")
+    public static void setCenterCrop(final boolean centerCrop) {
+        sCenterCrop = centerCrop;
+    }
+
+    /**
+     * Enables or disables pausing of the image requests during flings (enabled by default).
+     *
+     * @param pauseOnFling
+     *        {@code true} to pause image requests during flings, {@code false} otherwise
+     */
+    @SuppressWarnings("unused")
+    public static void setPauseOnFling(final boolean pauseOnFling) {
+        sPauseOnFling = pauseOnFling;
+    }
+
+    /**
+     * Checks whether the image requests should be paused during flings.
+     *
+     * @return  {@code true} if image requests should be paused during flings, {@code false} otherwise
+     */
+    public static boolean isPauseOnFling() {
+        return sPauseOnFling;
+    }
+
+    /**
+     * Pauses the image requests.
+     *
+     * @param context
+     *        The context
+     */
+    public static void pause(@NonNull final Context context) {
+        sPaused = true;
+        getPicasso(context).pauseTag(TAG);
+
+        final Picasso dataPicasso = sDataPicasso;
+        if (dataPicasso != null) dataPicasso.pauseTag(TAG);
+    }
+
+    /**
+     * Resumes the image requests.
+     *
+     * @param context
+     *        The context
+     */
+    public static void resume(@NonNull final Context context) {
+        sPaused = false;
+        getPicasso(context).resumeTag(TAG);
+
+        final Picasso dataPicasso = sDataPicasso;
+        if (dataPicasso != null) dataPicasso.resumeTag(TAG);
+    }
+
+    /**
+     * Checks whether the image requests were {@link #pause paused}.
+     *
+     * @return  {@code true} if the image requests were paused, {@code false} otherwise
+     */
+    public static boolean isPaused() {
+        return sPaused;
+    }
+
+    /**
+     * Returns the {@code RecyclerView} scroll listener which pauses the image requests during flings.
+     *
+     * @param context
+     *        The context
+     *
+     * @return  The scroll listener
+     */
+    @NonNull
+    public static RecyclerView.OnScrollListener getRecyclerViewScrollListener(@NonNull final Context context) {
+        final Context appContext = context.getApplicationContext();
+        return new RecyclerView.OnScrollListener() {
+            @Override
+            public void onScrollStateChanged(final RecyclerView recyclerView, final int newState) {
+                onScrollStateChanged(appContext, newState == RecyclerView.SCROLL_STATE_SETTLING);
+            }
+        };
+    }
+
+    /**
+     * Returns the {@code AbsListView} scroll listener which pauses the image requests during flings.
+     *
+     * @param context
+     *        The context
+     *
+     * @param listener
+     *        The scroll listener to delegate calls to (or null)
+     *
+     * @return  The scroll listener
+     */
+    @NonNull
+    @SuppressWarnings("unused")
+    public static AbsListView.OnScrollListener getListViewScrollListener(@NonNull final Context context,
+                                                                         final AbsListView.OnScrollListener listener) {
+        final Context appContext = context.getApplicationContext();
+        return new AbsListView.OnScrollListener() {
+            @Override
+            public void onScrollStateChanged(final AbsListView view, final int scrollState) {
+                ImageBinder.onScrollStateChanged(appContext, scrollState == SCROLL_STATE_FLING);
+                if (listener != null) listener.onScrollStateChanged(view, scrollState);
+            }
+
+            @Override
+            public void onScroll(final AbsListView view, final int firstVisibleItem,
+                                 final int visibleItemCount, final int totalItemCount) {
+                if (listener != null) listener.onScroll(view, firstVisibleItem, visibleItemCount, totalItemCount);
+            }
+        };
+    }
+
+    private static void onScrollStateChanged(@NonNull final Context context, final boolean fling) {
+        if (!sPauseOnFling) return;
+
+        if (fling)
+            pause(context);
+        else
+            resume(context);
+    }
+
+    /**
+     * Binds the value to the {@code ImageView}.
+     *
+     * @param context
+     *        The context
+     *
+     * @param imageView
+     *        The {@code ImageView}
+     *
+     * @param value
+     *        The value to bind: the resource ID, the image data (byte array) or URI
+     */
+    public static void bind(@NonNull final Context context, @NonNull final ImageView imageView, final Object value) {
+        if (value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            setImageResource(context, imageView, ((Number) value).intValue());
+            return;
+        }
+        if (value instanceof Long) {
+            final long id = (Long) value;
+            if (id >= 0 && id <= Integer.MAX_VALUE)
+                setImageResource(context, imageView, (int) id);
+            else
+                CoreLogger.logError("wrong resource ID " + id);
+            return;
+        }
+
+        final String strValue = value == null || value instanceof Exception ? null:
+                value instanceof byte[] ? getDataUri((byte[]) value): value.toString().trim();
+        if (strValue == null || strValue.length() == 0) {
+            cancelRequest(context, imageView);
+            imageView.setImageDrawable(null);
+            return;
+        }
+
+        if (value instanceof byte[])
+            load(context, getDataPicasso(context), imageView, strValue);
+        else if (isResourceId(strValue))
+            setImageResource(context, imageView, (int) Long.parseLong(strValue));
+        else
+            load(context, getPicasso(context), imageView, strValue);
+    }
+
+    private static String getDataUri(@NonNull final byte[] data) {
+        if (data.length == 0) return null;
+
+        final byte[] digest;
+        try {
+            digest = MessageDigest.getInstance("MD5").digest(data);
+        }
+        catch (NoSuchAlgorithmException exception) {
+            CoreLogger.log("image data digest failed", exception);
+            return null;
+        }
+
+        final StringBuilder builder = new StringBuilder(SCHEME_DATA).append("://");
+        for (final byte b: digest)
+            builder.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+
+        final String uri = builder.toString();
+        sData.put(uri, data);
+        return uri;
+    }
+
+    // decodes the image data in background, Picasso does the sampling (for fit / resize) and caching
+    private static class DataRequestHandler extends RequestHandler {
+
+        @Override
+        public boolean canHandleRequest(final Request data) {
+            return data.uri != null && SCHEME_DATA.equals(data.uri.getScheme());
+        }
+
+        @Override
+        public Result load(final Request request, final int networkPolicy) throws IOException {
+            final byte[] data = sData.get(request.uri.toString());
+            if (data == null) throw new IOException("image data not found, uri " + request.uri);
+
+            return new Result(new ByteArrayInputStream(data), LoadedFrom.DISK);
+        }
+    }
+
+    /**
+     * Returns the URI to load the image from (if the value is neither resource ID nor image data).
+     *
+     * @param value
+     *        The value to bind
+     *
+     * @return  The URI or null
+     */
+    static String getUri(final Object value) {
+        if (value == null || value instanceof Number || value instanceof byte[] || value instanceof Exception)
+            return null;
+
+        final String strValue = value.toString().trim();
+        return strValue.length() == 0 || isResourceId(strValue) ? null: strValue;
+    }
+
+    /**
+     * Warms up the image cache with the low priority request.
+     *
+     * @param context
+     *        The context
+     *
+     * @param uri
+     *        The URI to load the image from
+     *
+     * @param tag
+     *        The tag to cancel the request
+     *
+     * @param callback
+     *        The callback (or null)
+     */
+    static void prefetch(@NonNull final Context context, @NonNull final String uri, @NonNull final Object tag,
+                         final Callback callback) {
+        // 'fit' needs the target view, so without resizing only the disk cache is warmed up
+        final boolean fit = sFit;
+
+        RequestCreator request = createRequest(getPicasso(context), uri, tag, false).priority(Priority.LOW);
+        if (fit) request = request.memoryPolicy(MemoryPolicy.NO_STORE);
+
+        request.fetch(callback);
+    }
+
+    private static boolean isResourceId(@NonNull final String value) {
+        final int length = value.length();
+        if (length > MAX_ID_LENGTH) return false;
+
+        for (int i = 0; i < length; i++)
+            if (value.charAt(i) < '0' || value.charAt(i) > '9') return false;
+
+        return Long.parseLong(value) <= Integer.MAX_VALUE;
+    }
+
+    private static void setImageResource(@NonNull final Context context, @NonNull final ImageView imageView,
+                                         final int resId) {
+        cancelRequest(context, imageView);
+        imageView.setImageResource(resId);
+    }
+
+    // the recycled view could have the pending request (of any of the Picasso instances)
+    private static void cancelRequest(@NonNull final Context context, @NonNull final ImageView imageView) {
+        getPicasso(context).cancelRequest(imageView);
+
+        final Picasso dataPicasso = sDataPicasso;
+        if (dataPicasso != null) dataPicasso.cancelRequest(imageView);
+    }
+
+    private static void load(@NonNull final Context context, @NonNull final Picasso picasso,
+                             @NonNull final ImageView imageView, @NonNull final String uri) {
+        // Picasso cancels the previous request for the view only if it was made by the same instance
+        cancelRequest(context, imageView);
+        createRequest(picasso, uri, TAG, sFit).into(imageView);
+    }
+
+    // the same transformations for loading and prefetching - so the memory cache keys are the same too
+    private static RequestCreator createRequest(@NonNull final Picasso picasso, @NonNull final String uri,
+                                                @NonNull final Object tag, final boolean fit) {
+        RequestCreator request = picasso.load(uri).tag(tag);
+
+        if (fit)
+            request = request.fit();
+        else if (sWidth > 0 || sHeight > 0)
+            request = request.resize(sWidth, sHeight);
+        else
+            return request;
+
+        return sCenterCrop ? request.centerCrop(): request.centerInside();
+    }
+}
@@ -0,0 +1,200 @@
+/*
+ * Copyright (C) 2015-2017 akha, a.k.a. Alexander Kharitonov
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package akha.yakhont.adapter;
+
+import akha.yakhont.adapter.BaseCacheAdapter.DataBinder;
+
+import android.support.annotation.IntRange;
+import android.support.annotation.MainThread;
+import android.support.annotation.NonNull;
+
+import com.squareup.picasso.Callback;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Prefetches images for the rows which are about to appear: on every bind the image-bound values
+ * of the next rows (in the scroll direction) are resolved and the images cache is warmed up
+ * with the low priority requests. The requests for the rows which went out of range are cancelled.
+ * <p>
+ * Used by the {@link BaseRecyclerViewAdapter} and {@link BaseCacheAdapter.BaseArrayAdapter};
+ * most implementations should use {@link ValuesCacheAdapterWrapper#setImagePrefetchDistance} to configure it.
+ *
+ * @param <T>
+ *        The type of items
+ *
+ * @author akha
+ */
+public class ImagePrefetcher<T> {
+
+    /** The default number of rows to prefetch images for (the value is {@value}). */
+    @SuppressWarnings("WeakerAccess")
+    public  static final int                    DEFAULT_DISTANCE    = 4;
+
+    private final        DataBinder<T>          mDataBinder;
+    private final        Items<T>               mItems;
+
+    private              int                    mDistance           = DEFAULT_DISTANCE;
+
+    // main thread only
+    private              int                    mLastPosition       = -1;
+    private final        Map<String, Object>    mRequests           = new HashMap<>();
+
+    /**
+     * The items to prefetch images for.
+     *
+     * @param <T>
+     *        The type of items
+     */
+    public interface Items<T> {
+
+        /**
+         * Returns the number of items.
+         *
+         * @return  The number of items
+         */
+        int getCount();
+
+        /**
+         * Returns the item.
+         *
+         * @param position
+         *        The position of the item
+         *
+         * @return  The item (or null)
+         */
+        T getItem(int position);
+    }
+
+    /**
+     * Initialises a newly created {@code ImagePrefetcher} object.
+     *
+     * @param dataBinder
+     *        The {@code DataBinder} to get the image-bound values from
+     *
+     * @param items
+     *        The items
+     */
+    public ImagePrefetcher(@NonNull final DataBinder<T> dataBinder, @NonNull final Items<T> items) {
+        mDataBinder     = dataBinder;
+        mItems          = items;
+    }
+
+    /**
+     * Sets the number of rows to prefetch images for.
+     *
+     * @param distance
+     *        The number of rows (or 0 to disable prefetching)
+     */
+    @MainThread
+    public void setDistance(@IntRange(from = 0) final int distance) {
+        mDistance = Math.max(distance, 0);
+        if (mDistance == 0) cancel();
+    }
+
+    /**
+     * Returns the number of rows to prefetch images for.
+     *
+     * @return  The number of rows
+     */
+    @SuppressWarnings("unused")
+    public int getDistance() {
+        return mDistance;
+    }
+
+    /**
+     * Should be called when the row was bound.
+     *
+     * @param position
+     *        The position of the row
+     */
+    @MainThread
+    public void onBind(final int position) {
+        final boolean forward = position >= mLastPosition;
+        mLastPosition = position;
+
+        // images are not loaded during flings, so there's no sense to prefetch them
+        if (mDistance == 0 || ImageBinder.isPaused()) return;
+
+        final int[] indexes = mDataBinder.getImageIndexes();
+        if (indexes == null || indexes.length == 0) return;
+
+        final int           count   = mItems.getCount();
+        final Set<String>   uris    = new LinkedHashSet<>();
+
+        for (int i = 1; i <= mDistance; i++) {
+            final int itemPosition = forward ? position + i: position - i;
+            if (itemPosition < 0 || itemPosition >= count) break;
+
+            final T item = mItems.getItem(itemPosition);
+            if (item == null) continue;
+
+            for (final int index: indexes) {
+                final String uri = ImageBinder.getUri(mDataBinder.getValue(item, index));
+                if (uri != null) uris.add(uri);
+            }
+        }
+
+        for (final Iterator<Map.Entry<String, Object>> iterator = mRequests.entrySet().iterator(); iterator.hasNext();) {
+            final Map.Entry<String, Object> entry = iterator.next();
+            if (uris.contains(entry.getKey())) continue;
+
+            ImageBinder.getPicasso(mDataBinder.getContext()).cancelTag(entry.getValue());
+            iterator.remove();
+        }
+
+        for (final String uri: uris)
+            if (!mRequests.containsKey(uri)) prefetch(uri);
+    }
+
+    private void prefetch(@NonNull final String uri) {
+        // unique tag - to cancel this request only
+        final Object tag = new Object();
+        mRequests.put(uri, tag);
+
+        ImageBinder.prefetch(mDataBinder.getContext(), uri, tag, new Callback() {
+            @Override
+            public void onSuccess() {
+                onComplete();
+            }
+
+            @Override
+            public void onError() {
+                onComplete();
+            }
+
+            private void onComplete() {
+                if (mRequests.get(uri) == tag) mRequests.remove(uri);
+            }
+        });
+    }
+
+    /**
+     * Cancels all the prefetch requests.
+     */
+    @MainThread
+    public void cancel() {
+        for (final Object tag: mRequests.values())
+            ImageBinder.getPicasso(mDataBinder.getContext()).cancelTag(tag);
+
+        mRequests.clear();
+    }
+}
@@ -29,20 +29,33 @@ import akha.yakhont.adapter.BaseCacheAdapter.DataBinder;
 import akha.yakhont.adapter.BaseCacheAdapter.ViewBinder;
 import akha.yakhont.adapter.BaseCacheAdapter.ViewInflater;
 import akha.yakhont.loader.BaseResponse;
+import akha.yakhont.loader.BaseResponse.Source;
 
 import android.app.Activity;
 import android.content.ContentValues;
 import android.content.Context;
+import android.database.Cursor;
+import android.net.Uri;
 import android.provider.BaseColumns;
+import android.support.annotation.IntRange;
 import android.support.annotation.LayoutRes;
+import android.support.annotation.MainThread;
 import android.support.annotation.NonNull;
 import android.support.annotation.Size;
+import android.support.v7.util.DiffUtil;
+import android.support.v7.widget.RecyclerView;
 import android.support.v7.widget.RecyclerView.ViewHolder;
 import android.view.ViewGroup;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 /**
  * The wrapper for {@link BaseCacheAdapter}.
@@ -60,9 +73,22 @@ import java.util.Set;
  */
 public class ValuesCacheAdapterWrapper<R, E, D> implements CacheAdapter<R, E, D> {
 
+    private static final int                                            DIFF_THREAD_KEEP_ALIVE  = 30;   // seconds
+
     private final BaseCacheAdapter <ContentValues, R, E, D>             mBaseCacheAdapter;
     private final ContentValuesRecyclerViewAdapter<R, E, D>             mBaseRecyclerViewAdapter;
 
+    // per wrapper, so a big diff of one list doesn't delay the others; the thread stops when idle
+    private       Executor                                              mDiffExecutor   = new ThreadPoolExecutor(
+            0, 1, DIFF_THREAD_KEEP_ALIVE, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>());
+
+    private       String                                                mDiffKey;
+    private       boolean                                               mDiffEnabled    = true;
+
+    // main thread only
+    private       int                                                   mGeneration;
+    private       List<ContentValues>                                   mPending;
+
     /**
      * Initialises a newly created {@code ValuesCacheAdapterWrapper} object. The data binding goes by default:
      * cursor's column {@link BaseColumns#_ID _ID} binds to view with R.id._id, column "title" - to R.id.title etc.
@@ -178,12 +204,16 @@ public class ValuesCacheAdapterWrapper<R, E, D> implements CacheAdapter<R, E, D>
     private static DataBinder<ContentValues> getDataBinder(@NonNull final Context context,
                                                            @NonNull @Size(min = 1) final String[] from,
                                                            @NonNull @Size(min = 1) final int   [] to) {
-        return new DataBinder<ContentValues>(context, from, to) {
-            @Override
-            protected Object getValue(@NonNull ContentValues item, int index) {
-                return ValuesCacheAdapterWrapper.getValue(item, index, mFrom);
-            }
-        };
+        return new ValuesDataBinder(context, from, to);
+    }
+
+    private void invalidateRows() {
+        invalidateRows(getAdapter().getArrayAdapter().getDataBinder());
+        invalidateRows(mBaseRecyclerViewAdapter      .getDataBinder());
+    }
+
+    private static void invalidateRows(@NonNull final DataBinder<ContentValues> dataBinder) {
+        if (dataBinder instanceof ValuesDataBinder) ((ValuesDataBinder) dataBinder).invalidate();
     }
 
     /**
@@ -219,13 +249,199 @@ public class ValuesCacheAdapterWrapper<R, E, D> implements CacheAdapter<R, E, D>
         return mBaseRecyclerViewAdapter;
     }
 
+    /**
+     * Sets the filter which queries the cache table on a background thread (with debounce and cancellation
+     * of the superseded queries) instead of scanning the data in memory.
+     *
+     * @param context
+     *        The context
+     *
+     * @param uri
+     *        The URI of the cache table (e.g. {@yakhont.link BaseResponseLoaderWrapper#getUri})
+     *
+     * @param columns
+     *        The columns to search in (if not defined, all the bound columns)
+     *
+     * @return  The CacheFilter
+     */
+    @SuppressWarnings("unused")
+    public CacheFilter setCacheFilter(@NonNull final Context context, @NonNull final Uri uri,
+                                      final String... columns) {
+        final CacheFilter cacheFilter = new CacheFilter(context, uri, this, columns);
+        getAdapter().setCacheFilter(cacheFilter);
+        return cacheFilter;
+    }
+
+    /**
+     * Sets the column to get the item IDs from and turns on the stable IDs for the {@code RecyclerView} adapter
+     * (so views could be preserved and reused across updates, including the swaps between
+     * the array and the cursor adapters). The column is also used to identify items for the incremental updates,
+     * if no {@link #setDiffKey diff key} was set.
+     * <p>
+     * Should be called before the {@code RecyclerView} adapter is attached.
+     *
+     * @param column
+     *        The column name (or null)
+     */
+    @SuppressWarnings("unused")
+    public void setIdColumn(final String column) {
+        getAdapter().setIdColumn(column);
+
+        try {
+            mBaseRecyclerViewAdapter.setHasStableIds(column != null);
+        }
+        catch (IllegalStateException exception) {
+            CoreLogger.log("setHasStableIds failed, adapter already attached?", exception);
+        }
+    }
+
+    /**
+     * Inflates the item views in advance (during the main thread's idle time), so the first screenfuls
+     * of the list don't pay for the XML inflation during layout.
+     *
+     * @param list
+     *        The list ({@code RecyclerView}, {@code ListView} or {@code GridView}) the adapter is attached to
+     *
+     * @param count
+     *        The number of item views to pre-inflate (usually about a screenful)
+     */
+    @MainThread
+    public void preInflate(@NonNull final ViewGroup list, @IntRange(from = 0) final int count) {
+        if (count <= 0) return;
+
+        if (list instanceof RecyclerView) {
+            if (mBaseRecyclerViewAdapter.getViewHolderCreator() != null)
+                CoreLogger.log("ViewHolderCreator is set, pre-inflation skipped");
+            else
+                mBaseRecyclerViewAdapter.getViewInflater().preInflate(list, count);
+        }
+        // the cursor adapter inflates its views itself, so the pre-inflated ones would be wasted
+        else if (getAdapter().isCursorAdapter())
+            CoreLogger.log("cursor adapter is in use, pre-inflation skipped");
+        else
+            getAdapter().getArrayAdapter().getViewInflater().preInflate(list, count);
+    }
+
+    /**
+     * Sets the number of the upcoming rows (in the scroll direction) to prefetch images for
+     * (please refer to {@link ImagePrefetcher} for more info).
+     *
+     * @param distance
+     *        The number of rows (or 0 to disable prefetching), the default one is {@link ImagePrefetcher#DEFAULT_DISTANCE}
+     */
+    @MainThread
+    @SuppressWarnings("unused")
+    public void setImagePrefetchDistance(@IntRange(from = 0) final int distance) {
+        getAdapter().getArrayAdapter().getImagePrefetcher().setDistance(distance);
+        mBaseRecyclerViewAdapter      .getImagePrefetcher().setDistance(distance);
+    }
+
+    /**
+     * Sets the column to identify items when calculating the difference between the old and new data
+     * (the incremental updates of the {@code RecyclerView}). If not set, items are compared by content.
+     *
+     * @param key
+     *        The column name (or null)
+     */
+    @SuppressWarnings("unused")
+    public void setDiffKey(final String key) {
+        mDiffKey = key;
+    }
+
+    /**
+     * Enables or disables the incremental updates of the {@code RecyclerView}
+     * (the difference between the old and new data is calculated in background). Enabled by default.
+     *
+     * @param enabled
+     *        {@code false} to call {@code notifyDataSetChanged()} on every update
+     */
+    @SuppressWarnings("unused")
+    public void setDiffEnabled(final boolean enabled) {
+        mDiffEnabled = enabled;
+    }
+
+    /**
+     * Sets the executor to calculate the difference between the old and new data on. By default every wrapper
+     * has its own background thread (which is stopped when idle).
+     *
+     * @param executor
+     *        The executor
+     */
+    @SuppressWarnings("unused")
+    public void setDiffExecutor(@NonNull final Executor executor) {
+        mDiffExecutor = executor;
+    }
+
     /**
      * Please refer to the base method description.
      */
+    @MainThread
     @Override
     public void update(@NonNull final BaseResponse<R, E, D> data, final boolean isMerge) {
-        getAdapter().update(data, isMerge);
-        mBaseRecyclerViewAdapter.notifyDataSetChanged();
+        final int                   generation  = ++mGeneration;
+        final List<ContentValues>   oldList     = getArray();
+
+        if (!mDiffEnabled || data.getSource() != Source.NETWORK || oldList == null || oldList.isEmpty()) {
+            mPending = null;
+            invalidateRows();
+
+            getAdapter().update(data, isMerge);
+            mBaseRecyclerViewAdapter.notifyDataSetChanged();
+            return;
+        }
+
+        final List<ContentValues>   newList     = new ArrayList<>();
+        if (isMerge) newList.addAll(mPending != null ? mPending: oldList);
+
+        final ContentValues[]       values      = data.getValues();
+        if (values != null) newList.addAll(Arrays.asList(values));
+
+        mPending = newList;
+
+        final String key = mDiffKey != null ? mDiffKey: getAdapter().getIdColumn();
+        mDiffExecutor.execute(new Runnable() {
+            @Override
+            public void run() {
+                DiffUtil.DiffResult diffResult = null;
+                try {
+                    diffResult = DiffUtil.calculateDiff(new ValuesDiffCallback(oldList, newList, key));
+                }
+                catch (Exception exception) {
+                    CoreLogger.log("calculateDiff failed", exception);
+                }
+
+                final DiffUtil.DiffResult result = diffResult;
+                Utils.postToMainLoop(new Runnable() {
+                    @Override
+                    public void run() {
+                        if (generation != mGeneration) {
+                            CoreLogger.log("diff skipped, generation " + generation);
+                            return;
+                        }
+                        mPending = null;
+                        invalidateRows();
+
+                        getAdapter().updateArray(newList, false);
+
+                        if (result != null)
+                            result.dispatchUpdatesTo(mBaseRecyclerViewAdapter);
+                        else
+                            mBaseRecyclerViewAdapter.notifyDataSetChanged();
+                    }
+                });
+            }
+        });
+    }
+
+    private List<ContentValues> getArray() {
+        if (getAdapter().isCursorAdapter()) return null;
+
+        final BaseArrayAdapter<ContentValues> arrayAdapter = getAdapter().getArrayAdapter();
+        final List<ContentValues> list = new ArrayList<>(arrayAdapter.getCount());
+
+        for (int i = 0; i < arrayAdapter.getCount(); i++)
+            list.add(arrayAdapter.getItem(i));
+        return list;
     }
 
     /**
@@ -236,12 +452,32 @@ public class ValuesCacheAdapterWrapper<R, E, D> implements CacheAdapter<R, E, D>
         Utils.postToMainLoop(new Runnable() {
             @Override
             public void run() {
+                mGeneration++;
+                mPending = null;
+                invalidateRows();
+
                 getAdapter().resetArray();
                 mBaseRecyclerViewAdapter.notifyDataSetChanged();
             }
         });
     }
 
+    /**
+     * Shows the given cursor (e.g. the filtered rows) and drops the pending incremental updates, if any.
+     *
+     * @param cursor
+     *        The cursor
+     */
+    @MainThread
+    void updateCursor(final Cursor cursor) {
+        mGeneration++;
+        mPending = null;
+        invalidateRows();
+
+        getAdapter().updateCursor(cursor);
+        mBaseRecyclerViewAdapter.notifyDataSetChanged();
+    }
+
     /**
      * Please refer to the base method description.
      */
@@ -251,14 +487,95 @@ public class ValuesCacheAdapterWrapper<R, E, D> implements CacheAdapter<R, E, D>
         return getAdapter().getCursorAdapter();
     }
 
-    private static Object getValue(@NonNull final ContentValues item, final int index,
-                                   @NonNull @Size(min = 1) final String[] from) {
-        if (index >= from.length)          return null;
-        if (item.containsKey(from[index])) return item.get(from[index]);
+    /**
+     * Binds the {@code ContentValues} rows (the values are looked up by the "from" columns).
+     * The missing keys are reported once per dataset.
+     */
+    private static class ValuesDataBinder extends DataBinder<ContentValues> {
+
+        // main thread only
+        private       boolean[]                         mReported;
+
+        private ValuesDataBinder(@NonNull final Context context,
+                                 @NonNull @Size(min = 1) final String[] from,
+                                 @NonNull @Size(min = 1) final int   [] to) {
+            super(context, from, to);
+        }
+
+        private void invalidate() {
+            mReported = null;
+        }
 
-        CoreLogger.log(from[index].equals(BaseColumns._ID) ? Level.INFO: Level.WARNING,
-                from[index] + ": no such key", false);
-        return null;
+        @Override
+        protected Object getValue(@NonNull final ContentValues item, final int index) {
+            if (index >= mFrom.length) return null;
+
+            final Object value = item.get(mFrom[index]);
+            // containsKey() is needed only to distinguish the null values from the missing keys
+            if (value == null && !item.containsKey(mFrom[index])) reportMissing(index);
+
+            return value;
+        }
+
+        @Override
+        protected Object getValue(@NonNull final ContentValues item, @NonNull final String column) {
+            return item.get(column);
+        }
+
+        private void reportMissing(final int index) {
+            if (mReported == null) mReported = new boolean[mFrom.length];
+            if (mReported[index]) return;
+
+            mReported[index] = true;
+            CoreLogger.log(mFrom[index].equals(BaseColumns._ID) ? Level.INFO: Level.WARNING,
+                    mFrom[index] + ": no such key", false);
+        }
+    }
+
+    private static class ValuesDiffCallback extends DiffUtil.Callback {
+
+        private final List<ContentValues>   mOldList;
+        private final List<ContentValues>   mNewList;
+        private final String                mKey;
+
+        private ValuesDiffCallback(@NonNull final List<ContentValues> oldList,
+                                   @NonNull final List<ContentValues> newList, final String key) {
+            mOldList    = oldList;
+            mNewList    = newList;
+            mKey        = key;
+        }
+
+        @Override
+        public int getOldListSize() {
+            return mOldList.size();
+        }
+
+        @Override
+        public int getNewListSize() {
+            return mNewList.size();
+        }
+
+        @Override
+        public boolean areItemsTheSame(final int oldItemPosition, final int newItemPosition) {
+            final ContentValues oldItem = mOldList.get(oldItemPosition);
+            final ContentValues newItem = mNewList.get(newItemPosition);
+
+            if (mKey != null) {
+                final Object oldKey = oldItem == null ? null: oldItem.get(mKey);
+                final Object newKey = newItem == null ? null: newItem.get(mKey);
+
+                if (oldKey != null && newKey != null) return oldKey.equals(newKey);
+            }
+            return areContentsTheSame(oldItemPosition, newItemPosition);
+        }
+
+        @Override
+        public boolean areContentsTheSame(final int oldItemPosition, final int newItemPosition) {
+            final ContentValues oldItem = mOldList.get(oldItemPosition);
+            final ContentValues newItem = mNewList.get(newItemPosition);
+
+            return oldItem == null ? newItem == null: oldItem.equals(newItem);
+        }
     }
 
     ////////////////////////////////////////////////////////////////////////////////////////////////
@@ -307,6 +624,11 @@ public class ValuesCacheAdapterWrapper<R, E, D> implements CacheAdapter<R, E, D>
             mViewInflater = new ViewInflater(context, layoutId);
         }
 
+        /** @exclude */ @SuppressWarnings("JavaDoc")
+        public ViewInflater getViewInflater() {
+            return mViewInflater;
+        }
+
         /**
          * Please refer to the base method description.
          */
@@ -0,0 +1,134 @@
+/*
+ * Copyright (C) 2015-2017 akha, a.k.a. Alexander Kharitonov
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package akha.yakhont.adapter;
+
+import akha.yakhont.Core;
+import akha.yakhont.Core.Utils;
+import akha.yakhont.CoreLogger;
+
+import android.app.Activity;
+import android.support.annotation.IntRange;
+import android.support.annotation.LayoutRes;
+import android.support.annotation.MainThread;
+import android.support.annotation.NonNull;
+import android.support.v7.widget.LinearLayoutManager;
+import android.support.v7.widget.RecyclerView;
+import android.support.v7.widget.RecyclerView.RecycledViewPool;
+import android.view.View;
+
+import java.util.Map;
+
+/**
+ * The registry of the shared {@link RecycledViewPool RecycledViewPools}: {@code RecyclerViews} which show
+ * the same item layout (e.g. in tabs or pagers) reuse views instead of inflating the new ones.
+ * The view type of the registered {@link BaseRecyclerViewAdapter BaseRecyclerViewAdapter's} items
+ * is the item layout ID, so the different layouts never mix in the pool.
+ * <p>
+ * The pool sizes are per layout and application-wide, but the pools themselves are per Activity
+ * (views keep the Activity's context, so they can't be shared between Activities).
+ * <p>
+ * Most implementations should use {@yakhont.link BaseLoader.CoreLoadBuilder#setViewPoolShared} instead.
+ *
+ * @author akha
+ */
+public class ViewPoolRegistry {
+
+    private static final Map<Integer, Integer>      sPoolSizes      = Utils.newMap();
+
+    private ViewPoolRegistry() {
+    }
+
+    /**
+     * Sets the maximum number of the recycled item views (for the given layout) to keep in the pool.
+     *
+     * @param layoutId
+     *        The item layout ID
+     *
+     * @param size
+     *        The pool size (the RecyclerView's default one is 5)
+     */
+    @SuppressWarnings("unused")
+    public static void setPoolSize(@LayoutRes final int layoutId, @IntRange(from = 0) final int size) {
+        if (layoutId == Core.NOT_VALID_RES_ID) {
+            CoreLogger.logError("item layout ID is not defined");
+            return;
+        }
+        sPoolSizes.put(layoutId, Math.max(size, 0));
+    }
+
+    /**
+     * Returns the {@code RecycledViewPool} of the given Activity.
+     *
+     * @param activity
+     *        The Activity
+     *
+     * @return  The {@code RecycledViewPool}
+     */
+    @MainThread
+    @NonNull
+    public static RecycledViewPool getPool(@NonNull final Activity activity) {
+        // the pool lives (and dies) together with the Activity's window
+        final View view = activity.getWindow().getDecorView();
+
+        final Object tag = view.getTag(akha.yakhont.R.id.yakhont_recycled_view_pool);
+        if (tag instanceof RecycledViewPool) return (RecycledViewPool) tag;
+
+        final RecycledViewPool pool = new RecycledViewPool();
+        view.setTag(akha.yakhont.R.id.yakhont_recycled_view_pool, pool);
+        return pool;
+    }
+
+    /**
+     * Registers the {@code RecyclerView} with the shared {@code RecycledViewPool}.
+     *
+     * @param activity
+     *        The Activity
+     *
+     * @param recyclerView
+     *        The {@code RecyclerView}
+     *
+     * @param layoutId
+     *        The item layout ID
+     */
+    @MainThread
+    public static void register(@NonNull final Activity activity, @NonNull final RecyclerView recyclerView,
+                                @LayoutRes final int layoutId) {
+        final RecycledViewPool pool = getPool(activity);
+
+        final Integer size = sPoolSizes.get(layoutId);
+        if (size != null) pool.setMaxRecycledViews(layoutId, size);
+
+        final RecyclerView.Adapter<?> adapter = recyclerView.getAdapter();
+        if (adapter instanceof BaseRecyclerViewAdapter)
+            ((BaseRecyclerViewAdapter<?, ?, ?, ?, ?>) adapter).setViewPoolShared(true);
+        else
+            CoreLogger.logWarning("not a BaseRecyclerViewAdapter, please make sure the view types " +
+                    "are unique across the shared pool: " + adapter);
+
+        recyclerView.setRecycledViewPool(pool);
+
+        // without it the views of the removed RecyclerView (e.g. after switching tabs) are not returned to the pool
+        final RecyclerView.LayoutManager layoutManager = recyclerView.getLayoutManager();
+        if (layoutManager instanceof LinearLayoutManager)
+            ((LinearLayoutManager) layoutManager).setRecycleChildrenOnDetach(true);
+        else
+            CoreLogger.logWarning("not a LinearLayoutManager, views will not be recycled on detach: " +
+                    layoutManager);
+
+        CoreLogger.log("shared view pool registered, layout ID " + layoutId + ", size " + size);
+    }
+}
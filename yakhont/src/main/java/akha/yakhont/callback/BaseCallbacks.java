@@ -29,11 +29,14 @@ import android.support.annotation.NonNull;
 
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Method;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.EnumSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * The <code>BaseCallbacks</code> is the one of the base classes for working with callbacks. Most implementations should not
@@ -144,6 +147,16 @@ public abstract class BaseCallbacks<T> {
 
     private static Validator                                sValidator;
 
+    private static final int                                FLAG_PROCEED                = 1;
+    private static final int                                FLAG_PROCEED_CHECKED        = 2;
+    private static final int                                FLAG_REJECT                 = 4;
+    private static final int                                FLAG_REJECT_CHECKED         = 8;
+
+    // object class -> (callbacks class -> FLAG_* bits); annotations are per class, so are the decisions;
+    // every check is done (and cached) only when needed, i.e. in the same order as without caching
+    private static final ConcurrentHashMap<Class, Map<Class, Integer>>
+                                                            sDecisions                  = new ConcurrentHashMap<>();
+
     /**
      * The callbacks annotations validation API.
      */
@@ -174,6 +187,7 @@ public abstract class BaseCallbacks<T> {
     /** @exclude */ @SuppressWarnings("JavaDoc")
     public static void setValidator(final Validator validator) {
         sValidator = validator;
+        clearCache();       // the decisions were made without the new validator
     }
 
     /**
@@ -320,14 +334,14 @@ public abstract class BaseCallbacks<T> {
         if (forceProceed)
             log("force proceed", callbackClass);
         else {
-            if (!isProceed(object, callbackClass)) {
+            if (!getDecision(object, callbackClass, false)) {
                 log("no Callbacks found", callbackClass);
                 return false;
             }
             log("Callbacks found", callbackClass);
         }
 
-        if (isReject(object, callbackClass)) {
+        if (getDecision(object, callbackClass, true)) {
             log("StopCallbacks found", callbackClass);
             return false;
         }
@@ -340,6 +354,39 @@ public abstract class BaseCallbacks<T> {
         CoreLogger.log(Level.DEBUG, String.format(FORMAT, text, callbackClass.getName()));
     }
 
+    private static <T> boolean getDecision(@NonNull final T object, @NonNull final Class callbackClass,
+                                           final boolean reject) {
+        final Class objectClass = object.getClass();
+
+        Map<Class, Integer> decisions = sDecisions.get(objectClass);
+        if (decisions == null) {
+            decisions = new ConcurrentHashMap<>();
+            final Map<Class, Integer> previous = sDecisions.putIfAbsent(objectClass, decisions);
+            if (previous != null) decisions = previous;
+        }
+
+        final int flag    = reject ? FLAG_REJECT        : FLAG_PROCEED;
+        final int checked = reject ? FLAG_REJECT_CHECKED: FLAG_PROCEED_CHECKED;
+
+        final Integer cached = decisions.get(callbackClass);
+        int decision = cached == null ? 0: cached;
+
+        if ((decision & checked) == 0) {
+            final boolean found = reject ? isReject(object, callbackClass): isProceed(object, callbackClass);
+            decision |= checked | (found ? flag: 0);
+            decisions.put(callbackClass, decision);
+        }
+        return (decision & flag) != 0;
+    }
+
+    /**
+     * Clears the cache of the callbacks annotations checking results (they are cached per class).
+     */
+    @SuppressWarnings("unused")
+    public static void clearCache() {
+        sDecisions.clear();
+    }
+
     private static <T> boolean isProceed(@NonNull final T object, @NonNull final Class callbackClass) {
 
         Annotation annotation = CoreReflection.getAnnotation(object, CallbacksInherited.class);
@@ -533,22 +580,19 @@ public abstract class BaseCallbacks<T> {
         public static <T> boolean proceed(@NonNull final BaseCacheCallbacks<T> callbacks, final Boolean isCreate,
                                           @NonNull final T object, final Callable<Boolean> condition) {
             try {
-                boolean proceed = false;
-                if (isCreate != null)
-                    if (isCreate) {
-                        proceed = callbacks.proceed(object);
-                        add(callbacks, proceed, object);
-                    }
-                    else
-                        remove(callbacks, object);
-
-                if (condition != null && !condition.call()) return false;
-
-                // it's possible to be registered after onCreate
-                if (!(isCreate != null &&  isCreate)) proceed = callbacks.proceed(object);
-                if (!(isCreate != null && !isCreate)) add(callbacks, proceed, object);
+                return proceed(callbacks, isCreate, object, condition, true);
+            }
+            catch (Exception e) {
+                CoreLogger.log("proceed failed", e);
+                return false;
+            }
+        }
 
-                return proceed;
+        /** @exclude */ @SuppressWarnings("JavaDoc")
+        public static <T> boolean proceed(@NonNull final BaseCacheCallbacks<T> callbacks, final Boolean isCreate,
+                                          @NonNull final T object, final boolean condition) {
+            try {
+                return proceed(callbacks, isCreate, object, null, condition);
             }
             catch (Exception e) {
                 CoreLogger.log("proceed failed", e);
@@ -556,6 +600,27 @@ public abstract class BaseCallbacks<T> {
             }
         }
 
+        private static <T> boolean proceed(@NonNull final BaseCacheCallbacks<T> callbacks, final Boolean isCreate,
+                                           @NonNull final T object, final Callable<Boolean> condition,
+                                           final boolean conditionValue) throws Exception {
+            boolean proceed = false;
+            if (isCreate != null)
+                if (isCreate) {
+                    proceed = callbacks.proceed(object);
+                    add(callbacks, proceed, object);
+                }
+                else
+                    remove(callbacks, object);
+
+            if (!conditionValue || condition != null && !condition.call()) return false;
+
+            // it's possible to be registered after onCreate
+            if (!(isCreate != null &&  isCreate)) proceed = callbacks.proceed(object);
+            if (!(isCreate != null && !isCreate)) add(callbacks, proceed, object);
+
+            return proceed;
+        }
+
         private static <T> void add(@NonNull final BaseCacheCallbacks<T> callbacks, final boolean proceed, @NonNull final T object) {
             if (!callbacks.mAll.containsKey(object))                callbacks.mAll.put(object, proceed);
             if (proceed && !callbacks.mProceeded.contains(object))  callbacks.mProceeded.add(object);
@@ -662,6 +727,99 @@ public abstract class BaseCallbacks<T> {
             return Collections.unmodifiableSet(lifeCycles);
         }
 
+        /**
+         * The snapshot of the registered callbacks handlers: for every lifecycle state - the array of handlers
+         * to call. Should be rebuilt on every registration change, so the lifecycle dispatching
+         * needs neither locking nor allocations.
+         *
+         * @param <E>
+         *        The type of the lifecycle enumeration
+         */
+        public static class LifecycleCallbacks<E extends Enum<E>> {
+
+            private static final BaseCacheCallbacks[]       NO_CALLBACKS                = new BaseCacheCallbacks[0];
+            private static final boolean[]                  NO_FLAGS                    = new boolean[0];
+
+            private final BaseCacheCallbacks[][]            mCallbacks;
+            private final boolean[][]                       mImplemented;
+
+            /**
+             * Initialises a newly created {@code LifecycleCallbacks} object.
+             *
+             * @param callbacksMap
+             *        The registered callbacks handlers collection
+             *
+             * @param lifeCycles
+             *        All the lifecycle states
+             *
+             * @param allCallbacks
+             *        The lifecycle states for which all handlers should be called
+             *        (e.g. to track created / destroyed objects), not only the implemented ones
+             */
+            @SuppressWarnings("unchecked")
+            public LifecycleCallbacks(@NonNull final Map<? extends BaseCacheCallbacks, Set<E>> callbacksMap,
+                                      @NonNull final E[] lifeCycles, @NonNull final Set<E> allCallbacks) {
+                mCallbacks   = new BaseCacheCallbacks[lifeCycles.length][];
+                mImplemented = new boolean           [lifeCycles.length][];
+
+                final List<BaseCacheCallbacks> callbacksList   = new ArrayList<>();
+                final List<Boolean>            implementedList = new ArrayList<>();
+
+                synchronized (callbacksMap) {
+                    for (final E lifeCycle: lifeCycles) {
+                        callbacksList  .clear();
+                        implementedList.clear();
+
+                        for (final Map.Entry<? extends BaseCacheCallbacks, Set<E>> entry: callbacksMap.entrySet()) {
+                            final Set<E> implemented = entry.getValue();
+                            final boolean isImplemented = implemented == null || implemented.size() == 0 ||
+                                    implemented.contains(lifeCycle);
+
+                            if (!isImplemented && !allCallbacks.contains(lifeCycle)) continue;
+
+                            callbacksList  .add(entry.getKey());
+                            implementedList.add(isImplemented);
+                        }
+
+                        final int idx = lifeCycle.ordinal(), size = callbacksList.size();
+                        mCallbacks  [idx] = size == 0 ? NO_CALLBACKS:
+                                callbacksList.toArray(new BaseCacheCallbacks[size]);
+                        mImplemented[idx] = size == 0 ? NO_FLAGS: new boolean[size];
+
+                        for (int i = 0; i < size; i++)
+                            mImplemented[idx][i] = implementedList.get(i);
+                    }
+                }
+            }
+
+            /**
+             * Returns the callbacks handlers to call for the given lifecycle state.
+             *
+             * @param lifeCycle
+             *        The lifecycle state
+             *
+             * @return  The callbacks handlers
+             */
+            @NonNull
+            public BaseCacheCallbacks[] getCallbacks(@NonNull final E lifeCycle) {
+                return mCallbacks[lifeCycle.ordinal()];
+            }
+
+            /**
+             * Returns the flags (parallel to {@link #getCallbacks}) indicating whether the callbacks handler
+             * implements the given lifecycle state, or should be called for objects tracking only.
+             *
+             * @param lifeCycle
+             *        The lifecycle state
+             *
+             * @return  The flags
+             */
+            @NonNull
+            public boolean[] getImplemented(@NonNull final E lifeCycle) {
+                return mImplemented[lifeCycle.ordinal()];
+            }
+        }
+
         /** @exclude */
         @SuppressWarnings({"JavaDoc", "WeakerAccess", "SameParameterValue"})
         public static <E extends Enum<E>, T> void apply(
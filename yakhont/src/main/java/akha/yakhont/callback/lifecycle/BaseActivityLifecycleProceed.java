@@ -19,6 +19,7 @@ package akha.yakhont.callback.lifecycle;
 import akha.yakhont.Core;
 import akha.yakhont.Core.Utils;
 import akha.yakhont.CoreLogger;
+import akha.yakhont.CoreTrace;
 import akha.yakhont.callback.BaseCallbacks.BaseCacheCallbacks;
 import akha.yakhont.callback.BaseCallbacks.BaseLifecycleProceed;
 
@@ -36,6 +37,7 @@ import android.view.inputmethod.InputMethodManager;
 import java.lang.ref.WeakReference;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Set;
@@ -149,6 +151,14 @@ public abstract class BaseActivityLifecycleProceed extends BaseLifecycleProceed
     private static final Map<BaseActivityCallbacks, Set<ActivityLifecycle>>
                                                             sCallbacks                  = Utils.newMap();
 
+    private static volatile LifecycleCallbacks<ActivityLifecycle>
+                                                            sLifecycleCallbacks         = getLifecycleCallbacks();
+
+    private static LifecycleCallbacks<ActivityLifecycle> getLifecycleCallbacks() {
+        return new LifecycleCallbacks<>(sCallbacks, ActivityLifecycle.values(),
+                EnumSet.of(ActivityLifecycle.CREATED, ActivityLifecycle.DESTROYED));
+    }
+
     /**
      * Returns the collection of registered callbacks handlers.
      *
@@ -168,7 +178,9 @@ public abstract class BaseActivityLifecycleProceed extends BaseLifecycleProceed
      */
     @SuppressWarnings({"UnusedReturnValue", "ConstantConditions", "SameReturnValue"})
     public static boolean register(@NonNull final BaseActivityCallbacks callbacks) {
-        return register(sCallbacks, callbacks, ActivityLifecycle.class, CALLBACKS);
+        final boolean result = register(sCallbacks, callbacks, ActivityLifecycle.class, CALLBACKS);
+        sLifecycleCallbacks = getLifecycleCallbacks();
+        return result;
     }
 
     /**
@@ -181,7 +193,9 @@ public abstract class BaseActivityLifecycleProceed extends BaseLifecycleProceed
      */
     @SuppressWarnings("unused")
     public static boolean unregister(@NonNull final Class<? extends BaseActivityCallbacks> callbacksClass) {
-        return unregister(sCallbacks, callbacksClass);
+        final boolean result = unregister(sCallbacks, callbacksClass);
+        sLifecycleCallbacks = getLifecycleCallbacks();
+        return result;
     }
 
     /**
@@ -216,13 +230,31 @@ public abstract class BaseActivityLifecycleProceed extends BaseLifecycleProceed
             default:            created = null;             break;
         }
 
-        for (final BaseActivityCallbacks callbacks: sCallbacks.keySet())
-            apply(sCallbacks, callbacks, created, lifeCycle, activity, new Runnable() {
-                @Override
-                public void run() {
+        // the snapshot is immutable and rebuilt on (un)registration - no locking, no allocations
+        final LifecycleCallbacks<ActivityLifecycle> lifecycleCallbacks = sLifecycleCallbacks;
+
+        final BaseCacheCallbacks[] callbacksArray = lifecycleCallbacks.getCallbacks  (lifeCycle);
+        final boolean[]            implemented    = lifecycleCallbacks.getImplemented(lifeCycle);
+
+        if (callbacksArray.length == 0) return;
+
+        CoreTrace.beginSection(CoreTrace.SECTION_LIFECYCLE);
+        try {
+            for (int i = 0; i < callbacksArray.length; i++) {
+                final BaseActivityCallbacks callbacks = (BaseActivityCallbacks) callbacksArray[i];
+                if (!proceed(callbacks, created, activity, implemented[i])) continue;
+
+                try {
                     apply(callbacks, lifeCycle, activity, state);
                 }
-            });
+                catch (Exception e) {
+                    CoreLogger.log("apply failed", e);
+                }
+            }
+        }
+        finally {
+            CoreTrace.endSection();
+        }
     }
 
     private static void apply(@NonNull final BaseActivityCallbacks callbacks,
@@ -19,6 +19,7 @@ package akha.yakhont.loader;
 import akha.yakhont.Core.Utils;
 import akha.yakhont.Core.Utils.TypeHelper;
 import akha.yakhont.CoreLogger;
+import akha.yakhont.CoreTrace;
 import akha.yakhont.loader.BaseResponse.Converter;
 
 import android.annotation.SuppressLint;
@@ -112,7 +113,15 @@ public class BaseConverter<D> implements Converter<D> {
      */
     @Override
     public ContentValues[] get(final D src) {
-        return src == null ? null: getContentValues(getJsonElement(src));
+        if (src == null) return null;
+
+        CoreTrace.beginSection(CoreTrace.SECTION_CONVERTER);
+        try {
+            return getContentValues(getJsonElement(src));
+        }
+        finally {
+            CoreTrace.endSection();
+        }
     }
 
     /**
@@ -141,6 +150,7 @@ public class BaseConverter<D> implements Converter<D> {
         D result                = null;
         JsonElement jsonElement = null;
 
+        CoreTrace.beginSection(CoreTrace.SECTION_CONVERTER);
         try {
             jsonElement = getJsonElement(cursor);
             if (jsonElement == null) //noinspection ConstantConditions
@@ -153,6 +163,9 @@ public class BaseConverter<D> implements Converter<D> {
         catch (Exception e) {
             CoreLogger.log("failed, jsonElement == " + jsonElement, e);
         }
+        finally {
+            CoreTrace.endSection();
+        }
 
         return result;
     }
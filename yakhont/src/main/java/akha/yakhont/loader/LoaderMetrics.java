@@ -0,0 +1,321 @@
+/*
+ * Copyright (C) 2015-2017 akha, a.k.a. Alexander Kharitonov
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package akha.yakhont.loader;
+
+import akha.yakhont.Core.Utils;
+import akha.yakhont.CoreLogger;
+import akha.yakhont.CoreLogger.Level;
+import akha.yakhont.loader.BaseResponse.Source;
+
+import android.support.annotation.NonNull;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * The <code>LoaderMetrics</code> class collects per-request timings of the data loading pipeline
+ * (see {@link Stage}), together with the payload size and the number of rows handled.
+ * <p>
+ * Metrics are published (to the registered {@link MetricsListener listeners}) after the results
+ * were delivered and the cache was updated. For example:
+ *
+ * <p><pre style="background-color: silver; border: thin solid black;">
+ * import akha.yakhont.loader.LoaderMetrics;
+ * import akha.yakhont.loader.LoaderMetrics.MetricsListener;
+ * import akha.yakhont.loader.LoaderMetrics.Stage;
+ *
+ * import java.util.concurrent.TimeUnit;
+ *
+ * LoaderMetrics.addListener(new MetricsListener() {
+ *     &#064;Override
+ *     public void onMetrics(LoaderMetrics metrics) {
+ *         long network = metrics.getDuration(Stage.NETWORK, TimeUnit.MILLISECONDS);
+ *         // your code here
+ *     }
+ * });
+ * </pre>
+ *
+ * Please refer to {@link akha.yakhont.technology.rx.BaseRx.MetricsRx} for the Rx version.
+ *
+ * @author akha
+ */
+public class LoaderMetrics {
+
+    /** The value returned for stages which were not executed or for unknown sizes (the value is {@value}). */
+    @SuppressWarnings("WeakerAccess")
+    public  static final    long                        UNKNOWN         = -1;
+
+    private static final    Stage[]                     STAGES          = Stage.values();
+
+    private static final    List<MetricsListener>       sListeners      = Utils.newList();
+
+    private final           int                         mId;
+    private final           String                      mDescription;
+
+    private final           AtomicLongArray             mStarts         = new AtomicLongArray(STAGES.length);
+    private final           AtomicLongArray             mDurations      = new AtomicLongArray(STAGES.length);
+
+    private volatile        long                        mPayloadBytes   = UNKNOWN;
+    private volatile        int                         mRows           = (int) UNKNOWN;
+    private volatile        Source                      mSource;
+
+    // one for the delivery plus one for every pending background stage (e.g. DB write)
+    private final           AtomicInteger               mPending        = new AtomicInteger(1);
+
+    /**
+     * The stages of the data loading pipeline.
+     */
+    public enum Stage {
+        /** The time between the request submission and the start of its execution in the background. */
+        QUEUE_WAIT,
+        /** The network request (including the response parsing done by the network library). */
+        NETWORK,
+        /** The conversion of the loaded data to the {@link android.content.ContentValues}. */
+        CONVERSION,
+        /** The writing of the converted data to the cache. */
+        DB_WRITE,
+        /** The reading of the cache. */
+        CACHE_READ,
+        /** The conversion of the cursor to the data. */
+        CURSOR_DECODE,
+        /** The binding of the loaded data to the adapter. */
+        ADAPTER_BIND
+    }
+
+    /**
+     * The API to receive the collected metrics.
+     */
+    public interface MetricsListener {
+
+        /**
+         * Called when the data loading was completed.
+         *
+         * @param metrics
+         *        The metrics
+         */
+        void onMetrics(LoaderMetrics metrics);
+    }
+
+    /**
+     * Initialises a newly created {@code LoaderMetrics} object.
+     *
+     * @param id
+     *        The loader ID
+     *
+     * @param description
+     *        The loader description
+     */
+    public LoaderMetrics(final int id, final String description) {
+        mId             = id;
+        mDescription    = description;
+
+        for (int i = 0; i < STAGES.length; i++)
+            mDurations.set(i, UNKNOWN);
+    }
+
+    /**
+     * Registers the metrics listener.
+     *
+     * @param listener
+     *        The listener
+     *
+     * @return  {@code true} if the listener was registered, {@code false} otherwise
+     */
+    @SuppressWarnings("UnusedReturnValue")
+    public static boolean addListener(final MetricsListener listener) {
+        if (listener == null) {
+            CoreLogger.logError("listener is null");
+            return false;
+        }
+        if (sListeners.contains(listener)) {
+            CoreLogger.logWarning("the listener is already registered: " + listener);
+            return false;
+        }
+        return sListeners.add(listener);
+    }
+
+    /**
+     * Unregisters the metrics listener.
+     *
+     * @param listener
+     *        The listener
+     *
+     * @return  {@code true} if the listener was unregistered, {@code false} otherwise
+     */
+    @SuppressWarnings("UnusedReturnValue")
+    public static boolean removeListener(final MetricsListener listener) {
+        return sListeners.remove(listener);
+    }
+
+    /**
+     * Checks whether some metrics listeners were registered or not.
+     *
+     * @return  {@code true} if there are registered listeners, {@code false} otherwise
+     */
+    public static boolean hasListeners() {
+        return !sListeners.isEmpty();
+    }
+
+    /**
+     * Checks whether the metrics should be collected at all, i.e. whether there are registered listeners
+     * or the metrics are going to be logged.
+     *
+     * @return  {@code true} if the metrics should be collected, {@code false} otherwise
+     */
+    public static boolean isEnabled() {
+        return hasListeners() || CoreLogger.isLog(Level.DEBUG);
+    }
+
+    /** @exclude */ @SuppressWarnings("JavaDoc")
+    public void start(@NonNull final Stage stage) {
+        mStarts.set(stage.ordinal(), System.nanoTime());
+    }
+
+    /** @exclude */ @SuppressWarnings({"JavaDoc", "UnusedReturnValue"})
+    public boolean stop(@NonNull final Stage stage) {
+        final int  idx   = stage.ordinal();
+        final long start = mStarts.getAndSet(idx, 0);
+
+        if (start == 0) {
+            CoreLogger.logFormat(Level.DEBUG, "metrics: stage %s was not started, %s", stage, mDescription);
+            return false;
+        }
+        mDurations.set(idx, System.nanoTime() - start);
+        return true;
+    }
+
+    /** @exclude */ @SuppressWarnings("JavaDoc")
+    public void setPayloadBytes(final long bytes) {
+        mPayloadBytes = bytes < 0 ? UNKNOWN: bytes;
+    }
+
+    /** @exclude */ @SuppressWarnings("JavaDoc")
+    public void setRows(final int rows) {
+        mRows = rows < 0 ? (int) UNKNOWN: rows;
+    }
+
+    /** @exclude */ @SuppressWarnings("JavaDoc")
+    public void setSource(final Source source) {
+        mSource = source;
+    }
+
+    /** @exclude */ @SuppressWarnings("JavaDoc")
+    public void hold() {
+        mPending.incrementAndGet();
+    }
+
+    /** @exclude */ @SuppressWarnings("JavaDoc")
+    public void release() {
+        final int pending = mPending.decrementAndGet();
+        if (pending > 0) return;
+
+        if (pending < 0) {
+            CoreLogger.logError("metrics already published, " + mDescription);
+            return;
+        }
+
+        if (CoreLogger.isLog(Level.DEBUG)) CoreLogger.log(Level.DEBUG, toString());
+
+        for (final MetricsListener listener: sListeners)
+            try {
+                listener.onMetrics(this);
+            }
+            catch (Exception e) {
+                CoreLogger.log("metrics listener failed", e);
+            }
+    }
+
+    /**
+     * Returns the loader ID.
+     *
+     * @return  The loader ID
+     */
+    public int getId() {
+        return mId;
+    }
+
+    /**
+     * Returns the loader description.
+     *
+     * @return  The loader description
+     */
+    public String getDescription() {
+        return mDescription;
+    }
+
+    /**
+     * Returns the data source.
+     *
+     * @return  The data source (or null if the loading was not completed)
+     */
+    public Source getSource() {
+        return mSource;
+    }
+
+    /**
+     * Returns the duration of the given stage.
+     *
+     * @param stage
+     *        The stage
+     *
+     * @param unit
+     *        The time unit
+     *
+     * @return  The duration (or {@link #UNKNOWN} if the stage was not executed)
+     */
+    public long getDuration(@NonNull final Stage stage, @NonNull final TimeUnit unit) {
+        final long duration = mDurations.get(stage.ordinal());
+        return duration == UNKNOWN ? UNKNOWN: unit.convert(duration, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Returns the size of the network payload.
+     *
+     * @return  The payload size in bytes (or {@link #UNKNOWN})
+     */
+    public long getPayloadBytes() {
+        return mPayloadBytes;
+    }
+
+    /**
+     * Returns the number of rows converted (for network) or decoded (for cache).
+     *
+     * @return  The number of rows (or {@link #UNKNOWN})
+     */
+    public int getRows() {
+        return mRows;
+    }
+
+    /**
+     * Please refer to the base method description.
+     */
+    @Override
+    public String toString() {
+        final StringBuilder builder = new StringBuilder("metrics: id ").append(mId)
+                .append(", ").append(mDescription).append(", source ").append(mSource);
+        for (final Stage stage: STAGES) {
+            final long duration = getDuration(stage, TimeUnit.MICROSECONDS);
+            if (duration != UNKNOWN)
+                builder.append(", ").append(stage.name().toLowerCase(CoreLogger.getLocale()))
+                        .append(" ").append(duration).append(" us");
+        }
+        return builder.append(", payload ").append(mPayloadBytes).append(" bytes, rows ")
+                .append(mRows).toString();
+    }
+}
@@ -16,15 +16,28 @@
 
 package akha.yakhont.technology.retrofit;
 
+import akha.yakhont.BaseCacheProvider.HttpValidators;
 import akha.yakhont.Core;
 import akha.yakhont.CoreLogger;
 
+import android.content.Context;
 import android.support.annotation.CallSuper;
 import android.support.annotation.IntRange;
 import android.support.annotation.NonNull;
 import android.support.annotation.Nullable;
 
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
 
 /**
  * The base component to work with {@link <a href="http://square.github.io/retrofit/">Retrofit</a>}.
@@ -109,6 +122,16 @@ public abstract class BaseRetrofit<T, B> {
     protected T                                     mRetrofitApi;
     /** @exclude */ @SuppressWarnings({"JavaDoc", "WeakerAccess"})
     protected int                                   mConnectionTimeout;
+    /** @exclude */ @SuppressWarnings({"JavaDoc", "WeakerAccess"})
+    protected PerformanceProfile                    mPerformanceProfile;
+    /** @exclude */ @SuppressWarnings({"JavaDoc", "WeakerAccess"})
+    protected HttpLogging                           mHttpLogging;
+
+    // keys are HTTP client classes with performance profiles
+    private static final Map<List<Object>, Object>  sSharedClients                  = new HashMap<>();
+    // keys are cache directories; only one cache per directory is allowed
+    private static final Map<File, Object>          sSharedCaches                   = new HashMap<>();
+    private static final Map<File, Long>            sSharedCacheSizes               = new HashMap<>();
 
     /**
      * Initialises a newly created {@code BaseRetrofit} object.
@@ -149,6 +172,70 @@ public abstract class BaseRetrofit<T, B> {
         init(service, retrofitBase, Core.TIMEOUT_CONNECTION, Core.TIMEOUT_CONNECTION, null);
     }
 
+    /**
+     * Returns the performance profile (if any).
+     *
+     * @return  The performance profile (or null)
+     */
+    @SuppressWarnings("unused")
+    public PerformanceProfile getPerformanceProfile() {
+        return mPerformanceProfile;
+    }
+
+    /**
+     * Sets the performance profile. Should be called before Retrofit client initialization;
+     * all {@code init()} methods which create the HTTP client use it.
+     *
+     * @param profile
+     *        The performance profile (HTTP cache, connection pool and dispatcher limits), or null for defaults
+     */
+    @SuppressWarnings("unused")
+    public void setPerformanceProfile(@Nullable final PerformanceProfile profile) {
+        mPerformanceProfile = profile;
+    }
+
+    /**
+     * Initialises Retrofit client with the given performance profile, please refer to
+     * {@link #setPerformanceProfile}.
+     *
+     * @param service
+     *        The service interface
+     *
+     * @param retrofitBase
+     *        The Retrofit API endpoint URL
+     *
+     * @param profile
+     *        The performance profile (HTTP cache, connection pool and dispatcher limits), or null for defaults
+     */
+    @SuppressWarnings("unused")
+    public void init(@NonNull final Class<T> service, @NonNull final String retrofitBase,
+                     @Nullable final PerformanceProfile profile) {
+        setPerformanceProfile(profile);
+        init(service, retrofitBase, Core.TIMEOUT_CONNECTION, Core.TIMEOUT_CONNECTION, null);
+    }
+
+    /**
+     * Returns the HTTP logging settings. If no settings were set, the defaults are used in debug builds
+     * (please refer to {@link CoreLogger#isFullInfo()}), and in release builds no HTTP logging is performed.
+     *
+     * @return  The HTTP logging settings (or null)
+     */
+    public HttpLogging getHttpLogging() {
+        if (mHttpLogging == null && CoreLogger.isFullInfo()) mHttpLogging = new HttpLogging();
+        return mHttpLogging;
+    }
+
+    /**
+     * Sets the HTTP logging settings. Should be called before Retrofit client initialization.
+     *
+     * @param httpLogging
+     *        The HTTP logging settings (or null for defaults)
+     */
+    @SuppressWarnings("unused")
+    public void setHttpLogging(@Nullable final HttpLogging httpLogging) {
+        mHttpLogging = httpLogging;
+    }
+
     /**
      * Initialises Retrofit client.
      *
@@ -220,4 +307,826 @@ public abstract class BaseRetrofit<T, B> {
      */
     @SuppressWarnings("unused")
     public abstract B getDefaultBuilder(@NonNull final String retrofitBase);
+
+    /**
+     * The HTTP client performance settings: the disk cache, the connection pool and the dispatcher limits.
+     * The HTTP clients created with the equal profiles share these resources. The profile is immutable,
+     * please use {@link Builder} to create it. Usage example:
+     *
+     * <p><pre style="background-color: silver; border: thin solid black;">
+     * sRetrofit.init(MyRetrofitApi.class, "http://.../", new BaseRetrofit.PerformanceProfile.Builder(this)
+     *     .setCacheSize(20 * 1024 * 1024)
+     *     .setMaxRequestsPerHost(8)
+     *     .create());
+     * </pre>
+     */
+    public static final class PerformanceProfile {
+
+        /** The default disk cache size in bytes (the value is {@value}). */
+        public static final long                    DEFAULT_CACHE_SIZE              = 10 * 1024 * 1024;
+        /** The default disk cache subdirectory name (the value is {@value}). */
+        public static final String                  DEFAULT_CACHE_DIR               = "yakhont_http_cache";
+
+        private final File                          mCacheDir;
+        private final long                          mCacheSize;
+
+        private final int                           mMaxIdleConnections;
+        private final int                           mKeepAliveDuration;             // seconds
+        private final int                           mMaxRequests;
+        private final int                           mMaxRequestsPerHost;
+
+        private PerformanceProfile(@NonNull final Builder builder) {
+            mCacheDir               = builder.mCacheDir == null ? null: builder.mCacheDir.getAbsoluteFile();
+            mCacheSize              = builder.mCacheSize;
+            mMaxIdleConnections     = builder.mMaxIdleConnections;
+            mKeepAliveDuration      = builder.mKeepAliveDuration;
+            mMaxRequests            = builder.mMaxRequests;
+            mMaxRequestsPerHost     = builder.mMaxRequestsPerHost;
+        }
+
+        /**
+         * Creates the default {@code PerformanceProfile} object with the disk cache in the application's
+         * cache directory.
+         *
+         * @param context
+         *        The context
+         *
+         * @return  The {@code PerformanceProfile} object
+         */
+        @NonNull
+        @SuppressWarnings("unused")
+        public static PerformanceProfile create(@NonNull final Context context) {
+            return new Builder(context).create();
+        }
+
+        /** @exclude */ @SuppressWarnings("JavaDoc")
+        public File getCacheDir() {
+            return mCacheDir;
+        }
+
+        /** @exclude */ @SuppressWarnings("JavaDoc")
+        public long getCacheSize() {
+            return mCacheSize;
+        }
+
+        /** @exclude */ @SuppressWarnings("JavaDoc")
+        public int getMaxIdleConnections() {
+            return mMaxIdleConnections;
+        }
+
+        /** @exclude */ @SuppressWarnings("JavaDoc")
+        public int getKeepAliveDuration() {
+            return mKeepAliveDuration;
+        }
+
+        /** @exclude */ @SuppressWarnings("JavaDoc")
+        public int getMaxRequests() {
+            return mMaxRequests;
+        }
+
+        /** @exclude */ @SuppressWarnings("JavaDoc")
+        public int getMaxRequestsPerHost() {
+            return mMaxRequestsPerHost;
+        }
+
+        /**
+         * Please refer to the base method description.
+         */
+        @Override
+        public boolean equals(final Object object) {
+            if (this == object) return true;
+            if (!(object instanceof PerformanceProfile)) return false;
+
+            final PerformanceProfile profile = (PerformanceProfile) object;
+            return mCacheSize           == profile.mCacheSize           &&
+                   mMaxIdleConnections  == profile.mMaxIdleConnections  &&
+                   mKeepAliveDuration   == profile.mKeepAliveDuration   &&
+                   mMaxRequests         == profile.mMaxRequests         &&
+                   mMaxRequestsPerHost  == profile.mMaxRequestsPerHost  &&
+                   (mCacheDir == null ? profile.mCacheDir == null: mCacheDir.equals(profile.mCacheDir));
+        }
+
+        /**
+         * Please refer to the base method description.
+         */
+        @Override
+        public int hashCode() {
+            int result = mCacheDir == null ? 0: mCacheDir.hashCode();
+            result = 31 * result + (int) (mCacheSize ^ (mCacheSize >>> 32));
+            result = 31 * result + mMaxIdleConnections;
+            result = 31 * result + mKeepAliveDuration;
+            result = 31 * result + mMaxRequests;
+            result = 31 * result + mMaxRequestsPerHost;
+            return result;
+        }
+
+        /**
+         * Please refer to the base method description.
+         */
+        @Override
+        public String toString() {
+            return String.format(CoreLogger.getLocale(),
+                    "cache %s (%d bytes), pool %d / %d s, max requests %d, per host %d", mCacheDir, mCacheSize,
+                    mMaxIdleConnections, mKeepAliveDuration, mMaxRequests, mMaxRequestsPerHost);
+        }
+
+        /**
+         * Builder class for {@link PerformanceProfile} objects.
+         */
+        public static class Builder {
+
+            private File                            mCacheDir;
+            private long                            mCacheSize                      = DEFAULT_CACHE_SIZE;
+
+            // OkHttp defaults
+            private int                             mMaxIdleConnections             =  5;
+            private int                             mKeepAliveDuration              = 300;  // seconds
+            private int                             mMaxRequests                    = 64;
+            private int                             mMaxRequestsPerHost             =  5;
+
+            /**
+             * Initialises a newly created {@code Builder} object (without disk cache).
+             */
+            @SuppressWarnings("unused")
+            public Builder() {
+            }
+
+            /**
+             * Initialises a newly created {@code Builder} object with the disk cache in the application's
+             * cache directory.
+             *
+             * @param context
+             *        The context
+             */
+            public Builder(@NonNull final Context context) {
+                mCacheDir = new File(context.getCacheDir(), DEFAULT_CACHE_DIR);
+            }
+
+            /**
+             * Sets the disk cache directory.
+             *
+             * @param cacheDir
+             *        The disk cache directory, or null to disable disk caching
+             *
+             * @return  This {@code Builder} object to allow for chaining of calls to set methods
+             */
+            @NonNull
+            @SuppressWarnings("unused")
+            public Builder setCacheDir(@Nullable final File cacheDir) {
+                mCacheDir = cacheDir;
+                return this;
+            }
+
+            /**
+             * Sets the disk cache size. The profiles with the same {@link #setCacheDir cache directory} share
+             * the disk cache, so the size of the first one created is used (a warning is logged for the others).
+             *
+             * @param cacheSize
+             *        The maximum size of the disk cache (in bytes)
+             *
+             * @return  This {@code Builder} object to allow for chaining of calls to set methods
+             */
+            @NonNull
+            @SuppressWarnings("unused")
+            public Builder setCacheSize(@IntRange(from = 1) final long cacheSize) {
+                mCacheSize = cacheSize;
+                return this;
+            }
+
+            /**
+             * Sets the connection pool parameters.
+             *
+             * @param maxIdleConnections
+             *        The maximum number of idle connections to keep in the pool
+             *
+             * @param keepAliveDuration
+             *        The time (in seconds) to keep the idle connections alive
+             *
+             * @return  This {@code Builder} object to allow for chaining of calls to set methods
+             */
+            @NonNull
+            @SuppressWarnings("unused")
+            public Builder setConnectionPool(@IntRange(from = 0) final int maxIdleConnections,
+                                             @IntRange(from = 1) final int keepAliveDuration) {
+                mMaxIdleConnections = maxIdleConnections;
+                mKeepAliveDuration  = keepAliveDuration;
+                return this;
+            }
+
+            /**
+             * Sets the maximum number of requests to execute concurrently.
+             *
+             * @param maxRequests
+             *        The maximum number of concurrent requests
+             *
+             * @return  This {@code Builder} object to allow for chaining of calls to set methods
+             */
+            @NonNull
+            @SuppressWarnings("unused")
+            public Builder setMaxRequests(@IntRange(from = 1) final int maxRequests) {
+                mMaxRequests = maxRequests;
+                return this;
+            }
+
+            /**
+             * Sets the maximum number of requests for each host to execute concurrently.
+             *
+             * @param maxRequestsPerHost
+             *        The maximum number of concurrent requests per host
+             *
+             * @return  This {@code Builder} object to allow for chaining of calls to set methods
+             */
+            @NonNull
+            @SuppressWarnings("unused")
+            public Builder setMaxRequestsPerHost(@IntRange(from = 1) final int maxRequestsPerHost) {
+                mMaxRequestsPerHost = maxRequestsPerHost;
+                return this;
+            }
+
+            /**
+             * Creates the {@link PerformanceProfile} object.
+             *
+             * @return  The {@code PerformanceProfile} object
+             */
+            @NonNull
+            public PerformanceProfile create() {
+                return new PerformanceProfile(this);
+            }
+        }
+    }
+
+    /**
+     * Creates the HTTP clients (and their disk caches) for the given performance profile,
+     * please refer to {@link #getSharedClient}.
+     *
+     * @param <C>
+     *        The type of HTTP client
+     *
+     * @param <K>
+     *        The type of HTTP client disk cache
+     */
+    protected interface SharedClientFactory<C, K> {
+
+        /**
+         * Creates the HTTP client.
+         *
+         * @param profile
+         *        The performance profile (or null for defaults)
+         *
+         * @param cache
+         *        The disk cache (or null)
+         *
+         * @return  The HTTP client
+         */
+        @NonNull
+        C createClient(@Nullable PerformanceProfile profile, @Nullable K cache);
+
+        /**
+         * Creates the disk cache.
+         *
+         * @param cacheDir
+         *        The disk cache directory
+         *
+         * @param cacheSize
+         *        The maximum size of the disk cache (in bytes)
+         *
+         * @return  The disk cache
+         */
+        @NonNull
+        K createCache(@NonNull File cacheDir, long cacheSize);
+    }
+
+    /**
+     * Returns the HTTP client which is shared by all Retrofit components with the equal performance profiles.
+     * The disk caches are shared per directory: the clients never open the same directory twice
+     * (it would corrupt the cache journal). So for the profiles with the same cache directory
+     * the cache size of the first one wins.
+     *
+     * @param profile
+     *        The performance profile (or null for defaults)
+     *
+     * @param clientClass
+     *        The HTTP client class
+     *
+     * @param cacheClass
+     *        The HTTP client disk cache class
+     *
+     * @param factory
+     *        The factory to create the client (and its cache) if there's no shared one yet
+     *
+     * @param <C>
+     *        The type of HTTP client
+     *
+     * @param <K>
+     *        The type of HTTP client disk cache
+     *
+     * @return  The shared HTTP client
+     */
+    @NonNull
+    protected static <C, K> C getSharedClient(@Nullable final PerformanceProfile profile,
+                                              @NonNull  final Class<C> clientClass, @NonNull final Class<K> cacheClass,
+                                              @NonNull  final SharedClientFactory<C, K> factory) {
+        final List<Object> key = Arrays.<Object>asList(clientClass, profile);
+
+        synchronized (sSharedClients) {
+            final Object client = sSharedClients.get(key);
+            if (client != null) return clientClass.cast(client);
+
+            if (profile != null) CoreLogger.log("performance profile: " + profile);
+
+            final C newClient = factory.createClient(profile, getSharedCache(profile, cacheClass, factory));
+            sSharedClients.put(key, newClient);
+            return newClient;
+        }
+    }
+
+    // should be called under lock
+    private static <K> K getSharedCache(@Nullable final PerformanceProfile profile, @NonNull final Class<K> cacheClass,
+                                        @NonNull final SharedClientFactory<?, K> factory) {
+        final File cacheDir = profile == null ? null: profile.getCacheDir();
+        if (cacheDir == null) return null;
+
+        final Object cache = sSharedCaches.get(cacheDir);
+        if (cache == null) {
+            final K newCache = factory.createCache(cacheDir, profile.getCacheSize());
+            sSharedCaches    .put(cacheDir, newCache);
+            sSharedCacheSizes.put(cacheDir, profile.getCacheSize());
+            return newCache;
+        }
+        if (cacheClass.isInstance(cache)) {
+            final long cacheSize = sSharedCacheSizes.get(cacheDir);
+            if (cacheSize != profile.getCacheSize())
+                CoreLogger.logWarning("the HTTP disk cache directory " + cacheDir + " is already used with size " +
+                        cacheSize + ", the requested size " + profile.getCacheSize() + " ignored");
+            else
+                CoreLogger.log("shared HTTP disk cache " + cacheDir);
+            return cacheClass.cast(cache);
+        }
+
+        // e.g. Retrofit and Retrofit 2 profiles with the same directory - the journal formats are not compatible
+        CoreLogger.logError("the HTTP disk cache directory " + cacheDir +
+                " is already used by another HTTP client, disk caching disabled");
+        return null;
+    }
+
+    /**
+     * The HTTP logging settings. Unlike the "log everything" approach, only the first
+     * {@link #setMaxBodySize maxBodySize} bytes of the bodies are buffered and logged, requests could be sampled
+     * (globally or per endpoint), sensitive headers are redacted, and in the "timing only" mode just request lines,
+     * response codes and durations are logged. The same data (except headers and bodies) are passed to the
+     * {@link MetricsListener} (if any) for every request, sampled or not. Usage example:
+     *
+     * <p><pre style="background-color: silver; border: thin solid black;">
+     * sRetrofit.setHttpLogging(new BaseRetrofit.HttpLogging()
+     *     .setMaxBodySize(1024)
+     *     .setSamplingRate(0.05f)
+     *     .setSamplingRate("/api/search", 0.01f)
+     *     .setMetricsListener(myListener));
+     * </pre>
+     *
+     * Note that in release builds the log records are available via the registered
+     * {@link CoreLogger.LoggerExtender} only.
+     */
+    public static class HttpLogging {
+
+        /** The default maximum number of body bytes to log (the value is {@value}). */
+        public static final int                     DEFAULT_MAX_BODY_SIZE           = 4 * 1024;
+
+        private static final String                 REDACTED                        = "***";
+
+        private static final Random                 sRandom                         = new Random();
+
+        private volatile boolean                    mEnabled                        = true;
+        private volatile boolean                    mTimingOnly;
+        private volatile int                        mMaxBodySize                    = DEFAULT_MAX_BODY_SIZE;
+        private volatile float                      mSamplingRate                   = 1;
+        private volatile MetricsListener            mMetricsListener;
+
+        private final Map<String, Float>            mSamplingRates                  = new LinkedHashMap<>();
+        private final Set<String>                   mRedactedHeaders                = new HashSet<>();
+
+        /**
+         * The callback to receive HTTP metrics.
+         */
+        public interface MetricsListener {
+
+            /**
+             * Called when the HTTP request completed (or failed). Note that it's called from the HTTP client
+             * thread, so implementations should be fast and thread safe.
+             *
+             * @param method
+             *        The HTTP method
+             *
+             * @param url
+             *        The request URL
+             *
+             * @param code
+             *        The HTTP response code, or -1 if the request failed
+             *
+             * @param duration
+             *        The request duration (in milliseconds)
+             *
+             * @param requestBytes
+             *        The request body length, or -1 if unknown
+             *
+             * @param responseBytes
+             *        The response body length, or -1 if unknown
+             */
+            void onHttpMetrics(String method, String url, int code, long duration,
+                               long requestBytes, long responseBytes);
+        }
+
+        /**
+         * Initialises a newly created {@code HttpLogging} object. The headers "Authorization",
+         * "Proxy-Authorization", "Cookie" and "Set-Cookie" are redacted by default.
+         */
+        public HttpLogging() {
+            redactHeader("Authorization");
+            redactHeader("Proxy-Authorization");
+            redactHeader("Cookie");
+            redactHeader("Set-Cookie");
+        }
+
+        /**
+         * Enables or disables logging (the metrics listener gets notified anyway).
+         *
+         * @param enabled
+         *        {@code true} to enable logging, {@code false} otherwise
+         *
+         * @return  This {@code HttpLogging} object to allow for chaining of calls to set methods
+         */
+        @NonNull
+        @SuppressWarnings("unused")
+        public HttpLogging setEnabled(final boolean enabled) {
+            mEnabled = enabled;
+            return this;
+        }
+
+        /**
+         * Sets the "timing only" mode: no headers and bodies are logged.
+         *
+         * @param timingOnly
+         *        {@code true} to log request lines, response codes and durations only
+         *
+         * @return  This {@code HttpLogging} object to allow for chaining of calls to set methods
+         */
+        @NonNull
+        @SuppressWarnings("unused")
+        public HttpLogging setTimingOnly(final boolean timingOnly) {
+            mTimingOnly = timingOnly;
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of body bytes to log; the longer bodies are truncated.
+         *
+         * @param maxBodySize
+         *        The maximum body size (in bytes), or 0 to not log bodies at all
+         *
+         * @return  This {@code HttpLogging} object to allow for chaining of calls to set methods
+         */
+        @NonNull
+        @SuppressWarnings("unused")
+        public HttpLogging setMaxBodySize(@IntRange(from = 0) final int maxBodySize) {
+            mMaxBodySize = maxBodySize;
+            return this;
+        }
+
+        /**
+         * Sets the default sampling rate.
+         *
+         * @param rate
+         *        The fraction of requests to log (from 0 to 1)
+         *
+         * @return  This {@code HttpLogging} object to allow for chaining of calls to set methods
+         */
+        @NonNull
+        @SuppressWarnings("unused")
+        public HttpLogging setSamplingRate(final float rate) {
+            mSamplingRate = rate;
+            return this;
+        }
+
+        /**
+         * Sets the sampling rate for the given endpoint. If several endpoints match the request,
+         * the longest one wins.
+         *
+         * @param path
+         *        The URL path prefix (e.g. "/api/search")
+         *
+         * @param rate
+         *        The fraction of requests to log (from 0 to 1)
+         *
+         * @return  This {@code HttpLogging} object to allow for chaining of calls to set methods
+         */
+        @NonNull
+        @SuppressWarnings("unused")
+        public HttpLogging setSamplingRate(@NonNull final String path, final float rate) {
+            synchronized (mSamplingRates) {
+                mSamplingRates.put(path, rate);
+            }
+            return this;
+        }
+
+        /**
+         * Adds the header which value should not be logged.
+         *
+         * @param name
+         *        The header name (case insensitive)
+         *
+         * @return  This {@code HttpLogging} object to allow for chaining of calls to set methods
+         */
+        @NonNull
+        @SuppressWarnings("WeakerAccess")
+        public HttpLogging redactHeader(@NonNull final String name) {
+            synchronized (mRedactedHeaders) {
+                mRedactedHeaders.add(name.toLowerCase(Locale.US));
+            }
+            return this;
+        }
+
+        /**
+         * Sets the HTTP metrics listener.
+         *
+         * @param listener
+         *        The listener (or null)
+         *
+         * @return  This {@code HttpLogging} object to allow for chaining of calls to set methods
+         */
+        @NonNull
+        @SuppressWarnings("unused")
+        public HttpLogging setMetricsListener(@Nullable final MetricsListener listener) {
+            mMetricsListener = listener;
+            return this;
+        }
+
+        /** @exclude */ @SuppressWarnings("JavaDoc")
+        public boolean isTimingOnly() {
+            return mTimingOnly;
+        }
+
+        /** @exclude */ @SuppressWarnings("JavaDoc")
+        public int getMaxBodySize() {
+            return mMaxBodySize;
+        }
+
+        /** @exclude */ @SuppressWarnings("JavaDoc")
+        public boolean hasMetricsListener() {
+            return mMetricsListener != null;
+        }
+
+        /** @exclude */ @SuppressWarnings("JavaDoc")
+        public boolean isLog(@NonNull final String path) {
+            if (!mEnabled) return false;
+
+            float rate = mSamplingRate;
+            synchronized (mSamplingRates) {
+                int length = -1;
+                for (final Map.Entry<String, Float> entry: mSamplingRates.entrySet())
+                    if (path.startsWith(entry.getKey()) && entry.getKey().length() > length) {
+                        length = entry.getKey().length();
+                        rate   = entry.getValue();
+                    }
+            }
+            return rate >= 1 || rate > 0 && sRandom.nextFloat() < rate;
+        }
+
+        /** @exclude */ @SuppressWarnings("JavaDoc")
+        public void appendHeader(@NonNull final StringBuilder builder, @NonNull final String name, final String value) {
+            final boolean redacted;
+            synchronized (mRedactedHeaders) {
+                redacted = mRedactedHeaders.contains(name.toLowerCase(Locale.US));
+            }
+            builder.append('\n').append(name).append(": ").append(redacted ? REDACTED: value);
+        }
+
+        /** @exclude */ @SuppressWarnings("JavaDoc")
+        public void appendBody(@NonNull final StringBuilder builder, final String body, final boolean truncated) {
+            if (body == null || body.length() == 0) return;
+            builder.append("\n\n").append(body);
+            if (truncated) builder.append("\n... (truncated)");
+        }
+
+        /** @exclude */ @SuppressWarnings("JavaDoc")
+        public static boolean isText(final String contentType) {
+            if (contentType == null) return true;
+            final String type = contentType.toLowerCase(Locale.US);
+            return type.startsWith("text/") || type.contains("json") || type.contains("xml") ||
+                    type.contains("x-www-form-urlencoded");
+        }
+
+        /** @exclude */ @SuppressWarnings("JavaDoc")
+        public void log(@NonNull final String msg) {
+            CoreLogger.log(CoreLogger.Level.INFO, msg);
+        }
+
+        /** @exclude */ @SuppressWarnings("JavaDoc")
+        public void onMetrics(final String method, final String url, final int code, final long duration,
+                              final long requestBytes, final long responseBytes) {
+            final MetricsListener listener = mMetricsListener;
+            if (listener == null) return;
+            try {
+                listener.onHttpMetrics(method, url, code, duration, requestBytes, responseBytes);
+            }
+            catch (Exception e) {
+                CoreLogger.log("HTTP metrics listener failed", e);
+            }
+        }
+
+        /**
+         * Logs the HTTP requests and responses according to the {@link HttpLogging} settings, and
+         * collects the HTTP metrics. Only the first {@link HttpLogging#getMaxBodySize maxBodySize} bytes
+         * of the response body are buffered. The OkHttp 2 / 3 interceptors just adapt their requests
+         * and responses to this class.
+         *
+         * @param <C>
+         *        The type of interceptor chain
+         *
+         * @param <Q>
+         *        The type of HTTP request
+         *
+         * @param <S>
+         *        The type of HTTP response
+         */
+        static abstract class Adapter<C, Q, S> {
+
+            private final HttpLogging                   mHttpLogging;
+
+            Adapter(@NonNull final HttpLogging httpLogging) {
+                mHttpLogging = httpLogging;
+            }
+
+            abstract Q      getRequest              (@NonNull C chain);
+            abstract S      proceed                 (@NonNull C chain, @NonNull Q request) throws IOException;
+
+            abstract String getMethod               (@NonNull Q request);
+            abstract String getUrl                  (@NonNull Q request);
+            abstract String getPath                 (@NonNull Q request);
+            abstract void   appendRequestHeaders    (@NonNull StringBuilder builder, @NonNull Q request);
+            // 0 if there's no body, -1 if the length is unknown
+            abstract long   getRequestBodyLength    (@NonNull Q request) throws IOException;
+            abstract String getRequestContentType   (@NonNull Q request);
+            abstract String getRequestBody          (@NonNull Q request) throws IOException;
+
+            abstract int    getCode                 (@NonNull S response);
+            abstract String getMessage              (@NonNull S response);
+            abstract void   appendResponseHeaders   (@NonNull StringBuilder builder, @NonNull S response);
+            abstract boolean hasResponseBody        (@NonNull S response);
+            // -1 if there's no body or the length is unknown
+            abstract long   getResponseBodyLength   (@NonNull S response) throws IOException;
+            abstract String getResponseContentType  (@NonNull S response);
+            // should not consume the body, it's still needed for the converter
+            abstract String peekResponseBody        (@NonNull S response, int maxBodySize) throws IOException;
+
+            void appendHeader(@NonNull final StringBuilder builder, @NonNull final String name, final String value) {
+                mHttpLogging.appendHeader(builder, name, value);
+            }
+
+            S logAndProceed(@NonNull final C chain) throws IOException {
+                final Q request = getRequest(chain);
+
+                final boolean log = mHttpLogging.isLog(getPath(request));
+                if (!log && !mHttpLogging.hasMetricsListener()) return proceed(chain, request);
+
+                final boolean full     = log && !mHttpLogging.isTimingOnly();
+                final int maxBodySize  = mHttpLogging.getMaxBodySize();
+
+                final String method = getMethod(request), url = getUrl(request);
+                final long requestBytes = getRequestBodyLength(request);
+
+                if (log) {
+                    final StringBuilder builder = new StringBuilder("--> ").append(method).append(' ').append(url);
+                    if (full) {
+                        appendRequestHeaders(builder, request);
+                        if (requestBytes > 0 && requestBytes <= maxBodySize &&
+                                HttpLogging.isText(getRequestContentType(request)))
+                            mHttpLogging.appendBody(builder, getRequestBody(request), false);
+                    }
+                    mHttpLogging.log(builder.toString());
+                }
+
+                final long start = System.nanoTime();
+                final S response;
+                try {
+                    response = proceed(chain, request);
+                }
+                catch (IOException exception) {
+                    final long duration = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+                    if (log) mHttpLogging.log("<-- HTTP FAILED (" + duration + " ms): " + exception);
+                    mHttpLogging.onMetrics(method, url, -1, duration, requestBytes, -1);
+                    throw exception;
+                }
+                final long duration = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+                final long responseBytes = getResponseBodyLength(response);
+
+                if (log) {
+                    final StringBuilder builder = new StringBuilder("<-- ").append(getCode(response)).append(' ')
+                            .append(getMessage(response)).append(' ').append(url).append(" (").append(duration)
+                            .append(" ms, ").append(responseBytes < 0 ? "unknown length": responseBytes + " bytes")
+                            .append(')');
+                    if (full) {
+                        appendResponseHeaders(builder, response);
+                        if (hasResponseBody(response) && maxBodySize > 0 && responseBytes != 0 &&
+                                HttpLogging.isText(getResponseContentType(response)))
+                            mHttpLogging.appendBody(builder, peekResponseBody(response, maxBodySize),
+                                    responseBytes < 0 || responseBytes > maxBodySize);
+                    }
+                    mHttpLogging.log(builder.toString());
+                }
+                mHttpLogging.onMetrics(method, url, getCode(response), duration, requestBytes, responseBytes);
+
+                return response;
+            }
+        }
+    }
+
+    /**
+     * The HTTP conditional requests logic shared by the Retrofit and Retrofit 2 interceptors: the loaders' GET requests
+     * are made conditional ({@code If-None-Match} / {@code If-Modified-Since}) if the cache already keeps the data
+     * for the request URL, and the validators are collected from the responses.
+     * <p>
+     * The interceptors run on the network threads, so the loaders' requests are marked with the
+     * {@link #HEADER_LOADER_REQUEST} header on the submitting thread (see {@link HttpValidators#isLoaderRequest});
+     * the interceptors remove it before sending.
+     *
+     * @see HttpValidators
+     */
+    static class ConditionalRequests {
+
+        /** The marker header of the loaders' requests (the value is {@value}). */
+        static final String                         HEADER_LOADER_REQUEST       = "X-Yakhont-Loader-Request";
+
+        private ConditionalRequests() {
+        }
+
+        /**
+         * Checks whether the request could be made conditional.
+         *
+         * @param loaderRequest
+         *        {@code true} if the request is marked with the {@link #HEADER_LOADER_REQUEST} header
+         *
+         * @param method
+         *        The HTTP method
+         *
+         * @param ifNoneMatch
+         *        The request's {@code If-None-Match} header value (or null)
+         *
+         * @param ifModifiedSince
+         *        The request's {@code If-Modified-Since} header value (or null)
+         *
+         * @return  {@code true} if the request could be made conditional, {@code false} otherwise
+         */
+        static boolean isApplicable(final boolean loaderRequest, final String method,
+                                    final String ifNoneMatch, final String ifModifiedSince) {
+            // the caller's own validators are never overridden
+            return loaderRequest && HttpValidators.isEnabled() && "GET".equals(method) &&
+                    ifNoneMatch == null && ifModifiedSince == null;
+        }
+
+        /**
+         * Returns the conditional headers to add to the request.
+         *
+         * @param url
+         *        The request URL
+         *
+         * @return  The headers (names and values), or null if there are no validators for the given URL
+         */
+        static Map<String, String> getHeaders(@NonNull final String url) {
+            final String[] validators = HttpValidators.get(url);
+            if (validators == null) return null;
+
+            final Map<String, String> headers = new LinkedHashMap<>();
+            if (validators[0] != null) headers.put(HttpValidators.HEADER_IF_NONE_MATCH,     validators[0]);
+            if (validators[1] != null) headers.put(HttpValidators.HEADER_IF_MODIFIED_SINCE, validators[1]);
+
+            return headers;
+        }
+
+        /**
+         * Collects the validators from the response.
+         *
+         * @param requestUrl
+         *        The request URL
+         *
+         * @param responseUrl
+         *        The response URL (after redirects, if any)
+         *
+         * @param code
+         *        The HTTP response code
+         *
+         * @param eTag
+         *        The response's {@code ETag} header value (or null)
+         *
+         * @param lastModified
+         *        The response's {@code Last-Modified} header value (or null)
+         */
+        static void onResponse(@NonNull final String requestUrl, @NonNull final String responseUrl, final int code,
+                               final String eTag, final String lastModified) {
+            if (code >= 200 && code < 300)
+                HttpValidators.onResponse(requestUrl, responseUrl, eTag, lastModified);
+            else if (code == HttpValidators.HTTP_NOT_MODIFIED)
+                CoreLogger.log("not modified: " + requestUrl);
+        }
+    }
 }
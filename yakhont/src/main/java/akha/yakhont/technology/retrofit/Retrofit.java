@@ -16,6 +16,7 @@
 
 package akha.yakhont.technology.retrofit;
 
+import akha.yakhont.BaseCacheProvider.HttpValidators;
 import akha.yakhont.CoreLogger;
 import akha.yakhont.adapter.BaseCacheAdapter.BaseCacheAdapterFactory;
 import akha.yakhont.adapter.ValuesCacheAdapterWrapper;
@@ -30,11 +31,25 @@ import android.support.annotation.NonNull;
 import android.support.annotation.Nullable;
 import android.support.annotation.Size;
 
+import com.squareup.okhttp.Cache;
+import com.squareup.okhttp.ConnectionPool;
+import com.squareup.okhttp.Dispatcher;
+import com.squareup.okhttp.Headers;
+import com.squareup.okhttp.Interceptor;
+import com.squareup.okhttp.MediaType;
 import com.squareup.okhttp.OkHttpClient;
+import com.squareup.okhttp.Request;
+import com.squareup.okhttp.RequestBody;
+import com.squareup.okhttp.ResponseBody;
 
+import java.io.File;
+import java.io.IOException;
 import java.util.Map;
 import java.util.concurrent.TimeUnit;
 
+import okio.Buffer;
+import okio.BufferedSource;
+
 import retrofit.RequestInterceptor;
 import retrofit.RestAdapter.Builder;
 import retrofit.RestAdapter.LogLevel;
@@ -59,6 +74,34 @@ public class Retrofit<T> extends BaseRetrofit<T, Builder> {
 
     private static final String                     LOG_RETROFIT_SUFFIX        = "-Retrofit";
 
+    private static final SharedClientFactory<OkHttpClient, Cache>
+                                                    SHARED_CLIENT_FACTORY      = new SharedClientFactory<OkHttpClient, Cache>() {
+        @NonNull
+        @Override
+        public OkHttpClient createClient(@Nullable final PerformanceProfile profile, @Nullable final Cache cache) {
+            final OkHttpClient okHttpClient = new OkHttpClient();
+            if (profile == null) return okHttpClient;
+
+            final Dispatcher dispatcher = new Dispatcher();
+            dispatcher.setMaxRequests       (profile.getMaxRequests());
+            dispatcher.setMaxRequestsPerHost(profile.getMaxRequestsPerHost());
+
+            okHttpClient.setDispatcher(dispatcher);
+            okHttpClient.setConnectionPool(new ConnectionPool(
+                    profile.getMaxIdleConnections(), TimeUnit.SECONDS.toMillis(profile.getKeepAliveDuration())));
+
+            if (cache != null) okHttpClient.setCache(cache);
+
+            return okHttpClient;
+        }
+
+        @NonNull
+        @Override
+        public Cache createCache(@NonNull final File cacheDir, final long cacheSize) {
+            return new Cache(cacheDir, cacheSize);
+        }
+    };
+
     private YakhontRestAdapter<T>                   mYakhontRestAdapter;
 
     /**
@@ -83,10 +126,16 @@ public class Retrofit<T> extends BaseRetrofit<T, Builder> {
                      @SuppressWarnings("SameParameterValue") @IntRange(from = 1) final int readTimeout,
                      @SuppressWarnings("SameParameterValue") @Nullable final Map<String, String> headers) {
 
-        final OkHttpClient okHttpClient = new OkHttpClient();
+        // shares connection pool, dispatcher and disk cache with all other clients with the same profile
+        final OkHttpClient okHttpClient = getSharedOkHttpClient(mPerformanceProfile).clone();
         okHttpClient.setConnectTimeout(connectTimeout, TimeUnit.SECONDS);
         okHttpClient.setReadTimeout   (readTimeout,    TimeUnit.SECONDS);
 
+        okHttpClient.interceptors().add(new ConditionalRequestsInterceptor());
+
+        final HttpLogging httpLogging = getHttpLogging();
+        if (httpLogging != null) okHttpClient.interceptors().add(new LoggingInterceptor(httpLogging));
+
         init(service, getDefaultBuilder(retrofitBase, headers).setClient(new OkClient(okHttpClient)),
                 connectTimeout, readTimeout);
     }
@@ -129,21 +178,212 @@ public class Retrofit<T> extends BaseRetrofit<T, Builder> {
 
         final Builder builder = new Builder()
                 .setLog(new AndroidLog(CoreLogger.getTag() + LOG_RETROFIT_SUFFIX))
-                .setLogLevel(CoreLogger.isFullInfo() ? LogLevel.FULL: LogLevel.NONE)
+                .setLogLevel(LogLevel.NONE)     // HTTP logging goes via OkHttp interceptor, see HttpLogging
                 .setEndpoint(retrofitBase);
 
-        if (headers != null && !headers.isEmpty())
-            builder.setRequestInterceptor(new RequestInterceptor() {
-                @Override
-                public void intercept(RequestFacade request) {
-                    for (final Map.Entry<String, String> header: headers.entrySet())
-                        request.addHeader(header.getKey(), header.getValue());
-                }
-            });
+        builder.setRequestInterceptor(new RequestInterceptor() {
+            @Override
+            public void intercept(RequestFacade request) {
+                // Retrofit calls it on the submitting thread (even for the asynchronous requests),
+                // so the loaders' requests could be marked here for the ConditionalRequestsInterceptor
+                if (HttpValidators.isLoaderRequest())
+                    request.addHeader(ConditionalRequests.HEADER_LOADER_REQUEST, Boolean.TRUE.toString());
+
+                if (headers == null) return;
+                for (final Map.Entry<String, String> header: headers.entrySet())
+                    request.addHeader(header.getKey(), header.getValue());
+            }
+        });
 
         return builder;
     }
 
+    /**
+     * Returns the {@code OkHttpClient} which is shared by all {@code Retrofit} components with the equal
+     * performance profiles. Use {@link OkHttpClient#clone()} to customize it: the customized clients
+     * still share the connection pool, the dispatcher (and its threads) and the disk cache.
+     *
+     * @param profile
+     *        The performance profile (or null for defaults)
+     *
+     * @return  The shared {@code OkHttpClient}
+     */
+    @NonNull
+    public static OkHttpClient getSharedOkHttpClient(@Nullable final PerformanceProfile profile) {
+        return getSharedClient(profile, OkHttpClient.class, Cache.class, SHARED_CLIENT_FACTORY);
+    }
+
+    /**
+     * Makes the loaders' GET requests conditional ({@code If-None-Match} / {@code If-Modified-Since}) if the cache
+     * already keeps the data for the request URL, and collects the validators from the responses.
+     *
+     * @see ConditionalRequests
+     */
+    private static class ConditionalRequestsInterceptor implements Interceptor {
+
+        /**
+         * Please refer to the base method description.
+         */
+        @Override
+        public com.squareup.okhttp.Response intercept(final Chain chain) throws IOException {
+            Request request = chain.request();
+
+            final boolean loaderRequest = request.header(ConditionalRequests.HEADER_LOADER_REQUEST) != null;
+            if (loaderRequest)
+                request = request.newBuilder().removeHeader(ConditionalRequests.HEADER_LOADER_REQUEST).build();
+
+            if (!ConditionalRequests.isApplicable(loaderRequest, request.method(),
+                    request.header(HttpValidators.HEADER_IF_NONE_MATCH),
+                    request.header(HttpValidators.HEADER_IF_MODIFIED_SINCE)))
+                return chain.proceed(request);
+
+            final String url = request.urlString();
+
+            final Map<String, String> headers = ConditionalRequests.getHeaders(url);
+            if (headers != null) {
+                final Request.Builder requestBuilder = request.newBuilder();
+                for (final Map.Entry<String, String> header: headers.entrySet())
+                    requestBuilder.header(header.getKey(), header.getValue());
+                request = requestBuilder.build();
+            }
+
+            final com.squareup.okhttp.Response response = chain.proceed(request);
+
+            // the response request is the one after redirects - the loaders bind the validators by its URL
+            ConditionalRequests.onResponse(url, response.request().urlString(), response.code(),
+                    response.header(HttpValidators.HEADER_ETAG), response.header(HttpValidators.HEADER_LAST_MODIFIED));
+
+            return response;
+        }
+    }
+
+    /**
+     * The OkHttp 2 adapter for the {@link HttpLogging.Adapter}.
+     */
+    private static class LoggingInterceptor
+            extends HttpLogging.Adapter<Interceptor.Chain, Request, com.squareup.okhttp.Response> implements Interceptor {
+
+        private LoggingInterceptor(@NonNull final HttpLogging httpLogging) {
+            super(httpLogging);
+        }
+
+        /**
+         * Please refer to the base method description.
+         */
+        @Override
+        public com.squareup.okhttp.Response intercept(final Chain chain) throws IOException {
+            return logAndProceed(chain);
+        }
+
+        @Override
+        Request getRequest(@NonNull final Chain chain) {
+            return chain.request();
+        }
+
+        @Override
+        com.squareup.okhttp.Response proceed(@NonNull final Chain chain, @NonNull final Request request)
+                throws IOException {
+            return chain.proceed(request);
+        }
+
+        @Override
+        String getMethod(@NonNull final Request request) {
+            return request.method();
+        }
+
+        @Override
+        String getUrl(@NonNull final Request request) {
+            return request.urlString();
+        }
+
+        @Override
+        String getPath(@NonNull final Request request) {
+            return request.httpUrl().encodedPath();
+        }
+
+        @Override
+        void appendRequestHeaders(@NonNull final StringBuilder builder, @NonNull final Request request) {
+            appendHeaders(builder, request.headers());
+        }
+
+        @Override
+        long getRequestBodyLength(@NonNull final Request request) throws IOException {
+            final RequestBody requestBody = request.body();
+            return requestBody == null ? 0: requestBody.contentLength();
+        }
+
+        @Override
+        String getRequestContentType(@NonNull final Request request) {
+            final RequestBody requestBody = request.body();
+            return requestBody == null ? null: toString(requestBody.contentType());
+        }
+
+        @Override
+        String getRequestBody(@NonNull final Request request) throws IOException {
+            final RequestBody requestBody = request.body();
+            if (requestBody == null) return null;
+
+            final Buffer buffer = new Buffer();
+            requestBody.writeTo(buffer);
+            return buffer.readUtf8();
+        }
+
+        @Override
+        int getCode(@NonNull final com.squareup.okhttp.Response response) {
+            return response.code();
+        }
+
+        @Override
+        String getMessage(@NonNull final com.squareup.okhttp.Response response) {
+            return response.message();
+        }
+
+        @Override
+        void appendResponseHeaders(@NonNull final StringBuilder builder,
+                                   @NonNull final com.squareup.okhttp.Response response) {
+            appendHeaders(builder, response.headers());
+        }
+
+        @Override
+        boolean hasResponseBody(@NonNull final com.squareup.okhttp.Response response) {
+            return response.body() != null;
+        }
+
+        @Override
+        long getResponseBodyLength(@NonNull final com.squareup.okhttp.Response response) throws IOException {
+            final ResponseBody responseBody = response.body();
+            return responseBody == null ? -1: responseBody.contentLength();
+        }
+
+        @Override
+        String getResponseContentType(@NonNull final com.squareup.okhttp.Response response) {
+            final ResponseBody responseBody = response.body();
+            return responseBody == null ? null: toString(responseBody.contentType());
+        }
+
+        // OkHttp 2 has no Response.peekBody(), so buffers up to maxBodySize bytes in the body's own source
+        // (they remain available for the converter) and copies them
+        @Override
+        String peekResponseBody(@NonNull final com.squareup.okhttp.Response response, final int maxBodySize)
+                throws IOException {
+            final BufferedSource source = response.body().source();
+            source.request(maxBodySize);
+
+            final Buffer buffer = new Buffer();
+            source.buffer().copyTo(buffer, 0, Math.min(maxBodySize, source.buffer().size()));
+            return buffer.readUtf8();
+        }
+
+        private static String toString(final MediaType contentType) {
+            return contentType == null ? null: contentType.toString();
+        }
+
+        private void appendHeaders(@NonNull final StringBuilder builder, @NonNull final Headers headers) {
+            for (int i = 0; i < headers.size(); i++)
+                appendHeader(builder, headers.name(i), headers.value(i));
+        }
+    }
+
     ////////////////////////////////////////////////////////////////////////////////////////////////
 
     /**
@@ -16,8 +16,8 @@
 
 package akha.yakhont.technology.retrofit;
 
+import akha.yakhont.BaseCacheProvider.HttpValidators;
 import akha.yakhont.Core;
-import akha.yakhont.Core.Utils;
 import akha.yakhont.CoreLogger;
 import akha.yakhont.CoreLogger.Level;
 import akha.yakhont.adapter.BaseCacheAdapter.BaseCacheAdapterFactory;
@@ -27,25 +27,43 @@ import akha.yakhont.technology.rx.BaseRx.LoaderRx;
 
 import android.app.Activity;
 import android.content.ContentValues;
+import android.content.Context;
+import android.content.SharedPreferences;
 import android.support.annotation.IntRange;
 import android.support.annotation.LayoutRes;
 import android.support.annotation.NonNull;
 import android.support.annotation.Nullable;
 import android.support.annotation.Size;
 
+import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.TimeUnit;
 
+import okhttp3.Cache;
+import okhttp3.ConnectionPool;
 import okhttp3.Cookie;
 import okhttp3.CookieJar;
+import okhttp3.Dispatcher;
+import okhttp3.Headers;
 import okhttp3.HttpUrl;
 import okhttp3.Interceptor;
+import okhttp3.MediaType;
 import okhttp3.OkHttpClient;
 import okhttp3.Request;
-import okhttp3.logging.HttpLoggingInterceptor;
+import okhttp3.RequestBody;
+import okhttp3.ResponseBody;
+
+import okio.Buffer;
 
 import retrofit2.CallAdapter.Factory;
 import retrofit2.Response;
@@ -68,7 +86,35 @@ import retrofit2.converter.gson.GsonConverterFactory;
  */
 public class Retrofit2<T> extends BaseRetrofit<T, Builder> {
 
+    private static final SharedClientFactory<OkHttpClient, Cache>
+                                            SHARED_CLIENT_FACTORY       = new SharedClientFactory<OkHttpClient, Cache>() {
+        @NonNull
+        @Override
+        public OkHttpClient createClient(@Nullable final PerformanceProfile profile, @Nullable final Cache cache) {
+            final OkHttpClient.Builder builder = new OkHttpClient.Builder();
+            if (profile == null) return builder.build();
+
+            final Dispatcher dispatcher = new Dispatcher();
+            dispatcher.setMaxRequests       (profile.getMaxRequests());
+            dispatcher.setMaxRequestsPerHost(profile.getMaxRequestsPerHost());
+
+            builder.dispatcher(dispatcher).connectionPool(new ConnectionPool(
+                    profile.getMaxIdleConnections(), profile.getKeepAliveDuration(), TimeUnit.SECONDS));
+
+            if (cache != null) builder.cache(cache);
+
+            return builder.build();
+        }
+
+        @NonNull
+        @Override
+        public Cache createCache(@NonNull final File cacheDir, final long cacheSize) {
+            return new Cache(cacheDir, cacheSize);
+        }
+    };
+
     private Class<T>                        mService;
+    private CookieStore                     mCookieStore;
 
     /**
      * Initialises a newly created {@code Retrofit2} object.
@@ -126,8 +172,8 @@ public class Retrofit2<T> extends BaseRetrofit<T, Builder> {
                      @SuppressWarnings("SameParameterValue") @Nullable final Map<String, String> headers,
                      @SuppressWarnings("SameParameterValue") @Nullable final Map<String, String> cookies) {
 
-        init(service, getDefaultBuilder(retrofitBase).client(getDefaultOkHttpClientBuilder(
-                connectTimeout, readTimeout, headers, cookies).build()),
+        init(service, getDefaultBuilder(retrofitBase).callFactory(new LoaderCallFactory(getDefaultOkHttpClientBuilder(
+                connectTimeout, readTimeout, headers, cookies).build())),
                 connectTimeout, readTimeout);
     }
 
@@ -217,15 +263,12 @@ public class Retrofit2<T> extends BaseRetrofit<T, Builder> {
             @SuppressWarnings("SameParameterValue") @Nullable final Map<String, String> headers,
             @SuppressWarnings("SameParameterValue") @Nullable final Map<String, String> cookies) {
 
-        final OkHttpClient.Builder builder = new OkHttpClient.Builder()
+        // shares connection pool, dispatcher and disk cache with all other clients with the same profile
+        final OkHttpClient.Builder builder = getSharedOkHttpClient(mPerformanceProfile).newBuilder()
                 .connectTimeout(connectTimeout, TimeUnit.SECONDS)
                 .readTimeout   (readTimeout,    TimeUnit.SECONDS);
 
-        final HttpLoggingInterceptor logger = new HttpLoggingInterceptor();
-        logger.setLevel(CoreLogger.isFullInfo() ?
-                HttpLoggingInterceptor.Level.BODY:
-                HttpLoggingInterceptor.Level.NONE);
-        builder.addInterceptor(logger);
+        builder.addInterceptor(new ConditionalRequestsInterceptor());
 
         if (headers != null && !headers.isEmpty())
             builder.addInterceptor(new Interceptor() {
@@ -240,47 +283,262 @@ public class Retrofit2<T> extends BaseRetrofit<T, Builder> {
                 }
             });
 
-        if (cookies != null && !cookies.isEmpty())
-            builder.cookieJar(new CookieJar() {
+        // added after the headers interceptor to log the custom headers too; as an application interceptor it doesn't
+        // see the headers OkHttp adds itself (e.g. cookies, User-Agent) and logs the call with redirects as a whole
+        final HttpLogging httpLogging = getHttpLogging();
+        if (httpLogging != null) builder.addInterceptor(new LoggingInterceptor(httpLogging));
 
-                private final Map<HttpUrl, List<Cookie>> mCookieStore = Utils.newMap();
+        if (mCookieStore != null)
+            builder.cookieJar(mCookieStore);
+        else if (cookies != null && !cookies.isEmpty())
+            builder.cookieJar(mCookieStore = createCookieStore(cookies));
 
-                @Override
-                public void saveFromResponse(HttpUrl url, List<Cookie> cookies) {
-                    mCookieStore.put(url, cookies);
-                }
+        return builder;
+    }
 
-                @Override
-                public List<Cookie> loadForRequest(HttpUrl url) {
-                    List<Cookie> list = mCookieStore.get(url);
-                    list = list != null ? new ArrayList<>(list): new ArrayList<Cookie>();
+    /**
+     * Returns the {@code OkHttpClient} which is shared by all {@code Retrofit2} components with the equal
+     * performance profiles. Use {@link OkHttpClient#newBuilder()} to customize it: the customized clients
+     * still share the connection pool, the dispatcher (and its threads) and the disk cache.
+     *
+     * @param profile
+     *        The performance profile (or null for defaults)
+     *
+     * @return  The shared {@code OkHttpClient}
+     */
+    @NonNull
+    public static OkHttpClient getSharedOkHttpClient(@Nullable final PerformanceProfile profile) {
+        return getSharedClient(profile, OkHttpClient.class, Cache.class, SHARED_CLIENT_FACTORY);
+    }
 
-                    for (final String name: cookies.keySet())
-                        setCookie(name, cookies.get(name), list, url);
+    /**
+     * Makes the loaders' GET requests conditional ({@code If-None-Match} / {@code If-Modified-Since}) if the cache
+     * already keeps the data for the request URL, and collects the validators from the responses.
+     *
+     * @see ConditionalRequests
+     */
+    private static class ConditionalRequestsInterceptor implements Interceptor {
 
-                    return list;
-                }
-            });
+        /**
+         * Please refer to the base method description.
+         */
+        @Override
+        public okhttp3.Response intercept(final Chain chain) throws IOException {
+            Request request = chain.request();
 
-        return builder;
+            final boolean loaderRequest = request.header(ConditionalRequests.HEADER_LOADER_REQUEST) != null;
+            if (loaderRequest)
+                request = request.newBuilder().removeHeader(ConditionalRequests.HEADER_LOADER_REQUEST).build();
+
+            if (!ConditionalRequests.isApplicable(loaderRequest, request.method(),
+                    request.header(HttpValidators.HEADER_IF_NONE_MATCH),
+                    request.header(HttpValidators.HEADER_IF_MODIFIED_SINCE)))
+                return chain.proceed(request);
+
+            final String url = request.url().toString();
+
+            final Map<String, String> headers = ConditionalRequests.getHeaders(url);
+            if (headers != null) {
+                final Request.Builder requestBuilder = request.newBuilder();
+                for (final Map.Entry<String, String> header: headers.entrySet())
+                    requestBuilder.header(header.getKey(), header.getValue());
+                request = requestBuilder.build();
+            }
+
+            final okhttp3.Response response = chain.proceed(request);
+
+            // the response request is the one after redirects - the loaders bind the validators by its URL
+            ConditionalRequests.onResponse(url, response.request().url().toString(), response.code(),
+                    response.header(HttpValidators.HEADER_ETAG), response.header(HttpValidators.HEADER_LAST_MODIFIED));
+
+            return response;
+        }
     }
 
-    private void setCookie(final String name, final String value,
-                           final List<Cookie> cookies, final HttpUrl url) {
-        try {
-            final Cookie cookie = createCookie(name, value, url);
+    /**
+     * Marks the loaders' requests for the {@link ConditionalRequestsInterceptor}. Retrofit 2 creates
+     * the OkHttp calls on the submitting thread (even for the asynchronous ones), so the mark could be checked here.
+     *
+     * @see HttpValidators#isLoaderRequest
+     */
+    private static class LoaderCallFactory implements okhttp3.Call.Factory {
 
-            for (int i = cookies.size() - 1; i >= 0; i--)
-                if (cookies.get(i).name().equalsIgnoreCase(name))
-                    cookies.remove(i);
+        private final okhttp3.Call.Factory          mCallFactory;
 
-            cookies.add(cookie);
+        private LoaderCallFactory(@NonNull final okhttp3.Call.Factory callFactory) {
+            mCallFactory = callFactory;
         }
-        catch (Exception exception) {
-            CoreLogger.log("setCookie failed", exception);
+
+        /**
+         * Please refer to the base method description.
+         */
+        @Override
+        public okhttp3.Call newCall(final Request request) {
+            return mCallFactory.newCall(!HttpValidators.isLoaderRequest() ? request: request.newBuilder()
+                    .header(ConditionalRequests.HEADER_LOADER_REQUEST, Boolean.TRUE.toString()).build());
+        }
+    }
+
+    /**
+     * The OkHttp 3 adapter for the {@link HttpLogging.Adapter}.
+     */
+    private static class LoggingInterceptor extends HttpLogging.Adapter<Interceptor.Chain, Request, okhttp3.Response>
+            implements Interceptor {
+
+        private LoggingInterceptor(@NonNull final HttpLogging httpLogging) {
+            super(httpLogging);
+        }
+
+        /**
+         * Please refer to the base method description.
+         */
+        @Override
+        public okhttp3.Response intercept(final Chain chain) throws IOException {
+            return logAndProceed(chain);
+        }
+
+        @Override
+        Request getRequest(@NonNull final Chain chain) {
+            return chain.request();
+        }
+
+        @Override
+        okhttp3.Response proceed(@NonNull final Chain chain, @NonNull final Request request) throws IOException {
+            return chain.proceed(request);
+        }
+
+        @Override
+        String getMethod(@NonNull final Request request) {
+            return request.method();
+        }
+
+        @Override
+        String getUrl(@NonNull final Request request) {
+            return request.url().toString();
+        }
+
+        @Override
+        String getPath(@NonNull final Request request) {
+            return request.url().encodedPath();
+        }
+
+        @Override
+        void appendRequestHeaders(@NonNull final StringBuilder builder, @NonNull final Request request) {
+            appendHeaders(builder, request.headers());
+        }
+
+        @Override
+        long getRequestBodyLength(@NonNull final Request request) throws IOException {
+            final RequestBody requestBody = request.body();
+            return requestBody == null ? 0: requestBody.contentLength();
+        }
+
+        @Override
+        String getRequestContentType(@NonNull final Request request) {
+            final RequestBody requestBody = request.body();
+            return requestBody == null ? null: toString(requestBody.contentType());
+        }
+
+        @Override
+        String getRequestBody(@NonNull final Request request) throws IOException {
+            final RequestBody requestBody = request.body();
+            if (requestBody == null) return null;
+
+            final Buffer buffer = new Buffer();
+            requestBody.writeTo(buffer);
+            return buffer.readUtf8();
+        }
+
+        @Override
+        int getCode(@NonNull final okhttp3.Response response) {
+            return response.code();
+        }
+
+        @Override
+        String getMessage(@NonNull final okhttp3.Response response) {
+            return response.message();
+        }
+
+        @Override
+        void appendResponseHeaders(@NonNull final StringBuilder builder, @NonNull final okhttp3.Response response) {
+            appendHeaders(builder, response.headers());
+        }
+
+        @Override
+        boolean hasResponseBody(@NonNull final okhttp3.Response response) {
+            return response.body() != null;
+        }
+
+        @Override
+        long getResponseBodyLength(@NonNull final okhttp3.Response response) {
+            final ResponseBody responseBody = response.body();
+            return responseBody == null ? -1: responseBody.contentLength();
+        }
+
+        @Override
+        String getResponseContentType(@NonNull final okhttp3.Response response) {
+            final ResponseBody responseBody = response.body();
+            return responseBody == null ? null: toString(responseBody.contentType());
+        }
+
+        @Override
+        String peekResponseBody(@NonNull final okhttp3.Response response, final int maxBodySize) throws IOException {
+            return response.peekBody(maxBodySize).string();
+        }
+
+        private static String toString(final MediaType contentType) {
+            return contentType == null ? null: contentType.toString();
+        }
+
+        private void appendHeaders(@NonNull final StringBuilder builder, @NonNull final Headers headers) {
+            for (int i = 0; i < headers.size(); i++)
+                appendHeader(builder, headers.name(i), headers.value(i));
         }
     }
 
+    /**
+     * Sets the cookie store to use (should be called before {@link #init init()}).
+     * If not set, the default in-memory one is created for the cookies passed to {@code init()}.
+     *
+     * @param cookieStore
+     *        The cookie store
+     *
+     * @return  This {@code Retrofit2} object
+     */
+    @SuppressWarnings({"unused", "UnusedReturnValue"})
+    public Retrofit2<T> setCookieStore(final CookieStore cookieStore) {
+        mCookieStore = cookieStore;
+        return this;
+    }
+
+    /**
+     * Returns the cookie store (if any).
+     *
+     * @return  The cookie store (or null)
+     */
+    @SuppressWarnings("unused")
+    public CookieStore getCookieStore() {
+        return mCookieStore;
+    }
+
+    /**
+     * Creates the default cookie store.
+     *
+     * @param cookies
+     *        The cookies to send with every request
+     *
+     * @return  The cookie store
+     */
+    @SuppressWarnings("WeakerAccess")
+    protected CookieStore createCookieStore(@NonNull final Map<String, String> cookies) {
+        return new CookieStore(cookies) {
+            @Override
+            protected Cookie createCookie(final String name, final String value, final HttpUrl url) {
+                return Retrofit2.this.createCookie(name, value, url);
+            }
+        };
+    }
+
     /**
      * Creates a cookie.
      *
@@ -306,6 +564,260 @@ public class Retrofit2<T> extends BaseRetrofit<T, Builder> {
 
     ////////////////////////////////////////////////////////////////////////////////////////////////
 
+    /**
+     * The bounded cookie store: cookies are kept by domain, path and name (so the URLs with different
+     * query parameters share the same cookies), expired ones are evicted, and the least recently used
+     * ones are dropped when the store is full. Persistent cookies could be optionally saved on disk.
+     */
+    public static class CookieStore implements CookieJar {
+
+        /** The default maximum number of cookies to keep (the value is {@value}). */
+        public  static final int                        DEFAULT_MAX_SIZE            = 256;
+
+        private static final String                     PREFERENCES_NAME            = "YakhontCookies";
+        private static final String                     PREFERENCES_KEY             = "cookies";
+        private static final String                     SEPARATOR                   = "\n";
+        private static final char                       DOMAIN_SEPARATOR            = '\t';
+        private static final String                     KEY_FORMAT                  = "%s;%s;%s";
+
+        // access ordered - LRU
+        private final Map<String, Cookie>               mCookies                    = new LinkedHashMap<>(16, 0.75f, true);
+        private final Map<String, String>               mFixedCookies;
+        private final Set<String>                       mFixedNames                 = new HashSet<>();
+        private final Map<String, List<Cookie>>         mFixedByHost                = new HashMap<>();
+
+        private       int                               mMaxSize                    = DEFAULT_MAX_SIZE;
+        private       SharedPreferences                 mPreferences;
+
+        /**
+         * Initialises a newly created {@code CookieStore} object.
+         */
+        @SuppressWarnings("unused")
+        public CookieStore() {
+            this(null);
+        }
+
+        /**
+         * Initialises a newly created {@code CookieStore} object.
+         *
+         * @param cookies
+         *        The cookies to send with every request (or null)
+         */
+        public CookieStore(@Nullable final Map<String, String> cookies) {
+            mFixedCookies = cookies == null ? null: new LinkedHashMap<>(cookies);
+            if (mFixedCookies != null)
+                for (final String name: mFixedCookies.keySet())
+                    mFixedNames.add(name.toLowerCase(Locale.US));
+        }
+
+        /**
+         * Sets the maximum number of cookies to keep.
+         *
+         * @param maxSize
+         *        The maximum number of cookies
+         *
+         * @return  This {@code CookieStore} object to allow for chaining of calls to set methods
+         */
+        @SuppressWarnings("unused")
+        public CookieStore setMaxSize(@IntRange(from = 1) final int maxSize) {
+            synchronized (mCookies) {
+                mMaxSize = maxSize;
+                trim();
+            }
+            return this;
+        }
+
+        /**
+         * Enables saving of the persistent cookies on disk (and loads the previously saved ones).
+         *
+         * @param context
+         *        The context
+         *
+         * @return  This {@code CookieStore} object to allow for chaining of calls to set methods
+         */
+        @SuppressWarnings("unused")
+        public CookieStore setPersistent(@NonNull final Context context) {
+            synchronized (mCookies) {
+                mPreferences = context.getApplicationContext().getSharedPreferences(
+                        PREFERENCES_NAME, Context.MODE_PRIVATE);
+                load();
+            }
+            return this;
+        }
+
+        /**
+         * Removes all cookies.
+         */
+        @SuppressWarnings("unused")
+        public void clear() {
+            synchronized (mCookies) {
+                mCookies.clear();
+                save();
+            }
+        }
+
+        /**
+         * Returns the number of stored cookies.
+         *
+         * @return  The number of cookies
+         */
+        @SuppressWarnings("unused")
+        public int size() {
+            synchronized (mCookies) {
+                return mCookies.size();
+            }
+        }
+
+        private static String getKey(@NonNull final Cookie cookie) {
+            return String.format(KEY_FORMAT, cookie.domain(), cookie.path(), cookie.name());
+        }
+
+        /**
+         * Please refer to the base method description.
+         */
+        @Override
+        public void saveFromResponse(final HttpUrl url, final List<Cookie> cookies) {
+            final long now = System.currentTimeMillis();
+            boolean persistentChanged = false;
+
+            synchronized (mCookies) {
+                for (final Cookie cookie: cookies) {
+                    final String key = getKey(cookie);
+                    final Cookie prev = cookie.expiresAt() < now ? mCookies.remove(key): mCookies.put(key, cookie);
+
+                    if (cookie.persistent() || (prev != null && prev.persistent())) persistentChanged = true;
+                }
+                trim();
+
+                if (persistentChanged) save();
+            }
+        }
+
+        /**
+         * Please refer to the base method description.
+         */
+        @Override
+        public List<Cookie> loadForRequest(final HttpUrl url) {
+            final List<Cookie> result = new ArrayList<>();
+            final List<String> keys   = new ArrayList<>();
+            final long now = System.currentTimeMillis();
+
+            synchronized (mCookies) {
+                final Iterator<Map.Entry<String, Cookie>> iterator = mCookies.entrySet().iterator();
+                while (iterator.hasNext()) {
+                    final Map.Entry<String, Cookie> entry = iterator.next();
+                    final Cookie cookie = entry.getValue();
+
+                    if (cookie.expiresAt() < now)
+                        iterator.remove();
+                    else if (cookie.matches(url) &&
+                            (mFixedNames.isEmpty() || !mFixedNames.contains(cookie.name().toLowerCase(Locale.US)))) {
+                        result.add(cookie);
+                        keys.add(entry.getKey());
+                    }
+                }
+                // the iteration doesn't change the access order, so the LRU eviction needs the explicit access
+                for (final String key: keys)
+                    mCookies.get(key);
+
+                result.addAll(getFixedCookies(url));
+            }
+            return result;
+        }
+
+        // should be called under lock
+        private List<Cookie> getFixedCookies(@NonNull final HttpUrl url) {
+            if (mFixedCookies == null || mFixedCookies.isEmpty()) return Collections.emptyList();
+
+            final String host = url.host();
+            List<Cookie> list = mFixedByHost.get(host);
+            if (list != null) return list;
+
+            list = new ArrayList<>(mFixedCookies.size());
+            for (final Map.Entry<String, String> entry: mFixedCookies.entrySet())
+                try {
+                    list.add(createCookie(entry.getKey(), entry.getValue(), url));
+                }
+                catch (Exception exception) {
+                    CoreLogger.log("createCookie failed", exception);
+                }
+
+            if (mFixedByHost.size() >= mMaxSize) mFixedByHost.clear();
+            mFixedByHost.put(host, list);
+
+            return list;
+        }
+
+        /**
+         * Creates a cookie to send with every request.
+         *
+         * @param name
+         *        The name
+         *
+         * @param value
+         *        The value
+         *
+         * @param url
+         *        The url
+         *
+         * @return  The cookie
+         */
+        @SuppressWarnings("WeakerAccess")
+        protected Cookie createCookie(final String name, final String value, final HttpUrl url) {
+            return new Cookie.Builder()
+                    .domain(url.host())
+                    .name(name)
+                    .value(value)
+                    .build();
+        }
+
+        // should be called under lock
+        private void trim() {
+            final Iterator<Cookie> iterator = mCookies.values().iterator();
+            for (int i = mCookies.size() - mMaxSize; i > 0 && iterator.hasNext(); i--) {
+                iterator.next();
+                iterator.remove();
+            }
+        }
+
+        // should be called under lock
+        private void save() {
+            if (mPreferences == null) return;
+
+            final StringBuilder builder = new StringBuilder();
+            for (final Cookie cookie: mCookies.values())
+                if (cookie.persistent()) builder.append(cookie.domain()).append(DOMAIN_SEPARATOR)
+                        .append(cookie.toString()).append(SEPARATOR);
+
+            mPreferences.edit().putString(PREFERENCES_KEY, builder.toString()).apply();
+        }
+
+        // should be called under lock
+        private void load() {
+            final String data = mPreferences.getString(PREFERENCES_KEY, null);
+            if (data == null) return;
+
+            final long now = System.currentTimeMillis();
+            for (final String line: data.split(SEPARATOR)) {
+                if (line.isEmpty()) continue;
+                try {
+                    final int idx = line.indexOf(DOMAIN_SEPARATOR);
+                    final Cookie cookie = idx <= 0 ? null: Cookie.parse(new HttpUrl.Builder().scheme("https")
+                            .host(line.substring(0, idx)).build(), line.substring(idx + 1));
+
+                    if (cookie != null && cookie.expiresAt() >= now) mCookies.put(getKey(cookie), cookie);
+                }
+                catch (Exception exception) {
+                    CoreLogger.log("can not restore cookie " + line, exception);
+                }
+            }
+            trim();
+            CoreLogger.log("cookies restored: " + mCookies.size());
+        }
+    }
+
+    ////////////////////////////////////////////////////////////////////////////////////////////////
+
     /**
      * Extends the {@link ValuesCacheAdapterWrapper} class to provide Retrofit 2 support.
      *
@@ -20,6 +20,8 @@ import akha.yakhont.Core.Utils;
 import akha.yakhont.CoreLogger;
 import akha.yakhont.CoreLogger.Level;
 import akha.yakhont.loader.BaseResponse;
+import akha.yakhont.loader.LoaderMetrics;
+import akha.yakhont.loader.LoaderMetrics.MetricsListener;
 import akha.yakhont.location.LocationCallbacks;
 import akha.yakhont.technology.rx.Rx.RxSubscription;
 import akha.yakhont.technology.rx.Rx2.Rx2Disposable;
@@ -43,6 +45,7 @@ import java.util.Set;
  * @see Rx2
  * @see LoaderRx
  * @see LocationRx
+ * @see MetricsRx
  *
  * @author akha
  */
@@ -782,4 +785,102 @@ public abstract class BaseRx<D> {
             super.onResult(baseResponse);
         }
     }
+
+    ////////////////////////////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Extends the {@link BaseRx} class to provide {@link LoaderMetrics} support. For example:
+     *
+     * <p><pre style="background-color: silver; border: thin solid black;">
+     * import akha.yakhont.loader.LoaderMetrics;
+     * import akha.yakhont.technology.rx.BaseRx.MetricsRx;
+     * import akha.yakhont.technology.rx.BaseRx.SubscriberRx;
+     *
+     * boolean useRxJava2 = true;
+     * mRx = new MetricsRx(useRxJava2).subscribe(new SubscriberRx&lt;LoaderMetrics&gt;() {
+     *
+     *     &#064;Override
+     *     public void onNext(final LoaderMetrics metrics) {
+     *         // your code here
+     *     }
+     * });
+     *
+     * // and when it's not needed anymore
+     * mRx.cleanup();
+     * </pre>
+     *
+     * Please note that metrics could be emitted from the background threads.
+     *
+     * @see LoaderMetrics
+     */
+    public static class MetricsRx extends BaseRx<LoaderMetrics> implements MetricsListener {
+
+        private volatile LoaderMetrics          mLast;
+
+        /**
+         * Initialises a newly created {@code MetricsRx} object.
+         */
+        @SuppressWarnings("unused")
+        public MetricsRx() {
+            this(true);
+        }
+
+        /**
+         * Initialises a newly created {@code MetricsRx} object.
+         *
+         * @param isRx2
+         *        {@code true} for using {@link <a href="https://github.com/ReactiveX/RxJava">RxJava 2</a>},
+         *        {@code false} for {@link <a href="https://github.com/ReactiveX/RxJava/tree/1.x">RxJava</a>}
+         */
+        public MetricsRx(final boolean isRx2) {
+            this(isRx2 ? new Rx2<LoaderMetrics>(): new Rx<LoaderMetrics>());
+        }
+
+        /**
+         * Initialises a newly created {@code MetricsRx} object.
+         *
+         * @param commonRx
+         *        The {@link CommonRx} to use
+         */
+        public MetricsRx(final CommonRx<LoaderMetrics> commonRx) {
+            super(commonRx, false);
+
+            LoaderMetrics.addListener(this);
+        }
+
+        /**
+         * Please refer to the base method description.
+         */
+        @Override
+        public MetricsRx subscribe(final SubscriberRx<LoaderMetrics> subscriber) {
+            return (MetricsRx) super.subscribe(subscriber);
+        }
+
+        /**
+         * Please refer to the base method description.
+         */
+        @Override
+        public void cleanup() {
+            LoaderMetrics.removeListener(this);
+
+            super.cleanup();
+        }
+
+        /**
+         * Please refer to the base method description.
+         */
+        @Override
+        public LoaderMetrics getResult() {
+            return mLast;
+        }
+
+        /**
+         * Please refer to the base method description.
+         */
+        @Override
+        public void onMetrics(final LoaderMetrics metrics) {
+            mLast = metrics;
+            onResult(metrics);
+        }
+    }
 }
@@ -16,7 +16,7 @@
 
 package retrofit;
 
-import akha.yakhont.Core.Utils.TypeHelper;
+import akha.yakhont.Core.Utils.TypeHelper.MethodIndex;
 import akha.yakhont.CoreReflection;
 
 import android.support.annotation.NonNull;
@@ -31,8 +31,8 @@ import java.util.Map;
 public class YakhontRestAdapter<T> {
 
     private T                               mHandler;
-    private Class<T>                        mService;
     private Map<Method, RestMethodInfo>     mMethodInfoCache;
+    private MethodIndex                     mMethodIndex;
 
     /** @exclude */ @SuppressWarnings("JavaDoc")
     public interface YakhontCallback<D> extends Callback<D> {
@@ -42,8 +42,13 @@ public class YakhontRestAdapter<T> {
     @SuppressWarnings("unchecked")
     public T create(@NonNull final Class<T> service, @NonNull final RestAdapter restAdapter) {
         mHandler            = restAdapter.create(service);
-        mService            = service;
         mMethodInfoCache    = restAdapter.getMethodInfoCache(service);
+        mMethodIndex        = new MethodIndex(service, new MethodIndex.TypeResolver() {
+            @Override
+            public Type getType(@NonNull final Method method) {
+                return YakhontRestAdapter.this.getType(method);
+            }
+        });
 
         return (T) Proxy.newProxyInstance(service.getClassLoader(), new Class<?>[] {service}, new YakhontHandler());
     }
@@ -63,10 +68,7 @@ public class YakhontRestAdapter<T> {
     }
 
     public Method findMethod(@NonNull final Type typeResponse) {
-        for (final Method method: mService.getMethods())
-            if (TypeHelper.checkType(typeResponse, getType(method)))
-                return method;
-        return null;
+        return mMethodIndex.findMethod(typeResponse);
     }
 
     public T getHandler() {